@@ -0,0 +1,160 @@
+package com.smartquiz.benchmarks;
+
+import com.smartquiz.database.AdaptiveSession;
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.database.EloModel;
+import com.smartquiz.models.Question;
+import com.smartquiz.models.Rating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulated adaptive quizzes against a generated bank, through the real DatabaseManager paths
+ * (rating index, Elo updates, batched rating writes). Every simulated user has a hidden true ability
+ * and every question a hidden true difficulty; answers are drawn from the Elo model of the two.
+ * All users' sessions are open at once and advance one answer per round on a thread pool.
+ * After selected rounds it reports how far the estimated abilities are from the true ones and the
+ * latency of picking the next question. Not a JMH benchmark, since convergence is the point:
+ * <pre>
+ *   java -cp target/benchmarks.jar com.smartquiz.benchmarks.AdaptiveSimulation [questions] [users] [answers] [threads]
+ * </pre>
+ * Defaults: 100000 questions, 10000 users, 40 answers each, one thread per core.
+ */
+public final class AdaptiveSimulation {
+    private static final int[] REPORT_AFTER = {1, 2, 5, 10, 20, 30, 40, 60, 80, 100};
+
+    private AdaptiveSimulation() {}
+
+    public static void main(String[] args) throws Exception {
+        int questionCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int answersPerUser = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        SplittableRandom random = new SplittableRandom(7);
+        try (BenchmarkDatabase database = BenchmarkDatabase.create("adaptive").withQuestions(questionCount)) {
+            DatabaseManager db = database.open();
+
+            // Question ids run from 1 in a fresh database; truth = authored level + hidden offset
+            double[] difficultyOffset = new double[questionCount + 1];
+            for (int id = 1; id <= questionCount; id++) {
+                difficultyOffset[id] = random.nextGaussian() * 200;
+            }
+            // Ratings need no users row, so the simulated users skip registration (and BCrypt)
+            double[] trueAbility = new double[userCount];
+            AdaptiveSession[] sessions = new AdaptiveSession[userCount];
+            long start = System.nanoTime();
+            for (int u = 0; u < userCount; u++) {
+                trueAbility[u] = 1500 + random.nextGaussian() * 350;
+                sessions[u] = db.startAdaptiveSession(1_000_000 + u, null, answersPerUser);
+            }
+            System.out.printf("%d questions, %d users, %d answers each, %d threads; rating index ready in %d ms%n",
+                questionCount, userCount, answersPerUser, threads, (System.nanoTime() - start) / 1_000_000);
+            System.out.println("answers  ability RMSE  mean |error|  correlation  correct%   pick p50/p99/max (us)");
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                int nextReport = 0;
+                for (int round = 1; round <= answersPerUser; round++) {
+                    long[] latencies = playRound(pool, threads, db, sessions, trueAbility, difficultyOffset);
+                    if (nextReport < REPORT_AFTER.length && round == REPORT_AFTER[nextReport]
+                            || round == answersPerUser) {
+                        report(round, db, sessions, trueAbility, latencies);
+                        while (nextReport < REPORT_AFTER.length && REPORT_AFTER[nextReport] <= round) {
+                            nextReport++;
+                        }
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+            System.out.println("Rating writes: " + db.getRatingQueueStats());
+        }
+    }
+
+    /**
+     * Every user picks and answers one question
+     * @return pick latencies of the round in nanoseconds, sorted
+     */
+    private static long[] playRound(ExecutorService pool, int threads, DatabaseManager db, AdaptiveSession[] sessions,
+                                    double[] trueAbility, double[] difficultyOffset) throws Exception {
+        List<Future<long[]>> parts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int from = (int) ((long) sessions.length * t / threads);
+            int to = (int) ((long) sessions.length * (t + 1) / threads);
+            parts.add(pool.submit(() -> {
+                long[] latencies = new long[to - from];
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int u = from; u < to; u++) {
+                    long pickStart = System.nanoTime();
+                    Question question = db.nextAdaptiveQuestion(sessions[u]);
+                    latencies[u - from] = System.nanoTime() - pickStart;
+                    if (question == null) {
+                        continue;
+                    }
+                    double difficulty = Rating.initialQuestionRating(question.getDifficulty())
+                        + difficultyOffset[question.getId()];
+                    boolean correct = random.nextDouble() < EloModel.expected(trueAbility[u], difficulty);
+                    db.recordAdaptiveAnswer(sessions[u], question.getId(), correct);
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[sessions.length];
+        int at = 0;
+        for (Future<long[]> part : parts) {
+            long[] latencies = part.get();
+            System.arraycopy(latencies, 0, all, at, latencies.length);
+            at += latencies.length;
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static void report(int round, DatabaseManager db, AdaptiveSession[] sessions, double[] trueAbility,
+                               long[] latencies) throws Exception {
+        int n = sessions.length;
+        double[] estimated = new double[n];
+        long answered = 0;
+        long correct = 0;
+        for (int u = 0; u < n; u++) {
+            estimated[u] = db.getUserRating(sessions[u].getUserId()).getRating();
+            answered += sessions[u].getAnswered();
+            correct += sessions[u].getCorrect();
+        }
+        double squared = 0;
+        double absolute = 0;
+        for (int u = 0; u < n; u++) {
+            double error = estimated[u] - trueAbility[u];
+            squared += error * error;
+            absolute += Math.abs(error);
+        }
+        System.out.printf("%7d  %12.1f  %12.1f  %11.3f  %7.1f%%   %.1f / %.1f / %.1f%n",
+            round, Math.sqrt(squared / n), absolute / n, correlation(estimated, trueAbility),
+            answered == 0 ? 0.0 : correct * 100.0 / answered,
+            latencies[latencies.length / 2] / 1000.0,
+            latencies[(int) (latencies.length * 0.99)] / 1000.0,
+            latencies[latencies.length - 1] / 1000.0);
+    }
+
+    private static double correlation(double[] x, double[] y) {
+        double meanX = Arrays.stream(x).average().orElse(0);
+        double meanY = Arrays.stream(y).average().orElse(0);
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            varianceX += (x[i] - meanX) * (x[i] - meanX);
+            varianceY += (y[i] - meanY) * (y[i] - meanY);
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
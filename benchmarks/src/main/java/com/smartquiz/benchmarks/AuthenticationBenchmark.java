@@ -0,0 +1,74 @@
+package com.smartquiz.benchmarks;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.models.User;
+import com.smartquiz.utils.PasswordUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login cost: BCrypt (cost 12, as used by {@link PasswordUtils#hashPassword}) dominates,
+ * so the lookup-only and hash-only numbers are reported alongside the full call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+    private BenchmarkDatabase database;
+    private DatabaseManager db;
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.create("auth");
+        db = database.open();
+        User user = database.createUser("student");
+        storedHash = user.getPasswordHash();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public User authenticateValid() throws Exception {
+        return db.authenticateUser("student", BenchmarkDatabase.PASSWORD);
+    }
+
+    @Benchmark
+    public User authenticateWrongPassword() throws Exception {
+        return db.authenticateUser("student", "wrong-password1");
+    }
+
+    /** Unknown users skip BCrypt entirely: this is the query-only cost */
+    @Benchmark
+    public User authenticateUnknownUser() throws Exception {
+        return db.authenticateUser("nobody", BenchmarkDatabase.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return PasswordUtils.verifyPassword(BenchmarkDatabase.PASSWORD, storedHash);
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return PasswordUtils.hashPassword(BenchmarkDatabase.PASSWORD);
+    }
+}
@@ -0,0 +1,145 @@
+package com.smartquiz.benchmarks;
+
+import com.smartquiz.database.ConnectionPool;
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.database.SchemaMigrator;
+import com.smartquiz.models.QuizResult;
+import com.smartquiz.models.User;
+import com.smartquiz.utils.PasswordUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A generated SQLite file in the temp directory, migrated to the current schema and filled with
+ * synthetic questions, users and results. Each benchmark trial builds its own and deletes it afterwards.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+    static final String[] CATEGORIES = {
+        "Geography", "Science", "Technology", "History", "Mathematics", "Literature", "Art", "Music"
+    };
+    static final String[] DIFFICULTIES = {"easy", "medium", "hard"};
+    static final String PASSWORD = "bench123";
+
+    private static final int INSERT_CHUNK = 10_000;
+
+    private final Path file;
+    private final String url;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private DatabaseManager db;
+
+    private BenchmarkDatabase(Path file) {
+        this.file = file;
+        this.url = "jdbc:sqlite:" + file;
+    }
+
+    /**
+     * Create an empty database at the latest schema version
+     */
+    static BenchmarkDatabase create(String label) throws IOException, SQLException {
+        BenchmarkDatabase bench = new BenchmarkDatabase(Files.createTempFile("smartquiz-" + label + "-", ".db"));
+        try (ConnectionPool pool = new ConnectionPool(bench.url, 1)) {
+            new SchemaMigrator().migrate(pool);
+        }
+        return bench;
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    /**
+     * Bulk-insert generated questions; must be called before {@link #open()} so the bank sees them
+     */
+    BenchmarkDatabase withQuestions(int count) throws SQLException {
+        String sql = """
+            INSERT INTO questions (category, question_text, option_a, option_b, option_c, option_d, correct_answer, difficulty)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        try (ConnectionPool pool = new ConnectionPool(url, 1)) {
+            for (int start = 0; start < count; start += INSERT_CHUNK) {
+                int from = start;
+                int to = Math.min(count, start + INSERT_CHUNK);
+                pool.transaction(conn -> {
+                    try (PreparedStatement ps = conn.getConnection().prepareStatement(sql)) {
+                        for (int i = from; i < to; i++) {
+                            ps.setString(1, CATEGORIES[i % CATEGORIES.length]);
+                            ps.setString(2, "Generated question number " + i + "?");
+                            ps.setString(3, "Answer A" + i);
+                            ps.setString(4, "Answer B" + i);
+                            ps.setString(5, "Answer C" + i);
+                            ps.setString(6, "Answer D" + i);
+                            ps.setInt(7, i & 3);
+                            ps.setString(8, DIFFICULTIES[(i / CATEGORIES.length) % DIFFICULTIES.length]);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                    return null;
+                });
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Open the manager (loading the question bank and leaderboards); idempotent
+     */
+    DatabaseManager open() throws SQLException {
+        if (db == null) {
+            db = DatabaseManager.open(url);
+            db.initializeDatabase();
+        }
+        return db;
+    }
+
+    /**
+     * Register a user with the real BCrypt cost and return it as stored
+     */
+    User createUser(String username) throws SQLException {
+        DatabaseManager manager = open();
+        manager.insertUser(username, username + "@bench.local", PasswordUtils.hashPassword(PASSWORD), "user");
+        return manager.authenticateUser(username, PASSWORD);
+    }
+
+    /**
+     * Give a user a result history through the normal insert path, so aggregates and leaderboards match
+     */
+    void addResults(int userId, int count) throws SQLException {
+        DatabaseManager manager = open();
+        List<QuizResult> chunk = new ArrayList<>(1000);
+        for (int i = 0; i < count; i++) {
+            chunk.add(randomResult(userId));
+            if (chunk.size() == 1000) {
+                manager.insertQuizResults(chunk);
+                chunk = new ArrayList<>(1000);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            manager.insertQuizResults(chunk);
+        }
+    }
+
+    QuizResult randomResult(int userId) {
+        int total = 10;
+        return new QuizResult(userId, CATEGORIES[random.nextInt(CATEGORIES.length)], random.nextInt(total + 1),
+            total, 30 + random.nextInt(600), DIFFICULTIES[random.nextInt(DIFFICULTIES.length)]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (db != null) {
+            db.closeConnection();
+            db = null;
+        }
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(Path.of(file + "-wal"));
+        Files.deleteIfExists(Path.of(file + "-shm"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.smartquiz.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line (benchmark regex, -p, -f, -prof ...)
+ * and always writes machine-readable results, by default to {@code jmh-result.json}, so runs of
+ * different versions can be compared (e.g. with JMH Visualizer or a diff of the "primaryMetric" scores).
+ * <pre>
+ *   java -jar target/benchmarks.jar                              # everything
+ *   java -jar target/benchmarks.jar QuestionSelection -p bankSize=10000 -rff before.json
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+            .parent(commandLine)
+            .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+            .result(commandLine.getResult().orElse("jmh-result.json"))
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,182 @@
+package com.smartquiz.benchmarks;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.models.DuplicateCluster;
+import com.smartquiz.models.Question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Near-duplicate detection on a generated bank: throughput of the bulk scan
+ * ({@link DatabaseManager#findDuplicateClusters()}) and latency of the per-insert check
+ * ({@link DatabaseManager#findNearDuplicates}). Question texts are random words with a skewed word
+ * frequency, so unrelated questions share common words; a given share of the questions are planted
+ * near-duplicates of earlier ones (re-cased and re-punctuated with the options reordered, or with a word
+ * added and an option edited), and the report says how many of them the scan put in their source's cluster:
+ * <pre>
+ *   java -cp target/benchmarks.jar com.smartquiz.benchmarks.DuplicateScan [questions] [duplicate%] [checks]
+ * </pre>
+ * Defaults: 1000000 questions, 2% duplicates, 20000 checks.
+ */
+public final class DuplicateScan {
+    private static final int CHUNK = 10_000;
+    private static final String[] COMMON = {
+        "what", "is", "the", "of", "which", "a", "in", "to", "and", "who", "how", "many", "was", "first", "largest"
+    };
+
+    private DuplicateScan() {}
+
+    public static void main(String[] args) throws Exception {
+        int questionCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double duplicateShare = (args.length > 1 ? Double.parseDouble(args[1]) : 2) / 100;
+        int checks = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        SplittableRandom random = new SplittableRandom(11);
+        String[] vocabulary = vocabulary(random, 20_000);
+        try (BenchmarkDatabase database = BenchmarkDatabase.create("duplicates")) {
+            DatabaseManager db = database.open();
+
+            // Planted duplicate id -> id of the question it copies
+            Map<Integer, Integer> planted = new HashMap<>();
+            List<Question> all = new ArrayList<>(questionCount);
+            long start = System.nanoTime();
+            for (int from = 0; from < questionCount; from += CHUNK) {
+                List<Question> chunk = new ArrayList<>(CHUNK);
+                List<Question> sources = new ArrayList<>(CHUNK);
+                for (int i = from; i < Math.min(questionCount, from + CHUNK); i++) {
+                    Question source = all.isEmpty() || random.nextDouble() >= duplicateShare
+                        ? null : all.get(random.nextInt(all.size()));
+                    chunk.add(source == null ? randomQuestion(random, vocabulary, i) : variant(source, random));
+                    sources.add(source);
+                }
+                db.insertQuestionBatch(chunk, null);
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (sources.get(i) != null) {
+                        planted.put(chunk.get(i).getId(), sources.get(i).getId());
+                    }
+                }
+                all.addAll(chunk);
+            }
+            System.out.printf("%d questions (%d planted near-duplicates) inserted in %d ms%n",
+                questionCount, planted.size(), (System.nanoTime() - start) / 1_000_000);
+
+            for (int run = 1; run <= 2; run++) {
+                start = System.nanoTime();
+                List<DuplicateCluster> clusters = db.findDuplicateClusters();
+                long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                Map<Integer, Integer> clusterOf = new HashMap<>();
+                int unplanted = 0;
+                for (int c = 0; c < clusters.size(); c++) {
+                    boolean anyPlanted = false;
+                    for (Question question : clusters.get(c).getQuestions()) {
+                        clusterOf.put(question.getId(), c);
+                        anyPlanted |= planted.containsKey(question.getId());
+                    }
+                    if (!anyPlanted) {
+                        unplanted++;
+                    }
+                }
+                int found = 0;
+                for (Map.Entry<Integer, Integer> pair : planted.entrySet()) {
+                    Integer cluster = clusterOf.get(pair.getKey());
+                    if (cluster != null && cluster.equals(clusterOf.get(pair.getValue()))) {
+                        found++;
+                    }
+                }
+                System.out.printf("scan %d: %d ms (%.0f questions/s), %d clusters, %d/%d planted duplicates found (%.1f%%), "
+                        + "%d clusters without a planted duplicate%n", run, millis, questionCount * 1000.0 / millis,
+                    clusters.size(), found, planted.size(), found * 100.0 / Math.max(1, planted.size()), unplanted);
+            }
+
+            start = System.nanoTime();
+            db.prepareDuplicateCheck();
+            System.out.printf("duplicate index built in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+            long[] copyNanos = new long[checks];
+            long[] freshNanos = new long[checks];
+            int copiesFound = 0;
+            int freshFound = 0;
+            for (int i = 0; i < checks; i++) {
+                Question copy = variant(all.get(random.nextInt(all.size())), random);
+                start = System.nanoTime();
+                copiesFound += db.findNearDuplicates(copy, 5).isEmpty() ? 0 : 1;
+                copyNanos[i] = System.nanoTime() - start;
+                Question fresh = randomQuestion(random, vocabulary, questionCount + i);
+                start = System.nanoTime();
+                freshFound += db.findNearDuplicates(fresh, 5).isEmpty() ? 0 : 1;
+                freshNanos[i] = System.nanoTime() - start;
+            }
+            System.out.printf("check of a near-copy: %s, flagged %.1f%%%n", percentiles(copyNanos), copiesFound * 100.0 / checks);
+            System.out.printf("check of a new question: %s, flagged %.1f%%%n", percentiles(freshNanos), freshFound * 100.0 / checks);
+        }
+    }
+
+    private static String percentiles(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("p50 %.1f us, p99 %.1f us, max %.1f us", sorted[sorted.length / 2] / 1000.0,
+            sorted[sorted.length * 99 / 100] / 1000.0, sorted[sorted.length - 1] / 1000.0);
+    }
+
+    /**
+     * Random lower-case words; word i is drawn with weight 1 / (i + 10) (see {@link #word})
+     */
+    private static String[] vocabulary(SplittableRandom random, int size) {
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(8);
+            for (int k = 0; k < length; k++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private static String word(SplittableRandom random, String[] vocabulary) {
+        // Inverse of the cumulative weight ln((i + 10) / 10)
+        double total = Math.log((vocabulary.length + 10) / 10.0);
+        int i = (int) (10 * Math.exp(random.nextDouble() * total)) - 10;
+        return vocabulary[Math.min(vocabulary.length - 1, Math.max(0, i))];
+    }
+
+    private static Question randomQuestion(SplittableRandom random, String[] vocabulary, int i) {
+        StringBuilder text = new StringBuilder();
+        int words = 6 + random.nextInt(8);
+        for (int k = 0; k < words; k++) {
+            if (k > 0) {
+                text.append(' ');
+            }
+            text.append(random.nextInt(3) == 0 ? COMMON[random.nextInt(COMMON.length)] : word(random, vocabulary));
+        }
+        text.append('?');
+        String[] options = new String[4];
+        for (int o = 0; o < 4; o++) {
+            options[o] = word(random, vocabulary) + " " + word(random, vocabulary);
+        }
+        return new Question(BenchmarkDatabase.CATEGORIES[i % BenchmarkDatabase.CATEGORIES.length], text.toString(),
+            options[0], options[1], options[2], options[3], i & 3,
+            BenchmarkDatabase.DIFFICULTIES[i % BenchmarkDatabase.DIFFICULTIES.length]);
+    }
+
+    /**
+     * The same question as another source would write it
+     */
+    private static Question variant(Question source, SplittableRandom random) {
+        String text = source.getQuestionText();
+        if (random.nextBoolean()) {
+            return new Question(source.getCategory(),
+                Character.toUpperCase(text.charAt(0)) + text.substring(1, text.length() - 1) + " ?",
+                source.getOptionB(), source.getOptionC(), source.getOptionD(), source.getOptionA(),
+                (source.getCorrectAnswer() + 3) % 4, source.getDifficulty());
+        }
+        return new Question(source.getCategory(), text.substring(0, text.length() - 1) + " today?",
+            source.getOptionA(), source.getOptionB(), source.getOptionC() + "s", source.getOptionD(),
+            source.getCorrectAnswer(), source.getDifficulty());
+    }
+}
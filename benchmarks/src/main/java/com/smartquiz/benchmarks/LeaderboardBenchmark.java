@@ -0,0 +1,71 @@
+package com.smartquiz.benchmarks;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.models.QuizResult;
+import com.smartquiz.models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DatabaseManager#getTopScores}: limits within the in-memory board capacity are served from
+ * memory, larger ones fall back to the indexed SQL query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int limit;
+
+    @Param({"100000"})
+    public int resultCount;
+
+    @Param({"200"})
+    public int userCount;
+
+    private BenchmarkDatabase database;
+    private DatabaseManager db;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.create("leaderboard");
+        db = database.open();
+        // Users share one hash; registering each with its own BCrypt hash would dominate setup
+        User first = database.createUser("user0");
+        for (int i = 1; i < userCount; i++) {
+            db.insertUser("user" + i, "user" + i + "@bench.local", first.getPasswordHash(), "user");
+        }
+        // Fresh file, so the users got consecutive ids
+        for (int i = 0; i < userCount; i++) {
+            database.addResults(first.getId() + i, resultCount / userCount);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public List<QuizResult> getTopScores() throws Exception {
+        return db.getTopScores("Science", limit);
+    }
+}
@@ -0,0 +1,64 @@
+package com.smartquiz.benchmarks;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.models.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DatabaseManager#getRandomQuestions} across bank sizes and filter combinations
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class QuestionSelectionBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int bankSize;
+
+    @Param({"all", "category", "difficulty", "category+difficulty"})
+    public String filter;
+
+    @Param({"10"})
+    public int quizSize;
+
+    private BenchmarkDatabase database;
+    private DatabaseManager db;
+    private String category;
+    private String difficulty;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.create("questions-" + bankSize).withQuestions(bankSize);
+        db = database.open();
+        category = filter.contains("category") ? "Science" : null;
+        difficulty = filter.contains("difficulty") ? "medium" : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Question> getRandomQuestions() throws Exception {
+        return db.getRandomQuestions(quizSize, category, difficulty);
+    }
+}
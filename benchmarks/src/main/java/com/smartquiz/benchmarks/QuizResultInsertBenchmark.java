@@ -0,0 +1,89 @@
+package com.smartquiz.benchmarks;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.models.QuizResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving quiz results: one commit per result, one commit per batch, and the write-behind queue
+ * under concurrent submitters. Scores are reported per result, so the modes compare directly.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuizResultInsertBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    private BenchmarkDatabase database;
+    private DatabaseManager db;
+    private int userId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.create("results");
+        db = database.open();
+        userId = database.createUser("student").getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    private QuizResult nextResult() {
+        synchronized (database) {
+            return database.randomResult(userId);
+        }
+    }
+
+    @Benchmark
+    public QuizResult insertSingle() throws Exception {
+        QuizResult result = nextResult();
+        db.insertQuizResult(result);
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<QuizResult> insertBatched() throws Exception {
+        List<QuizResult> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(nextResult());
+        }
+        db.insertQuizResults(batch);
+        return batch;
+    }
+
+    /** A class submitting at once, each student waiting for their own commit */
+    @Benchmark
+    @Threads(16)
+    public QuizResult insertSingleConcurrent() throws Exception {
+        return insertSingle();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public QuizResult submitWriteBehindConcurrent() throws Exception {
+        return db.submitQuizResult(nextResult()).get();
+    }
+}
@@ -0,0 +1,121 @@
+package com.smartquiz.benchmarks;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.database.QuestionBank;
+import com.smartquiz.database.QuestionSampler;
+import com.smartquiz.models.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Question selection strategies side by side (run with {@code -prof gc} for allocation per op):
+ * <ul>
+ *   <li>shuffle - load every matching row, Collections.shuffle, keep k</li>
+ *   <li>orderByRandom - SELECT ... ORDER BY RANDOM() LIMIT k</li>
+ *   <li>samplerSql - sample k ids from an int[] and hydrate only those rows</li>
+ *   <li>samplerBank - sample from the resident QuestionBank (what getRandomQuestions does)</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class SamplingStrategyBenchmark {
+    private static final int QUIZ_SIZE = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int bankSize;
+
+    @Param({"all", "category+difficulty"})
+    public String filter;
+
+    private BenchmarkDatabase database;
+    private DatabaseManager db;
+    private Connection raw;
+    private QuestionBank bank;
+    private int[] ids;
+    private String category;
+    private String difficulty;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.create("sampling-" + bankSize).withQuestions(bankSize);
+        db = database.open();
+        raw = DriverManager.getConnection(database.getUrl());
+        bank = new QuestionBank(db.getAllQuestions());
+        category = "all".equals(filter) ? null : "Science";
+        difficulty = "all".equals(filter) ? null : "medium";
+        ids = db.getQuestionIds(category, difficulty);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        raw.close();
+        database.close();
+    }
+
+    @Benchmark
+    public List<Question> shuffle() throws SQLException {
+        List<Question> all = category == null
+            ? db.getAllQuestions()
+            : db.getQuestionsByCategoryAndDifficulty(category, difficulty);
+        Collections.shuffle(all);
+        return all.subList(0, Math.min(QUIZ_SIZE, all.size()));
+    }
+
+    @Benchmark
+    public List<Integer> orderByRandom() throws SQLException {
+        String sql = category == null
+            ? "SELECT * FROM questions ORDER BY RANDOM() LIMIT ?"
+            : "SELECT * FROM questions WHERE category = ? AND difficulty = ? ORDER BY RANDOM() LIMIT ?";
+        List<Integer> rows = new ArrayList<>(QUIZ_SIZE);
+        try (PreparedStatement ps = raw.prepareStatement(sql)) {
+            int index = 1;
+            if (category != null) {
+                ps.setString(index++, category);
+                ps.setString(index++, difficulty);
+            }
+            ps.setInt(index, QUIZ_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rs.getString("question_text");
+                    rows.add(rs.getInt("id"));
+                }
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<Question> samplerSql() throws SQLException {
+        return db.getQuestionsByIds(QuestionSampler.sample(ids, QUIZ_SIZE));
+    }
+
+    @Benchmark
+    public List<Question> samplerBank() {
+        return bank.getRandom(QUIZ_SIZE, category, difficulty);
+    }
+}
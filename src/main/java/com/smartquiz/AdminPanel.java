@@ -1,17 +1,22 @@
 package com.smartquiz;
 
+import com.smartquiz.database.AsyncDatabaseManager;
+import com.smartquiz.models.Question;
+import com.smartquiz.repository.QuizRepository;
+import com.smartquiz.utils.SwingAsync;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 
 public class AdminPanel extends JFrame {
+    private final QuizRepository repository;
+    private final AsyncDatabaseManager async = AsyncDatabaseManager.getInstance();
     private JTextField categoryField, aField, bField, cField, dField, answerField;
     private JTextArea questionArea;
-    public AdminPanel() {
+    public AdminPanel(QuizRepository repository) {
+        this.repository = repository;
         setTitle("SmartQuiz - Admin"); setSize(600,400); setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
         JPanel p = new JPanel(new BorderLayout());
@@ -50,19 +55,14 @@ public class AdminPanel extends JFrame {
             JOptionPane.showMessageDialog(this, "Please fill all fields and set correct answer as A/B/C/D");
             return;
         }
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "INSERT INTO questions(category, question_text, option_a, option_b, option_c, option_d, correct_answer) VALUES(?,?,?,?,?,?,?)";
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ps.setString(1, cat);
-            ps.setString(2, q);
-            ps.setString(3, a);
-            ps.setString(4, b);
-            ps.setString(5, c);
-            ps.setString(6, d);
-            ps.setString(7, ans);
-            ps.executeUpdate();
+        // The form has no difficulty field; use the schema default
+        Question question = new Question(cat, q, a, b, c, d, ans.charAt(0) - 'A', "medium");
+        SwingAsync.onEdt(async.call(() -> {
+            repository.insertQuestion(question);
+            return question;
+        }), added -> {
             JOptionPane.showMessageDialog(this, "Question added!");
             questionArea.setText(""); aField.setText(""); bField.setText(""); cField.setText(""); dField.setText(""); answerField.setText(""); categoryField.setText(""); 
-        } catch (SQLException ex) { ex.printStackTrace(); JOptionPane.showMessageDialog(this, "Error adding question"); }
+        }, ex -> { ex.printStackTrace(); JOptionPane.showMessageDialog(this, "Error adding question"); });
     }
 }
@@ -1,13 +0,0 @@
-package com.smartquiz;
-
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
-
-public class DBConnection {
-    private static final String URL = "jdbc:sqlite:quiz_app.db";
-
-    public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
-    }
-}
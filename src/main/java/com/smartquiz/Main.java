@@ -1,14 +1,25 @@
 package com.smartquiz;
 
 
+import com.smartquiz.auth.AuthenticationService;
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.repository.CachedQuizRepository;
+import com.smartquiz.repository.QuizRepository;
+import com.smartquiz.utils.SwingAsync;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 public class Main extends JFrame {
-    public Main() {
-        SetupDB.init(); // ensure DB + tables exist
+    private final QuizRepository repository;
+    // BCrypt runs on the bounded sign-in pool, not the database executor
+    private final AuthenticationService auth;
+
+    public Main(QuizRepository repository) {
+        this.repository = repository;
+        this.auth = new AuthenticationService(repository);
         setTitle("SmartQuiz"); setSize(400,300); setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         setLayout(new BorderLayout());
@@ -39,20 +50,20 @@ public class Main extends JFrame {
             public void actionPerformed(ActionEvent e) {
                 String user = usernameField.getText().trim();
                 String pass = new String(passwordField.getPassword()).trim();
-                int id = AuthService.login(user, pass);
-                if (id != -1) {
-                    JOptionPane.showMessageDialog(Main.this, "Login success!");
-                    String role = AuthService.getRole(id);
-                    if ("admin".equalsIgnoreCase(role)) {
-                        AdminPanel ap = new AdminPanel();
-                        ap.setVisible(true);
+                SwingAsync.onEdt(auth.login(user, pass), account -> {
+                    if (account != null) {
+                        JOptionPane.showMessageDialog(Main.this, "Login success!");
+                        if (account.isAdmin()) {
+                            AdminPanel ap = new AdminPanel(repository);
+                            ap.setVisible(true);
+                        } else {
+                            UserPanel up = new UserPanel(repository, account);
+                            up.setVisible(true);
+                        }
                     } else {
-                        UserPanel up = new UserPanel(id);
-                        up.setVisible(true);
+                        JOptionPane.showMessageDialog(Main.this, "Invalid credentials");
                     }
-                } else {
-                    JOptionPane.showMessageDialog(Main.this, "Invalid credentials");
-                }
+                }, ex -> JOptionPane.showMessageDialog(Main.this, "Login failed: " + ex.getMessage()));
             }
         });
 
@@ -65,8 +76,10 @@ public class Main extends JFrame {
                     JOptionPane.showMessageDialog(Main.this, "Enter username and password to register");
                     return;
                 }
-                boolean ok = AuthService.register(user, pass);
-                if (ok) JOptionPane.showMessageDialog(Main.this, "Registered. Now login."); else JOptionPane.showMessageDialog(Main.this, "Registration failed (maybe username exists)"); 
+                // This form has no email field; emails must be unique, so derive one from the username
+                SwingAsync.onEdt(auth.register(user, user + "@smartquiz.local", pass, "user"), ok -> {
+                    if (ok) JOptionPane.showMessageDialog(Main.this, "Registered. Now login."); else JOptionPane.showMessageDialog(Main.this, "Registration failed (maybe username exists)"); 
+                }, ex -> JOptionPane.showMessageDialog(Main.this, "Registration failed: " + ex.getMessage()));
             }
         });
 
@@ -74,60 +87,37 @@ public class Main extends JFrame {
             @Override
             public void actionPerformed(ActionEvent e) {
                 // quick admin login
-                AdminPanel ap = new AdminPanel(); ap.setVisible(true);
+                AdminPanel ap = new AdminPanel(repository); ap.setVisible(true);
             }
         });
     }
 
     public static void main(String[] args) {
+        DatabaseManager db = DatabaseManager.getInstance();
+        try {
+            db.initializeDatabase(); // ensure DB + tables exist
+        } catch (Exception e) {
+            System.err.println("Failed to initialize database: " + e.getMessage());
+            System.exit(1);
+        }
+        QuizRepository repository = new CachedQuizRepository(db);
         SwingUtilities.invokeLater(() -> {
-            Main m = new Main();
+            Main m = new Main(repository);
             m.setVisible(true);
         });
     }
 }
 =======
-import com.smartquiz.database.DatabaseManager;
-import com.smartquiz.ui.LoginFrame;
-
-import javax.swing.*;
+import com.smartquiz.ui.StartupOrchestrator;
 
 /**
  * Main class for SmartQuiz Application
- * Entry point that initializes the database and launches the login interface
+ * Entry point that initializes the database and launches the login interface.
+ * The two run in parallel (see {@link StartupOrchestrator}); the login window appears while the
+ * database is still opening.
  */
 public class Main {
     public static void main(String[] args) {
-        try {
-            // Set Look and Feel to system default for better appearance
-           UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-
-        } catch (Exception e) {
-            System.err.println("Could not set system look and feel: " + e.getMessage());
-        }
-
-        // Initialize database on startup
-        try {
-            DatabaseManager.getInstance().initializeDatabase();
-            System.out.println("Database initialized successfully!");
-        } catch (Exception e) {
-            System.err.println("Failed to initialize database: " + e.getMessage());
-            JOptionPane.showMessageDialog(null, 
-                "Failed to initialize database. Application will exit.", 
-                "Database Error", 
-                JOptionPane.ERROR_MESSAGE);
-            System.exit(1);
-        }
-
-        // Launch the application on EDT
-        SwingUtilities.invokeLater(() -> {
-            try {
-                new LoginFrame().setVisible(true);
-            } catch (Exception e) {
-                System.err.println("Failed to launch application: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+        new StartupOrchestrator().start();
     }
 }
-
@@ -1,5 +1,12 @@
 package com.smartquiz;
 
+import com.smartquiz.database.AsyncDatabaseManager;
+import com.smartquiz.models.Question;
+import com.smartquiz.models.QuizResult;
+import com.smartquiz.models.User;
+import com.smartquiz.repository.QuizRepository;
+import com.smartquiz.utils.SwingAsync;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -7,33 +14,45 @@ import java.awt.event.ActionListener;
 import java.util.List;
 
 public class UserPanel extends JFrame {
-    private int userId;
+    private final QuizRepository repository;
+    private final AsyncDatabaseManager async = AsyncDatabaseManager.getInstance();
+    private final User user;
     private List<Question> questions;
     private int index = 0;
     private int score = 0;
+    private long startMillis;
 
     private JLabel qLabel;
     private JRadioButton ra, rb, rc, rd;
     private ButtonGroup group;
     private JButton nextBtn;
 
-    public UserPanel(int userId) {
-        this.userId = userId;
+    public UserPanel(QuizRepository repository, User user) {
+        this.repository = repository;
+        this.user = user;
         setTitle("SmartQuiz - Take Quiz"); setSize(700,400); setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
-        questions = QuizService.fetchRandomQuestions(5);
         initUI();
-        if (questions.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "No questions available. Ask admin to add questions.");
+        nextBtn.setEnabled(false);
+        SwingAsync.onEdt(async.call(() -> repository.getRandomQuestions(5, null, null)), loaded -> {
+            questions = loaded;
+            if (questions.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No questions available. Ask admin to add questions.");
+                dispose();
+            } else {
+                startMillis = System.currentTimeMillis();
+                nextBtn.setEnabled(true);
+                loadQuestion();
+            }
+        }, ex -> {
+            JOptionPane.showMessageDialog(this, "Could not load questions: " + ex.getMessage());
             dispose();
-        } else {
-            loadQuestion();
-        }
+        });
     }
 
     private void initUI() {
         setLayout(new BorderLayout());
-        qLabel = new JLabel("Q", SwingConstants.LEFT);
+        qLabel = new JLabel("Loading questions...", SwingConstants.LEFT);
         qLabel.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
         add(qLabel, BorderLayout.NORTH);
 
@@ -54,27 +73,42 @@ public class UserPanel extends JFrame {
 
     private void loadQuestion() {
         Question q = questions.get(index);
-        qLabel.setText("Q" + (index+1) + ": " + q.text);
-        ra.setText("A. " + q.a); rb.setText("B. " + q.b); rc.setText("C. " + q.c); rd.setText("D. " + q.d);
+        qLabel.setText("Q" + (index+1) + ": " + q.getQuestionText());
+        ra.setText("A. " + q.getOption(0)); rb.setText("B. " + q.getOption(1)); rc.setText("C. " + q.getOption(2)); rd.setText("D. " + q.getOption(3));
         group.clearSelection();
         if (index == questions.size()-1) nextBtn.setText("Finish"); else nextBtn.setText("Next");
     }
 
     private void checkAndNext() {
         Question q = questions.get(index);
-        String sel = null;
-        if (ra.isSelected()) sel = "A";
-        if (rb.isSelected()) sel = "B";
-        if (rc.isSelected()) sel = "C";
-        if (rd.isSelected()) sel = "D";
-        if (sel != null && sel.equalsIgnoreCase(q.correct)) score++;
+        int sel = -1;
+        if (ra.isSelected()) sel = 0;
+        if (rb.isSelected()) sel = 1;
+        if (rc.isSelected()) sel = 2;
+        if (rd.isSelected()) sel = 3;
+        if (sel == q.getCorrectAnswer()) score++;
         index++;
         if (index >= questions.size()) {
-            QuizService.saveResult(userId, score);
-            JOptionPane.showMessageDialog(this, "Quiz finished! Your score: " + score + " / " + questions.size());
-            dispose();
+            finishQuiz();
         } else {
             loadQuestion();
         }
     }
+
+    private void finishQuiz() {
+        nextBtn.setEnabled(false);
+        int timeSpent = (int) ((System.currentTimeMillis() - startMillis) / 1000);
+        QuizResult result = new QuizResult(user.getId(), "Mixed", score, questions.size(), timeSpent, "mixed");
+        SwingAsync.onEdt(async.call(() -> {
+            repository.saveQuizResult(result);
+            return result;
+        }), saved -> {
+            JOptionPane.showMessageDialog(this, "Quiz finished! Your score: " + score + " / " + questions.size());
+            dispose();
+        }, ex -> {
+            JOptionPane.showMessageDialog(this, "Your score: " + score + " / " + questions.size()
+                + "\nThe result could not be saved: " + ex.getMessage());
+            dispose();
+        });
+    }
 }
@@ -0,0 +1,116 @@
+package com.smartquiz.auth;
+
+import com.smartquiz.database.AsyncDatabaseManager;
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.metrics.Metrics;
+import com.smartquiz.metrics.OperationMetrics;
+import com.smartquiz.models.User;
+import com.smartquiz.repository.QuizRepository;
+import com.smartquiz.repository.SqliteQuizRepository;
+import com.smartquiz.utils.PasswordUtils;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Login and registration with the BCrypt work on a dedicated, bounded pool.
+ * BCrypt is CPU-bound by design (cost 12 is about a quarter second), so it gets one thread per core
+ * ({@code smartquiz.auth.threads}) rather than the database executor, whose virtual threads would let a
+ * burst of logins run every hash at once. Requests beyond the threads wait in a queue of
+ * {@code smartquiz.auth.queueCapacity}; when that is full the returned future fails at once with a
+ * {@link RejectedExecutionException} so the caller can ask the user to retry instead of piling up work.
+ * <p>
+ * The time each request waits for a thread is recorded as the operation
+ * {@code AuthenticationService.queueWait}; its error count is the number of rejected requests.
+ */
+public class AuthenticationService {
+    private static AuthenticationService instance;
+
+    private static final OperationMetrics QUEUE_WAIT = Metrics.operation("AuthenticationService.queueWait");
+
+    private final QuizRepository users;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * A pool sized by the {@code smartquiz.auth.*} properties
+     */
+    public AuthenticationService(QuizRepository users) {
+        this(users, Integer.getInteger("smartquiz.auth.threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    private AuthenticationService(QuizRepository users, int threads) {
+        this(users, threads, Integer.getInteger("smartquiz.auth.queueCapacity", threads * 16));
+    }
+
+    public AuthenticationService(QuizRepository users, int threads, int queueCapacity) {
+        this.users = users;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "smartquiz-auth-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    public static synchronized AuthenticationService getInstance() {
+        if (instance == null) {
+            instance = new AuthenticationService(new SqliteQuizRepository(DatabaseManager.getInstance()));
+        }
+        return instance;
+    }
+
+    /**
+     * Check a username and password
+     * @return future of the user, or of null if the username is unknown or the password wrong
+     */
+    public CompletableFuture<User> login(String username, String password) {
+        return submit(() -> users.authenticateUser(username, password));
+    }
+
+    /**
+     * Create a user account with a freshly hashed password
+     * @return future of true, or of false if the username is taken
+     */
+    public CompletableFuture<Boolean> register(String username, String email, String password, String role) {
+        return submit(() -> {
+            if (users.userExists(username)) {
+                return false;
+            }
+            users.insertUser(username, email, PasswordUtils.hashPassword(password), role);
+            return true;
+        });
+    }
+
+    /**
+     * Requests waiting for a hashing thread
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    private <T> CompletableFuture<T> submit(AsyncDatabaseManager.SqlCallable<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queued = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                QUEUE_WAIT.record(queued, false);
+                try {
+                    future.complete(work.call());
+                } catch (SQLException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            QUEUE_WAIT.record(queued, true);
+            future.completeExceptionally(new RejectedExecutionException(
+                "Too many sign-ins in progress (" + executor.getQueue().size() + " waiting)"));
+        }
+        return future;
+    }
+}
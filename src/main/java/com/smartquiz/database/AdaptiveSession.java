@@ -0,0 +1,69 @@
+package com.smartquiz.database;
+
+import com.smartquiz.database.QuestionSampler.IdSet;
+
+/**
+ * One adaptive quiz in progress: the questions already asked (never asked twice) and the tally.
+ * The user's ability lives in {@link DatabaseManager}, shared by all of the user's sessions;
+ * see {@link DatabaseManager#nextAdaptiveQuestion} and {@link DatabaseManager#recordAdaptiveAnswer}.
+ */
+public class AdaptiveSession {
+    private final int userId;
+    private final String category;
+    private final int length;
+    private final IdSet asked;
+    private int answered;
+    private int correct;
+
+    AdaptiveSession(int userId, String category, int length) {
+        this.userId = userId;
+        this.category = category;
+        this.length = length;
+        this.asked = new IdSet(length);
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Category the questions come from, or null for all
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public synchronized int getAnswered() {
+        return answered;
+    }
+
+    public synchronized int getCorrect() {
+        return correct;
+    }
+
+    public synchronized boolean isFinished() {
+        return answered >= length;
+    }
+
+    /**
+     * Ids asked so far; read under the session's lock
+     */
+    IdSet asked() {
+        return asked;
+    }
+
+    synchronized void markAsked(int questionId) {
+        asked.add(questionId);
+    }
+
+    synchronized void recordAnswer(boolean wasCorrect) {
+        answered++;
+        if (wasCorrect) {
+            correct++;
+        }
+    }
+}
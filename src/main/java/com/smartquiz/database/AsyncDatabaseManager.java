@@ -0,0 +1,262 @@
+package com.smartquiz.database;
+
+import com.smartquiz.models.DuplicateCluster;
+import com.smartquiz.models.ItemStats;
+import com.smartquiz.models.Question;
+import com.smartquiz.models.QuestionAttempt;
+import com.smartquiz.models.QuizResult;
+import com.smartquiz.models.Rating;
+import com.smartquiz.models.SearchHit;
+import com.smartquiz.models.User;
+import com.smartquiz.models.UserStats;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous facade over {@link DatabaseManager}.
+ * Every call runs on a dedicated executor (virtual threads when the runtime has them) and returns a
+ * {@link CompletableFuture}; UI code publishes the outcome back with
+ * {@link com.smartquiz.utils.SwingAsync#onEdt}. SQLExceptions complete the future exceptionally.
+ */
+public class AsyncDatabaseManager {
+    private static AsyncDatabaseManager instance;
+
+    private final DatabaseManager db;
+    private final ExecutorService executor;
+
+    /**
+     * Database work that may throw SQLException
+     */
+    @FunctionalInterface
+    public interface SqlCallable<T> {
+        T call() throws SQLException;
+    }
+
+    public AsyncDatabaseManager(DatabaseManager db) {
+        this.db = db;
+        this.executor = createExecutor();
+    }
+
+    public static synchronized AsyncDatabaseManager getInstance() {
+        if (instance == null) {
+            instance = new AsyncDatabaseManager(DatabaseManager.getInstance());
+        }
+        return instance;
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            // Java 21+: one cheap virtual thread per task; the connection pool bounds real concurrency
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.min(8, Math.max(2, Runtime.getRuntime().availableProcessors()));
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "smartquiz-db-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Run arbitrary database work (e.g. several calls that belong together) off the calling thread
+     */
+    public <T> CompletableFuture<T> call(SqlCallable<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return work.call();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    public DatabaseManager getDatabaseManager() {
+        return db;
+    }
+
+    // User operations
+    public CompletableFuture<User> authenticateUser(String username, String password) {
+        return call(() -> db.authenticateUser(username, password));
+    }
+
+    public CompletableFuture<Boolean> userExists(String username) {
+        return call(() -> db.userExists(username));
+    }
+
+    public CompletableFuture<Void> insertUser(String username, String email, String passwordHash, String role) {
+        return call(() -> {
+            db.insertUser(username, email, passwordHash, role);
+            return null;
+        });
+    }
+
+    // Question operations
+    public CompletableFuture<Question> insertQuestion(Question question) {
+        return call(() -> {
+            db.insertQuestion(question);
+            return question;
+        });
+    }
+
+    public CompletableFuture<Boolean> updateQuestion(Question question) {
+        return call(() -> db.updateQuestion(question));
+    }
+
+    public CompletableFuture<Question> getQuestionById(int questionId) {
+        return call(() -> db.getQuestionById(questionId));
+    }
+
+    public CompletableFuture<Void> deleteQuestion(int questionId) {
+        return call(() -> {
+            db.deleteQuestion(questionId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Question>> getAllQuestions() {
+        return call(db::getAllQuestions);
+    }
+
+    public CompletableFuture<QuestionQuery.Page> getQuestionPage(QuestionQuery query, QuestionQuery.Key after,
+                                                                 int skip, int limit) {
+        return call(() -> db.getQuestionPage(query, after, skip, limit));
+    }
+
+    public CompletableFuture<Integer> countQuestions(QuestionQuery query) {
+        return call(() -> db.countQuestions(query));
+    }
+
+    public CompletableFuture<List<Question>> getRandomQuestions(int count, String category, String difficulty) {
+        return call(() -> db.getRandomQuestions(count, category, difficulty));
+    }
+
+    public CompletableFuture<List<String>> getCategories() {
+        return call(db::getCategories);
+    }
+
+    public CompletableFuture<Map<String, Integer>> getCategoryCounts() {
+        return call(db::getCategoryCounts);
+    }
+
+    public CompletableFuture<Integer> getQuestionCount() {
+        return call(db::getQuestionCount);
+    }
+
+    // Quiz result operations
+    public CompletableFuture<QuizResult> insertQuizResult(QuizResult result) {
+        return call(() -> {
+            db.insertQuizResult(result);
+            return result;
+        });
+    }
+
+    /**
+     * Save a result through the group-commit queue; completes once the result is committed.
+     * Submission itself may block on a full queue, so it also happens on the executor.
+     */
+    public CompletableFuture<QuizResult> submitQuizResult(QuizResult result) {
+        return CompletableFuture.supplyAsync(() -> db.submitQuizResult(result), executor)
+            .thenCompose(saved -> saved);
+    }
+
+    public CompletableFuture<List<QuizResult>> getUserResults(int userId) {
+        return call(() -> db.getUserResults(userId));
+    }
+
+    public CompletableFuture<UserStats> getUserStats(int userId) {
+        return call(() -> db.getUserStats(userId));
+    }
+
+    public CompletableFuture<List<QuizResult>> getTopScores(String category, int limit) {
+        return call(() -> db.getTopScores(category, limit));
+    }
+
+    // Adaptive quiz operations
+    public CompletableFuture<AdaptiveSession> startAdaptiveSession(int userId, String category, int length) {
+        return call(() -> db.startAdaptiveSession(userId, category, length));
+    }
+
+    public CompletableFuture<Question> nextAdaptiveQuestion(AdaptiveSession session) {
+        return call(() -> db.nextAdaptiveQuestion(session));
+    }
+
+    public CompletableFuture<Rating> recordAdaptiveAnswer(AdaptiveSession session, int questionId, boolean correct) {
+        return call(() -> db.recordAdaptiveAnswer(session, questionId, correct));
+    }
+
+    // Attempt and item statistics operations
+
+    /**
+     * Queue a quiz's answers for the attempt writer; completes once they are committed.
+     * Submission may block on a full queue, so it also happens on the executor.
+     */
+    public CompletableFuture<Void> submitAttempts(List<QuestionAttempt> attempts) {
+        return CompletableFuture.supplyAsync(() -> db.submitAttempts(attempts), executor)
+            .thenCompose(saved -> saved);
+    }
+
+    public CompletableFuture<List<ItemStats>> getItemStats(int limit) {
+        return call(() -> db.getItemStats(limit));
+    }
+
+    public CompletableFuture<List<SearchHit>> searchQuestions(String text, int limit) {
+        return call(() -> db.searchQuestions(text, limit));
+    }
+
+    public CompletableFuture<Void> prepareDuplicateCheck() {
+        return call(() -> {
+            db.prepareDuplicateCheck();
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<SearchHit>> findNearDuplicates(Question question, int limit) {
+        return call(() -> db.findNearDuplicates(question, limit));
+    }
+
+    public CompletableFuture<List<DuplicateCluster>> findDuplicateClusters() {
+        return call(db::findDuplicateClusters);
+    }
+
+    public CompletableFuture<List<Integer>> verifyDuplicates(int keepId, List<Integer> candidateIds) {
+        return call(() -> db.verifyDuplicates(keepId, candidateIds));
+    }
+
+    public CompletableFuture<Integer> mergeDuplicates(int keepId, List<Integer> duplicateIds) {
+        return call(() -> db.mergeDuplicates(keepId, duplicateIds));
+    }
+
+    // Review operations
+    public CompletableFuture<List<Question>> getDueReviewQuestions(int userId, int limit) {
+        return call(() -> db.getDueReviewQuestions(userId, limit));
+    }
+
+    public CompletableFuture<Integer> countDueReviews(int userId) {
+        return call(() -> db.countDueReviews(userId));
+    }
+
+    public CompletableFuture<Void> recordReviews(int userId, Map<Integer, Boolean> answers) {
+        return call(() -> {
+            db.recordReviews(userId, answers);
+            return null;
+        });
+    }
+
+    /**
+     * Stop accepting work; queued calls still complete
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
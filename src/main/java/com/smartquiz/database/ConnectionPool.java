@@ -0,0 +1,346 @@
+package com.smartquiz.database;
+
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small SQLite connection pool: one writer connection plus a fixed set of read-only connections.
+ * All connections run in WAL mode, so readers (history, leaderboard, question lookups)
+ * proceed in parallel with the single writer instead of queueing behind it.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Unit of work executed against a borrowed connection
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T execute(PooledConnection connection) throws SQLException;
+    }
+
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 10_000;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    private final SlowQueryLog slowQueries;
+    private final PooledConnection writer;
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private final List<PooledConnection> readers;
+    private final BlockingQueue<PooledConnection> idleReaders;
+    private final long createdAtNanos = System.nanoTime();
+
+    // Utilization counters
+    private final LongAdder readerBorrows = new LongAdder();
+    private final LongAdder writerBorrows = new LongAdder();
+    private final LongAdder readerWaitNanos = new LongAdder();
+    private final LongAdder writerWaitNanos = new LongAdder();
+    private final LongAdder readerBusyNanos = new LongAdder();
+    private final LongAdder writerBusyNanos = new LongAdder();
+    private final AtomicInteger readersInUse = new AtomicInteger();
+    private final AtomicInteger peakReadersInUse = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int readerCount) throws SQLException {
+        this(url, readerCount, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    public ConnectionPool(String url, int readerCount, int statementCacheSize) throws SQLException {
+        this(url, readerCount, statementCacheSize, new SlowQueryLog(0));
+    }
+
+    public ConnectionPool(String url, int readerCount, int statementCacheSize, SlowQueryLog slowQueries)
+            throws SQLException {
+        if (readerCount < 1) {
+            throw new IllegalArgumentException("readerCount must be at least 1");
+        }
+
+        this.slowQueries = slowQueries;
+        // The writer is opened first: it creates the file and switches it to WAL,
+        // which read-only connections cannot do themselves.
+        writer = new PooledConnection(writerConfig().createConnection(url), false, "writer", statementCacheSize,
+            slowQueries);
+
+        List<PooledConnection> opened = new ArrayList<>(readerCount);
+        try {
+            for (int i = 0; i < readerCount; i++) {
+                opened.add(new PooledConnection(readerConfig().createConnection(url), true, "reader-" + i,
+                    statementCacheSize, slowQueries));
+            }
+        } catch (SQLException e) {
+            opened.forEach(PooledConnection::close);
+            writer.close();
+            throw e;
+        }
+        readers = Collections.unmodifiableList(opened);
+        idleReaders = new ArrayBlockingQueue<>(readerCount, false, opened);
+    }
+
+    private static SQLiteConfig writerConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        // NORMAL is durable across application crashes in WAL mode and avoids an fsync per commit
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+        return config;
+    }
+
+    private static SQLiteConfig readerConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+        return config;
+    }
+
+    /**
+     * Run work on one of the read-only connections, waiting for one to become free
+     */
+    public <T> T read(SqlWork<T> work) throws SQLException {
+        ensureOpen();
+        EdtGuard.check("read");
+        long waitStart = System.nanoTime();
+        PooledConnection reader;
+        try {
+            reader = idleReaders.poll(ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (reader == null) {
+            throw new SQLException("Timed out waiting for a read connection");
+        }
+
+        long busyStart = System.nanoTime();
+        readerWaitNanos.add(busyStart - waitStart);
+        readerBorrows.increment();
+        peakReadersInUse.accumulateAndGet(readersInUse.incrementAndGet(), Math::max);
+        try {
+            return work.execute(reader);
+        } finally {
+            readersInUse.decrementAndGet();
+            readerBusyNanos.add(System.nanoTime() - busyStart);
+            idleReaders.offer(reader);
+        }
+    }
+
+    /**
+     * Run work on the writer connection. Writes are serialized; the lock is re-entrant
+     * so a write may call other write helpers on the same thread.
+     */
+    public <T> T write(SqlWork<T> work) throws SQLException {
+        ensureOpen();
+        EdtGuard.check("write");
+        long waitStart = System.nanoTime();
+        try {
+            if (!writerLock.tryLock(ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for the write connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the write connection", e);
+        }
+
+        boolean outermost = writerLock.getHoldCount() == 1;
+        long busyStart = System.nanoTime();
+        if (outermost) {
+            writerWaitNanos.add(busyStart - waitStart);
+            writerBorrows.increment();
+        }
+        try {
+            return work.execute(writer);
+        } finally {
+            if (outermost) {
+                writerBusyNanos.add(System.nanoTime() - busyStart);
+            }
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Run work on the writer connection inside a single transaction.
+     * A call made while a transaction is already open on this thread joins it.
+     */
+    public <T> T transaction(SqlWork<T> work) throws SQLException {
+        return write(conn -> {
+            Connection connection = conn.getConnection();
+            if (!connection.getAutoCommit()) {
+                return work.execute(conn);
+            }
+            connection.setAutoCommit(false);
+            try {
+                T result = work.execute(conn);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+
+    public int getReaderCount() {
+        return readers.size();
+    }
+
+    /**
+     * Statements slower than the configured threshold, on any connection of this pool
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueries;
+    }
+
+    public Stats getStats() {
+        return new Stats(this);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writerLock.lock();
+        try {
+            readers.forEach(PooledConnection::close);
+            writer.close();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of pool utilization
+     */
+    public static final class Stats {
+        private final int readerCount;
+        private final int readersInUse;
+        private final int peakReadersInUse;
+        private final long readerBorrows;
+        private final long writerBorrows;
+        private final double avgReaderWaitMillis;
+        private final double avgWriterWaitMillis;
+        private final double readerUtilization;
+        private final double writerUtilization;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        private Stats(ConnectionPool pool) {
+            long elapsed = Math.max(1, System.nanoTime() - pool.createdAtNanos);
+            readerCount = pool.readers.size();
+            readersInUse = pool.readersInUse.get();
+            peakReadersInUse = pool.peakReadersInUse.get();
+            readerBorrows = pool.readerBorrows.sum();
+            writerBorrows = pool.writerBorrows.sum();
+            avgReaderWaitMillis = average(pool.readerWaitNanos.sum(), readerBorrows);
+            avgWriterWaitMillis = average(pool.writerWaitNanos.sum(), writerBorrows);
+            readerUtilization = (double) pool.readerBusyNanos.sum() / ((double) elapsed * readerCount);
+            writerUtilization = (double) pool.writerBusyNanos.sum() / elapsed;
+
+            long hits = pool.writer.getStatementCache().getHits();
+            long misses = pool.writer.getStatementCache().getMisses();
+            long evictions = pool.writer.getStatementCache().getEvictions();
+            for (PooledConnection reader : pool.readers) {
+                hits += reader.getStatementCache().getHits();
+                misses += reader.getStatementCache().getMisses();
+                evictions += reader.getStatementCache().getEvictions();
+            }
+            statementCacheHits = hits;
+            statementCacheMisses = misses;
+            statementCacheEvictions = evictions;
+        }
+
+        private static double average(long totalNanos, long count) {
+            return count == 0 ? 0.0 : totalNanos / 1_000_000.0 / count;
+        }
+
+        public int getReaderCount() {
+            return readerCount;
+        }
+
+        public int getReadersInUse() {
+            return readersInUse;
+        }
+
+        public int getPeakReadersInUse() {
+            return peakReadersInUse;
+        }
+
+        public long getReaderBorrows() {
+            return readerBorrows;
+        }
+
+        public long getWriterBorrows() {
+            return writerBorrows;
+        }
+
+        public double getAvgReaderWaitMillis() {
+            return avgReaderWaitMillis;
+        }
+
+        public double getAvgWriterWaitMillis() {
+            return avgWriterWaitMillis;
+        }
+
+        /** Fraction of reader capacity spent executing work since the pool opened (0..1) */
+        public double getReaderUtilization() {
+            return readerUtilization;
+        }
+
+        /** Fraction of time the writer connection has been busy since the pool opened (0..1) */
+        public double getWriterUtilization() {
+            return writerUtilization;
+        }
+
+        public long getStatementCacheHits() {
+            return statementCacheHits;
+        }
+
+        public long getStatementCacheMisses() {
+            return statementCacheMisses;
+        }
+
+        public long getStatementCacheEvictions() {
+            return statementCacheEvictions;
+        }
+
+        public double getStatementCacheHitRate() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0.0 : (double) statementCacheHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "Pool{readers %d/%d in use (peak %d), reader borrows=%d, avg reader wait=%.2fms, " +
+                "reader utilization=%.1f%%, writer borrows=%d, avg writer wait=%.2fms, writer utilization=%.1f%%, " +
+                "statement cache hits=%d misses=%d evictions=%d (%.1f%% hit rate)}",
+                readersInUse, readerCount, peakReadersInUse, readerBorrows, avgReaderWaitMillis,
+                readerUtilization * 100, writerBorrows, avgWriterWaitMillis, writerUtilization * 100,
+                statementCacheHits, statementCacheMisses, statementCacheEvictions, getStatementCacheHitRate() * 100);
+        }
+    }
+}
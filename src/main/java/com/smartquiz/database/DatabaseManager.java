@@ -1,101 +1,625 @@
 package com.smartquiz.database;
 
+import com.smartquiz.metrics.Metrics;
+import com.smartquiz.metrics.OperationMetrics;
+import com.smartquiz.models.DuplicateCluster;
+import com.smartquiz.models.ImportCheckpoint;
+import com.smartquiz.models.ItemStats;
 import com.smartquiz.models.Question;
+import com.smartquiz.models.QuestionAttempt;
 import com.smartquiz.models.QuizResult;
+import com.smartquiz.models.Rating;
+import com.smartquiz.models.ReviewItem;
+import com.smartquiz.models.SearchHit;
 import com.smartquiz.models.User;
+import com.smartquiz.models.UserStats;
 import com.smartquiz.utils.PasswordUtils;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Database Manager class handling all database operations
- * Implements Singleton pattern for database connection management
+ * Implements Singleton pattern for database connection management.
+ * Reads go through a pool of read-only connections and writes through a single
+ * writer connection (see {@link ConnectionPool}).
  */
 public class DatabaseManager {
     private static DatabaseManager instance;
     private static final String DB_URL = "jdbc:sqlite:quiz_app.db";
-    private Connection connection;
+    // How similar questions are picked (see searchQuestions)
+    private static final int SIMILAR_CANDIDATES = 200;
+    private static final int SIMILAR_TRIGRAMS = 8;
+    private static final double MIN_SIMILARITY = 0.5;
+    // Shingle similarity from which two questions count as near-duplicates (see MinHash)
+    private static final double DUPLICATE_SIMILARITY = 0.8;
+    // Latency and error count of each operation below, recorded when it returns or throws (see Metrics)
+    private static final OperationMetrics INITIALIZE_DATABASE = Metrics.operation("initializeDatabase");
+    private static final OperationMetrics LOAD_QUESTION_BANK = Metrics.operation("loadQuestionBank");
+    private static final OperationMetrics GET_BANK_VERSION = Metrics.operation("getBankVersion");
+    private static final OperationMetrics LOAD_RATING_INDEX = Metrics.operation("loadRatingIndex");
+    private static final OperationMetrics LOAD_DUPLICATE_INDEX = Metrics.operation("loadDuplicateIndex");
+    private static final OperationMetrics REBUILD_LEADERBOARD = Metrics.operation("rebuildLeaderboard");
+    private static final OperationMetrics USER_EXISTS = Metrics.operation("userExists");
+    private static final OperationMetrics INSERT_USER = Metrics.operation("insertUser");
+    private static final OperationMetrics AUTHENTICATE_USER = Metrics.operation("authenticateUser");
+    private static final OperationMetrics INSERT_QUESTION = Metrics.operation("insertQuestion");
+    private static final OperationMetrics UPDATE_QUESTION = Metrics.operation("updateQuestion");
+    private static final OperationMetrics GET_QUESTION_BY_ID = Metrics.operation("getQuestionById");
+    private static final OperationMetrics INSERT_QUESTION_BATCH = Metrics.operation("insertQuestionBatch");
+    private static final OperationMetrics GET_IMPORT_CHECKPOINT = Metrics.operation("getImportCheckpoint");
+    private static final OperationMetrics SAVE_IMPORT_CHECKPOINT = Metrics.operation("saveImportCheckpoint");
+    private static final OperationMetrics GET_ALL_QUESTIONS = Metrics.operation("getAllQuestions");
+    private static final OperationMetrics GET_QUESTION_PAGE = Metrics.operation("getQuestionPage");
+    private static final OperationMetrics COUNT_QUESTIONS = Metrics.operation("countQuestions");
+    private static final OperationMetrics SEARCH_QUESTIONS = Metrics.operation("searchQuestions");
+    private static final OperationMetrics GET_QUESTIONS_BY_CATEGORY = Metrics.operation("getQuestionsByCategory");
+    private static final OperationMetrics GET_RANDOM_QUESTIONS = Metrics.operation("getRandomQuestions");
+    private static final OperationMetrics GET_QUESTION_IDS = Metrics.operation("getQuestionIds");
+    private static final OperationMetrics GET_QUESTIONS_BY_IDS = Metrics.operation("getQuestionsByIds");
+    private static final OperationMetrics GET_QUESTIONS_BY_DIFFICULTY = Metrics.operation("getQuestionsByDifficulty");
+    private static final OperationMetrics GET_QUESTIONS_BY_CATEGORY_AND_DIFFICULTY = Metrics.operation("getQuestionsByCategoryAndDifficulty");
+    private static final OperationMetrics DELETE_QUESTION = Metrics.operation("deleteQuestion");
+    private static final OperationMetrics PREPARE_DUPLICATE_CHECK = Metrics.operation("prepareDuplicateCheck");
+    private static final OperationMetrics FIND_NEAR_DUPLICATES = Metrics.operation("findNearDuplicates");
+    private static final OperationMetrics FIND_BATCH_DUPLICATES = Metrics.operation("findBatchDuplicates");
+    private static final OperationMetrics FIND_DUPLICATE_CLUSTERS = Metrics.operation("findDuplicateClusters");
+    private static final OperationMetrics VERIFY_DUPLICATES = Metrics.operation("verifyDuplicates");
+    private static final OperationMetrics MERGE_DUPLICATES = Metrics.operation("mergeDuplicates");
+    private static final OperationMetrics GET_CATEGORIES = Metrics.operation("getCategories");
+    private static final OperationMetrics GET_CATEGORY_COUNTS = Metrics.operation("getCategoryCounts");
+    private static final OperationMetrics GET_QUESTION_COUNT = Metrics.operation("getQuestionCount");
+    private static final OperationMetrics INSERT_QUIZ_RESULT = Metrics.operation("insertQuizResult");
+    private static final OperationMetrics INSERT_QUIZ_RESULTS = Metrics.operation("insertQuizResults");
+    private static final OperationMetrics START_ADAPTIVE_SESSION = Metrics.operation("startAdaptiveSession");
+    private static final OperationMetrics NEXT_ADAPTIVE_QUESTION = Metrics.operation("nextAdaptiveQuestion");
+    private static final OperationMetrics RECORD_ADAPTIVE_ANSWER = Metrics.operation("recordAdaptiveAnswer");
+    private static final OperationMetrics GET_USER_RATING = Metrics.operation("getUserRating");
+    private static final OperationMetrics GET_QUESTION_RATING = Metrics.operation("getQuestionRating");
+    private static final OperationMetrics SAVE_RATINGS = Metrics.operation("saveRatings");
+    private static final OperationMetrics INSERT_ATTEMPTS = Metrics.operation("insertAttempts");
+    private static final OperationMetrics GET_ITEM_STATS = Metrics.operation("getItemStats");
+    private static final OperationMetrics GET_DUE_REVIEW_QUESTIONS = Metrics.operation("getDueReviewQuestions");
+    private static final OperationMetrics COUNT_DUE_REVIEWS = Metrics.operation("countDueReviews");
+    private static final OperationMetrics RECORD_REVIEWS = Metrics.operation("recordReviews");
+    private static final OperationMetrics GET_USER_STATS = Metrics.operation("getUserStats");
+    private static final OperationMetrics GET_USER_RESULTS = Metrics.operation("getUserResults");
+    private static final OperationMetrics GET_TOP_SCORES = Metrics.operation("getTopScores");
+    private static final OperationMetrics QUERY_TOP_SCORES = Metrics.operation("queryTopScores");
+    private final ConnectionPool pool;
+    private volatile QuestionBank questionBank;
+    private volatile Leaderboard leaderboard;
+    private final WriteBehindQueue<QuizResult> resultQueue;
+    private volatile RatingIndex ratingIndex;
+    private volatile DuplicateIndex duplicateIndex;
+    // Changes published while a lazily built index is loading, replayed onto it before it is published
+    private final Object pendingChangesLock = new Object();
+    private List<QuestionChangeEvent> pendingRatingChanges;
+    private List<QuestionChangeEvent> pendingDuplicateChanges;
+    private final Map<Integer, Rating> userRatings = new ConcurrentHashMap<>();
+    private final WriteBehindQueue<Rating> ratingQueue;
+    private final WriteBehindQueue<QuestionAttempt> attemptQueue;
+    private final ReviewScheduler reviews = new ReviewScheduler(Integer.getInteger("smartquiz.reviews.cachedUsers", 1000));
+    private final List<QuestionChangeListener> questionListeners = new CopyOnWriteArrayList<>();
 
-    private DatabaseManager() {
+    private DatabaseManager(String dbUrl) {
         try {
-            connection = DriverManager.getConnection(DB_URL);
-            System.out.println("Connected to SQLite database successfully!");
+            pool = new ConnectionPool(dbUrl, readerCount(), Integer.getInteger("smartquiz.db.statementCacheSize", 64),
+                new SlowQueryLog(Long.getLong("smartquiz.slowQueryMillis", 0)));
+            System.out.println("Connected to SQLite database successfully! (" + pool.getReaderCount() + " readers, WAL mode)");
         } catch (SQLException e) {
             System.err.println("Failed to connect to database: " + e.getMessage());
             throw new RuntimeException(e);
         }
+        resultQueue = new WriteBehindQueue<>("quiz-results", this::insertQuizResults,
+            Integer.getInteger("smartquiz.results.queueCapacity", 1024),
+            Integer.getInteger("smartquiz.results.batchSize", 64),
+            Long.getLong("smartquiz.results.maxDelayMillis", 0),
+            Long.getLong("smartquiz.results.offerTimeoutMillis", 5000));
+        // Rating updates are estimates: they may linger to share a commit, and newer ones supersede older
+        ratingQueue = new WriteBehindQueue<>("ratings", this::saveRatings,
+            Integer.getInteger("smartquiz.ratings.queueCapacity", 8192),
+            Integer.getInteger("smartquiz.ratings.batchSize", 512),
+            Long.getLong("smartquiz.ratings.maxDelayMillis", 250),
+            Long.getLong("smartquiz.ratings.offerTimeoutMillis", 1000));
+        attemptQueue = new WriteBehindQueue<>("attempts", this::insertAttempts,
+            Integer.getInteger("smartquiz.attempts.queueCapacity", 8192),
+            Integer.getInteger("smartquiz.attempts.batchSize", 512),
+            Long.getLong("smartquiz.attempts.maxDelayMillis", 500),
+            Long.getLong("smartquiz.attempts.offerTimeoutMillis", 5000));
+    }
+
+    private static int readerCount() {
+        int defaultReaders = Math.min(4, Math.max(2, Runtime.getRuntime().availableProcessors()));
+        return Integer.getInteger("smartquiz.db.readers", defaultReaders);
     }
 
     public static synchronized DatabaseManager getInstance() {
         if (instance == null) {
-            instance = new DatabaseManager();
+            instance = new DatabaseManager(DB_URL);
+            Metrics.publish();
+            // Commit queued results, ratings and attempts before the JVM exits
+            DatabaseManager manager = instance;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                manager.resultQueue.close();
+                manager.ratingQueue.close();
+                manager.attemptQueue.close();
+            }, "smartquiz-db-shutdown"));
         }
         return instance;
     }
 
+
+    /**
+     * Open a standalone manager on another database file, e.g. for tools and benchmarks.
+     * The caller owns it and must call {@link #closeConnection()}.
+     */
+    public static DatabaseManager open(String dbUrl) {
+        return new DatabaseManager(dbUrl);
+    }
+
     /**
-     * Initialize database tables and default data
+     * Initialize database tables (applying pending schema migrations) and default data
      */
     public void initializeDatabase() throws SQLException {
-        createTables();
-        insertDefaultData();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            createTables();
+            insertDefaultData();
+            questionBank();
+            leaderboard();
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            INITIALIZE_DATABASE.record(start, failed);
+        }
     }
 
-    private void createTables() throws SQLException {
-        // Create users table
-        String createUsersTable = """
-            CREATE TABLE IF NOT EXISTS users (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                username TEXT UNIQUE NOT NULL,
-                email TEXT UNIQUE NOT NULL,
-                password_hash TEXT NOT NULL,
-                role TEXT NOT NULL DEFAULT 'user',
-                created_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
-            )
-            """;
+    /**
+     * The resident question bank, loaded from the table on first use
+     */
+    private QuestionBank questionBank() throws SQLException {
+        QuestionBank bank = questionBank;
+        if (bank == null) {
+            synchronized (this) {
+                bank = questionBank;
+                if (bank == null) {
+                    bank = loadQuestionBank();
+                    questionBank = bank;
+                    System.out.println("Question bank loaded: " + bank.size() + " questions");
+                }
+            }
+        }
+        return bank;
+    }
 
-        // Create questions table
-        String createQuestionsTable = """
-            CREATE TABLE IF NOT EXISTS questions (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                category TEXT NOT NULL,
-                question_text TEXT NOT NULL,
-                option_a TEXT NOT NULL,
-                option_b TEXT NOT NULL,
-                option_c TEXT NOT NULL,
-                option_d TEXT NOT NULL,
-                correct_answer INTEGER NOT NULL,
-                difficulty TEXT NOT NULL DEFAULT 'medium',
-                created_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
-            )
-            """;
+    /**
+     * Read the bank from the table, or, when {@code smartquiz.bank.snapshot} names a file, map it from
+     * that snapshot. A missing or stale snapshot is rebuilt from the table first.
+     */
+    private QuestionBank loadQuestionBank() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String snapshotPath = System.getProperty("smartquiz.bank.snapshot");
+            if (snapshotPath == null) {
+                return new QuestionBank(getAllQuestions());
+            }
+            Path file = Path.of(snapshotPath);
+            long version = getBankVersion();
+            try {
+                long mapStart = System.nanoTime();
+                QuestionSnapshot snapshot = QuestionSnapshot.open(file);
+                if (snapshot.getBankVersion() == version) {
+                    QuestionBank bank = new QuestionBank(snapshot);
+                    System.out.println("Question bank mapped from snapshot " + file + " in "
+                        + (System.nanoTime() - mapStart) / 1_000_000 + " ms");
+                    return bank;
+                }
+                System.out.println("Question snapshot " + file + " is stale (version " + snapshot.getBankVersion()
+                    + ", database at " + version + "), rebuilding it");
+            } catch (NoSuchFileException e) {
+                System.out.println("No question snapshot at " + file + " yet, writing one");
+            } catch (IOException e) {
+                System.err.println("Ignoring question snapshot: " + e.getMessage());
+            }
+
+            // The version is read before the rows: a change in between makes the snapshot look stale, never fresh
+            List<Question> questions = getAllQuestions();
+            try {
+                QuestionSnapshot.write(file, version, questions);
+            } catch (IOException e) {
+                System.err.println("Failed to write question snapshot: " + e.getMessage());
+            }
+            return new QuestionBank(questions);
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            LOAD_QUESTION_BANK.record(start, failed);
+        }
+    }
+
+    /**
+     * Write every question to a snapshot file (see {@link QuestionSnapshot})
+     * @return the number of questions written
+     */
+    public int exportQuestionSnapshot(Path file) throws SQLException, IOException {
+        long version = getBankVersion();
+        List<Question> questions = getAllQuestions();
+        QuestionSnapshot.write(file, version, questions);
+        return questions.size();
+    }
+
+    /**
+     * Counter bumped by every insert, update or delete on questions (schema migration 7)
+     */
+    public long getBankVersion() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT version FROM bank_version WHERE id = 1";
+            return pool.read(conn -> {
+                try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_BANK_VERSION.record(start, failed);
+        }
+    }
+
+    /**
+     * The in-memory leaderboards, rebuilt from quiz_results on first use
+     */
+    private Leaderboard leaderboard() throws SQLException {
+        Leaderboard board = leaderboard;
+        if (board == null) {
+            synchronized (this) {
+                board = leaderboard;
+                if (board == null) {
+                    board = new Leaderboard(Leaderboard.DEFAULT_CAPACITY);
+                    rebuildLeaderboard(board);
+                    leaderboard = board;
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * The question ratings for adaptive quizzes, read on first use: stored ratings where there are
+     * any, otherwise the starting rating of the question's difficulty. Questions changed while the
+     * ratings are being read are collected by {@link #publish} and applied before the index is used.
+     */
+    private RatingIndex ratingIndex() throws SQLException {
+        RatingIndex index = ratingIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = ratingIndex;
+                if (index == null) {
+                    synchronized (pendingChangesLock) {
+                        pendingRatingChanges = new ArrayList<>();
+                    }
+                    try {
+                        index = loadRatingIndex();
+                    } finally {
+                        synchronized (pendingChangesLock) {
+                            if (index != null) {
+                                for (QuestionChangeEvent event : pendingRatingChanges) {
+                                    applyToRatingIndex(index, event);
+                                }
+                                ratingIndex = index;
+                            }
+                            pendingRatingChanges = null;
+                        }
+                    }
+                    System.out.println("Question ratings loaded: " + index.size() + " questions");
+                }
+            }
+        }
+        return index;
+    }
+
+    private RatingIndex loadRatingIndex() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = """
+                SELECT q.id, q.category, q.difficulty, r.rating, COALESCE(r.answers, 0) AS answers
+                FROM questions q
+                LEFT JOIN question_ratings r ON r.question_id = q.id
+                """;
+            RatingIndex index = new RatingIndex(getQuestionCount());
+            pool.read(conn -> {
+                try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+                    while (rs.next()) {
+                        double rating = rs.getDouble("rating");
+                        if (rs.wasNull()) {
+                            rating = Rating.initialQuestionRating(rs.getString("difficulty"));
+                        }
+                        index.put(rs.getInt("id"), rs.getString("category"), rating, rs.getInt("answers"));
+                    }
+                }
+                return null;
+            });
+            return index;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            LOAD_RATING_INDEX.record(start, failed);
+        }
+    }
+
+    /**
+     * The near-duplicate index, built from a parallel scan of the questions table on first use.
+     * Questions changed during the scan (e.g. by a running import) are applied as in {@link #ratingIndex}.
+     */
+    private DuplicateIndex duplicateIndex() throws SQLException {
+        DuplicateIndex index = duplicateIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = duplicateIndex;
+                if (index == null) {
+                    synchronized (pendingChangesLock) {
+                        pendingDuplicateChanges = new ArrayList<>();
+                    }
+                    try {
+                        index = loadDuplicateIndex();
+                    } finally {
+                        synchronized (pendingChangesLock) {
+                            if (index != null) {
+                                for (QuestionChangeEvent event : pendingDuplicateChanges) {
+                                    applyToDuplicateIndex(index, event);
+                                }
+                                duplicateIndex = index;
+                            }
+                            pendingDuplicateChanges = null;
+                        }
+                    }
+                    System.out.println("Duplicate index built: " + index.size() + " questions");
+                }
+            }
+        }
+        return index;
+    }
+
+    private DuplicateIndex loadDuplicateIndex() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            DuplicateFinder.Signatures signatures = scanSignatures();
+            DuplicateIndex index = new DuplicateIndex(signatures.size());
+            for (int i = 0; i < signatures.size(); i++) {
+                index.put(signatures.ids[i], signatures.bandKeys(i));
+            }
+            return index;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            LOAD_DUPLICATE_INDEX.record(start, failed);
+        }
+    }
 
-        // Create quiz_results table
-        String createResultsTable = """
-            CREATE TABLE IF NOT EXISTS quiz_results (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                user_id INTEGER NOT NULL,
-                category TEXT NOT NULL,
-                score INTEGER NOT NULL,
-                total_questions INTEGER NOT NULL,
-                time_spent INTEGER NOT NULL,
-                difficulty TEXT NOT NULL,
-                completed_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                FOREIGN KEY (user_id) REFERENCES users (id)
-            )
+    /**
+     * MinHash band keys of every question, read in id ranges on all reader connections at once
+     */
+    private DuplicateFinder.Signatures scanSignatures() throws SQLException {
+        String rangeSql = "SELECT MIN(id), MAX(id) FROM questions";
+        String sql = """
+            SELECT id, question_text, option_a, option_b, option_c, option_d
+            FROM questions WHERE id BETWEEN ? AND ? ORDER BY id
             """;
+        int[] range = pool.read(conn -> {
+            try (ResultSet rs = conn.prepare(rangeSql).executeQuery()) {
+                return rs.next() && rs.getObject(1) != null ? new int[] {rs.getInt(1), rs.getInt(2)} : null;
+            }
+        });
+        if (range == null) {
+            return new DuplicateFinder.Signatures(new int[0], new int[0]);
+        }
+        return duplicateFinder().scan(range[0], range[1], (fromId, toId) -> pool.read(conn -> {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setInt(1, fromId);
+            pstmt.setInt(2, toId);
+            List<Question> questions = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    // Only what the signature is made of
+                    Question question = new Question();
+                    question.setId(rs.getInt("id"));
+                    question.setQuestionText(rs.getString("question_text"));
+                    question.setOptionA(rs.getString("option_a"));
+                    question.setOptionB(rs.getString("option_b"));
+                    question.setOptionC(rs.getString("option_c"));
+                    question.setOptionD(rs.getString("option_d"));
+                    questions.add(question);
+                }
+            }
+            return questions;
+        }));
+    }
+
+    private static DuplicateFinder duplicateFinder() {
+        return new DuplicateFinder(Integer.getInteger("smartquiz.duplicates.workers",
+            Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Be told about every question inserted, updated or deleted through this manager
+     */
+    public void addQuestionListener(QuestionChangeListener listener) {
+        questionListeners.add(listener);
+    }
+
+    public void removeQuestionListener(QuestionChangeListener listener) {
+        questionListeners.remove(listener);
+    }
+
+    /**
+     * Apply a committed change to the question bank and the indexes. Called right after the commit with
+     * the writer lock still held, so two changes to the same question are applied in commit order.
+     * @return the event, to {@link #publish} once the lock is released
+     */
+    private QuestionChangeEvent applyCommitted(QuestionChangeEvent event) {
+        QuestionBank bank = questionBank;
+        if (bank != null) {
+            for (Question question : event.getQuestions()) {
+                if (event.getType() == QuestionChangeEvent.Type.DELETED) {
+                    bank.remove(question.getId());
+                } else {
+                    bank.add(question);
+                }
+            }
+        }
+        RatingIndex index = ratingIndex;
+        if (index == null) {
+            synchronized (pendingChangesLock) {
+                index = ratingIndex;
+                if (index == null && pendingRatingChanges != null) {
+                    pendingRatingChanges.add(event);
+                }
+            }
+        }
+        if (index != null) {
+            applyToRatingIndex(index, event);
+        }
+        DuplicateIndex duplicates = duplicateIndex;
+        if (duplicates == null) {
+            synchronized (pendingChangesLock) {
+                duplicates = duplicateIndex;
+                if (duplicates == null && pendingDuplicateChanges != null) {
+                    pendingDuplicateChanges.add(event);
+                }
+            }
+        }
+        if (duplicates != null) {
+            applyToDuplicateIndex(duplicates, event);
+        }
+        return event;
+    }
+
+    /**
+     * Drop deleted questions from the loaded review schedules, then tell the listeners about a change that
+     * has been applied (see {@link #applyCommitted}). Runs without the writer lock, which
+     * {@link #recordReviews} takes while holding a schedule.
+     */
+    private void publish(QuestionChangeEvent event) {
+        if (event.getType() == QuestionChangeEvent.Type.DELETED) {
+            List<Integer> deleted = new ArrayList<>(event.getQuestions().size());
+            for (Question question : event.getQuestions()) {
+                deleted.add(question.getId());
+            }
+            reviews.removeQuestions(deleted);
+        }
+        for (QuestionChangeListener listener : questionListeners) {
+            try {
+                listener.questionsChanged(event);
+            } catch (RuntimeException e) {
+                System.err.println("Question change listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void applyToRatingIndex(RatingIndex index, QuestionChangeEvent event) {
+        for (Question question : event.getQuestions()) {
+            if (event.getType() == QuestionChangeEvent.Type.DELETED) {
+                index.remove(question.getId());
+            } else {
+                // An edit keeps a learned rating; an unanswered question follows its (new) difficulty
+                Rating current = index.getRating(question.getId());
+                boolean learned = current != null && current.getAnswers() > 0;
+                index.put(question.getId(), question.getCategory(),
+                    learned ? current.getRating() : Rating.initialQuestionRating(question.getDifficulty()),
+                    learned ? current.getAnswers() : 0);
+            }
+        }
+    }
+
+    private static void applyToDuplicateIndex(DuplicateIndex index, QuestionChangeEvent event) {
+        for (Question question : event.getQuestions()) {
+            if (event.getType() == QuestionChangeEvent.Type.DELETED) {
+                index.remove(question.getId());
+            } else {
+                index.put(question.getId(), MinHash.bandKeys(question));
+            }
+        }
+    }
 
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(createUsersTable);
-            stmt.execute(createQuestionsTable);
-            stmt.execute(createResultsTable);
-            System.out.println("Database tables created successfully!");
+    private void rebuildLeaderboard(Leaderboard board) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = """
+                SELECT * FROM (
+                    SELECT qr.*, u.username,
+                           ROW_NUMBER() OVER (
+                               PARTITION BY qr.category
+                               ORDER BY (CAST(qr.score AS REAL) / qr.total_questions) DESC, qr.time_spent ASC
+                           ) AS rank
+                    FROM quiz_results qr
+                    JOIN users u ON qr.user_id = u.id
+                )
+                WHERE rank <= ?
+                """;
+            List<QuizResult> top = new ArrayList<>();
+            Set<String> truncated = new HashSet<>();
+            pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, board.getCapacity());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        QuizResult result = mapQuizResult(rs);
+                        result.setUsername(rs.getString("username"));
+                        top.add(result);
+                        // A full board may have had more rows behind it
+                        if (rs.getInt("rank") == board.getCapacity()) {
+                            truncated.add(result.getCategory());
+                        }
+                    }
+                }
+                return null;
+            });
+            board.rebuild(top, truncated);
+            System.out.println("Leaderboards rebuilt: " + top.size() + " entries");
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            REBUILD_LEADERBOARD.record(start, failed);
         }
     }
 
+    private void createTables() throws SQLException {
+        int applied = new SchemaMigrator().migrate(pool);
+        System.out.println("Database schema is at version " + SchemaMigrator.getLatestVersion()
+            + (applied > 0 ? " (" + applied + " migrations applied)" : ""));
+    }
+
     private void insertDefaultData() throws SQLException {
         // Insert default admin user if not exists
         if (!userExists("admin")) {
@@ -136,307 +660,2022 @@ public class DatabaseManager {
                 "11", "12", "13", "14", 1, "easy")
         );
 
-        for (Question question : sampleQuestions) {
-            insertQuestion(question);
-        }
+        pool.write(conn -> {
+            for (Question question : sampleQuestions) {
+                insertQuestion(question);
+            }
+            return null;
+        });
     }
 
     // User operations
     public boolean userExists(String username) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.getInt(1) > 0;
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
+            return pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.getInt(1) > 0;
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            USER_EXISTS.record(start, failed);
         }
     }
 
     public void insertUser(String username, String email, String passwordHash, String role) throws SQLException {
-        String sql = "INSERT INTO users (username, email, password_hash, role) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            pstmt.setString(2, email);
-            pstmt.setString(3, passwordHash);
-            pstmt.setString(4, role);
-            pstmt.executeUpdate();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "INSERT INTO users (username, email, password_hash, role) VALUES (?, ?, ?, ?)";
+            pool.write(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, username);
+                pstmt.setString(2, email);
+                pstmt.setString(3, passwordHash);
+                pstmt.setString(4, role);
+                return pstmt.executeUpdate();
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            INSERT_USER.record(start, failed);
         }
     }
 
     public User authenticateUser(String username, String password) throws SQLException {
-        String sql = "SELECT * FROM users WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                String storedHash = rs.getString("password_hash");
-                if (PasswordUtils.verifyPassword(password, storedHash)) {
-                    return new User(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password_hash"),
-                        rs.getString("role"),
-                        rs.getString("created_at")
-                    );
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT * FROM users WHERE username = ?";
+            User user = pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return new User(
+                            rs.getInt("id"),
+                            rs.getString("username"),
+                            rs.getString("email"),
+                            rs.getString("password_hash"),
+                            rs.getString("role"),
+                            rs.getString("created_at")
+                        );
+                    }
+                    return null;
                 }
+            });
+
+            // BCrypt runs after the reader has been handed back so a slow hash never holds a connection
+            if (user != null && PasswordUtils.verifyPassword(password, user.getPasswordHash())) {
+                return user;
             }
+            return null;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            AUTHENTICATE_USER.record(start, failed);
         }
-        return null;
     }
 
     // Question operations
     public void insertQuestion(Question question) throws SQLException {
-        String sql = """
-            INSERT INTO questions (category, question_text, option_a, option_b, option_c, option_d, correct_answer, difficulty)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
-            """;
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, question.getCategory());
-            pstmt.setString(2, question.getQuestionText());
-            pstmt.setString(3, question.getOptionA());
-            pstmt.setString(4, question.getOptionB());
-            pstmt.setString(5, question.getOptionC());
-            pstmt.setString(6, question.getOptionD());
-            pstmt.setInt(7, question.getCorrectAnswer());
-            pstmt.setString(8, question.getDifficulty());
-            pstmt.executeUpdate();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = """
+                INSERT INTO questions (category, question_text, option_a, option_b, option_c, option_d, correct_answer, difficulty)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+            String insertedSql = "SELECT id, created_at FROM questions WHERE id = last_insert_rowid()";
+            QuestionChangeEvent event = pool.write(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, question.getCategory());
+                pstmt.setString(2, question.getQuestionText());
+                pstmt.setString(3, question.getOptionA());
+                pstmt.setString(4, question.getOptionB());
+                pstmt.setString(5, question.getOptionC());
+                pstmt.setString(6, question.getOptionD());
+                pstmt.setInt(7, question.getCorrectAnswer());
+                pstmt.setString(8, question.getDifficulty());
+                pstmt.executeUpdate();
+
+                try (ResultSet rs = conn.prepare(insertedSql).executeQuery()) {
+                    if (rs.next()) {
+                        question.setId(rs.getInt("id"));
+                        question.setCreatedAt(rs.getString("created_at"));
+                    }
+                }
+                return applyCommitted(new QuestionChangeEvent(QuestionChangeEvent.Type.INSERTED,
+                    List.of(copyOf(question)), List.of()));
+            });
+            publish(event);
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            INSERT_QUESTION.record(start, failed);
         }
     }
 
-    public List<Question> getAllQuestions() throws SQLException {
-        List<Question> questions = new ArrayList<>();
-        String sql = "SELECT * FROM questions ORDER BY category, created_at DESC";
-
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Question question = new Question();
-                question.setId(rs.getInt("id"));
-                question.setCategory(rs.getString("category"));
-                question.setQuestionText(rs.getString("question_text"));
-                question.setOptionA(rs.getString("option_a"));
-                question.setOptionB(rs.getString("option_b"));
-                question.setOptionC(rs.getString("option_c"));
-                question.setOptionD(rs.getString("option_d"));
-                question.setCorrectAnswer(rs.getInt("correct_answer"));
-                question.setDifficulty(rs.getString("difficulty"));
-                question.setCreatedAt(rs.getString("created_at"));
-                questions.add(question);
-            }
-        }
-        return questions;
+    /**
+     * Overwrite a stored question in place, keeping its id and creation time
+     * @return false if no question has that id (e.g. it was deleted meanwhile)
+     */
+    public boolean updateQuestion(Question question) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = """
+                UPDATE questions
+                SET category = ?, question_text = ?, option_a = ?, option_b = ?, option_c = ?, option_d = ?,
+                    correct_answer = ?, difficulty = ?
+                WHERE id = ?
+                """;
+            // The change is applied before the writer lock is released, so it cannot overtake a later one
+            QuestionChangeEvent event = pool.write(writer -> {
+                Question previous = pool.transaction(conn -> {
+                    Question current = selectQuestion(conn, question.getId());
+                    if (current == null) {
+                        return null;
+                    }
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, question.getCategory());
+                    pstmt.setString(2, question.getQuestionText());
+                    pstmt.setString(3, question.getOptionA());
+                    pstmt.setString(4, question.getOptionB());
+                    pstmt.setString(5, question.getOptionC());
+                    pstmt.setString(6, question.getOptionD());
+                    pstmt.setInt(7, question.getCorrectAnswer());
+                    pstmt.setString(8, question.getDifficulty());
+                    pstmt.setInt(9, question.getId());
+                    pstmt.executeUpdate();
+                    return current;
+                });
+                if (previous == null) {
+                    return null;
+                }
+                question.setCreatedAtEpochSecond(previous.getCreatedAtEpochSecond());
+                return applyCommitted(new QuestionChangeEvent(QuestionChangeEvent.Type.UPDATED,
+                    List.of(copyOf(question)), List.of(previous)));
+            });
+            if (event == null) {
+                return false;
+            }
+            publish(event);
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            UPDATE_QUESTION.record(start, failed);
+        }
     }
 
-    public List<Question> getQuestionsByCategory(String category) throws SQLException {
-        List<Question> questions = new ArrayList<>();
-        String sql = "SELECT * FROM questions WHERE category = ? ORDER BY created_at DESC";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, category);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                Question question = new Question();
-                question.setId(rs.getInt("id"));
-                question.setCategory(rs.getString("category"));
-                question.setQuestionText(rs.getString("question_text"));
-                question.setOptionA(rs.getString("option_a"));
-                question.setOptionB(rs.getString("option_b"));
-                question.setOptionC(rs.getString("option_c"));
-                question.setOptionD(rs.getString("option_d"));
-                question.setCorrectAnswer(rs.getInt("correct_answer"));
-                question.setDifficulty(rs.getString("difficulty"));
-                question.setCreatedAt(rs.getString("created_at"));
-                questions.add(question);
-            }
-        }
-        return questions;
+    /**
+     * A single question, from the question bank when it is loaded
+     * @return a private copy the caller may modify, or null if there is no such question
+     */
+    public Question getQuestionById(int questionId) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            QuestionBank bank = questionBank;
+            if (bank != null) {
+                Question question = bank.getById(questionId);
+                return question != null ? copyOf(question) : null;
+            }
+            return pool.read(conn -> selectQuestion(conn, questionId));
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_QUESTION_BY_ID.record(start, failed);
+        }
     }
 
-    public List<Question> getRandomQuestions(int count, String category, String difficulty) throws SQLException {
-        List<Question> allQuestions;
+    private static Question selectQuestion(PooledConnection conn, int questionId) throws SQLException {
+        PreparedStatement pstmt = conn.prepare("SELECT * FROM questions WHERE id = ?");
+        pstmt.setInt(1, questionId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? mapQuestion(rs) : null;
+        }
+    }
+
+    /**
+     * Insert a chunk of questions with one JDBC batch in a single transaction, for bulk imports.
+     * When a checkpoint is given it is stored in the same transaction, so it always matches
+     * what has been committed. Ids and creation times are set on the questions.
+     */
+    public void insertQuestionBatch(List<Question> questions, ImportCheckpoint checkpoint) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = """
+                INSERT INTO questions (category, question_text, option_a, option_b, option_c, option_d, correct_answer, difficulty)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+            // The writer lock is held for the whole transaction, so the batch gets consecutive ids
+            String insertedSql = "SELECT id, created_at FROM questions WHERE id > last_insert_rowid() - ? ORDER BY id";
+            QuestionChangeEvent event = pool.write(writer -> {
+                pool.transaction(conn -> {
+                    if (!questions.isEmpty()) {
+                        setSearchIndexDeferred(conn, true);
+                        PreparedStatement pstmt = conn.prepare(sql);
+                        try {
+                            for (Question question : questions) {
+                                pstmt.setString(1, question.getCategory());
+                                pstmt.setString(2, question.getQuestionText());
+                                pstmt.setString(3, question.getOptionA());
+                                pstmt.setString(4, question.getOptionB());
+                                pstmt.setString(5, question.getOptionC());
+                                pstmt.setString(6, question.getOptionD());
+                                pstmt.setInt(7, question.getCorrectAnswer());
+                                pstmt.setString(8, question.getDifficulty());
+                                pstmt.addBatch();
+                            }
+                            pstmt.executeBatch();
+                        } finally {
+                            pstmt.clearBatch();
+                        }
+
+                        PreparedStatement inserted = conn.prepare(insertedSql);
+                        inserted.setInt(1, questions.size());
+                        try (ResultSet rs = inserted.executeQuery()) {
+                            for (Question question : questions) {
+                                if (!rs.next()) {
+                                    throw new SQLException("Batch insert returned fewer rows than questions");
+                                }
+                                question.setId(rs.getInt("id"));
+                                question.setCreatedAt(rs.getString("created_at"));
+                            }
+                        }
+                        indexForSearch(conn, questions.get(0).getId(), questions.get(questions.size() - 1).getId());
+                        setSearchIndexDeferred(conn, false);
+                    }
+                    if (checkpoint != null) {
+                        saveImportCheckpoint(conn, checkpoint);
+                    }
+                    return null;
+                });
+                if (questions.isEmpty()) {
+                    return null;
+                }
+                List<Question> inserted = new ArrayList<>(questions.size());
+                for (Question question : questions) {
+                    inserted.add(copyOf(question));
+                }
+                return applyCommitted(new QuestionChangeEvent(QuestionChangeEvent.Type.INSERTED, inserted, List.of()));
+            });
+            if (event != null) {
+                publish(event);
+            }
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            INSERT_QUESTION_BATCH.record(start, failed);
+        }
+    }
 
-        if (category != null && !category.isEmpty() && difficulty != null && !difficulty.isEmpty()) {
-            allQuestions = getQuestionsByCategoryAndDifficulty(category, difficulty);
-        } else if (category != null && !category.isEmpty()) {
-            allQuestions = getQuestionsByCategory(category);
-        } else if (difficulty != null && !difficulty.isEmpty()) {
-            allQuestions = getQuestionsByDifficulty(difficulty);
-        } else {
-            allQuestions = getAllQuestions();
+    /**
+     * Last committed progress of an import of the given file, or null if none was recorded
+     */
+    public ImportCheckpoint getImportCheckpoint(String source) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = """
+                SELECT fingerprint, rows_done, imported, rejected, completed
+                FROM import_checkpoints WHERE source = ?
+                """;
+            return pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, source);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    return new ImportCheckpoint(source, rs.getString("fingerprint"), rs.getLong("rows_done"),
+                        rs.getLong("imported"), rs.getLong("rejected"), rs.getBoolean("completed"));
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_IMPORT_CHECKPOINT.record(start, failed);
         }
-        
-        Collections.shuffle(allQuestions);
-        return allQuestions.subList(0, Math.min(count, allQuestions.size()));
     }
 
-    public List<Question> getQuestionsByDifficulty(String difficulty) throws SQLException {
-        List<Question> questions = new ArrayList<>();
-        String sql = "SELECT * FROM questions WHERE difficulty = ? ORDER BY created_at DESC";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, difficulty);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                Question question = new Question();
-                question.setId(rs.getInt("id"));
-                question.setCategory(rs.getString("category"));
-                question.setQuestionText(rs.getString("question_text"));
-                question.setOptionA(rs.getString("option_a"));
-                question.setOptionB(rs.getString("option_b"));
-                question.setOptionC(rs.getString("option_c"));
-                question.setOptionD(rs.getString("option_d"));
-                question.setCorrectAnswer(rs.getInt("correct_answer"));
-                question.setDifficulty(rs.getString("difficulty"));
-                question.setCreatedAt(rs.getString("created_at"));
-                questions.add(question);
-            }
-        }
-        return questions;
+    /**
+     * Record an import checkpoint on its own, e.g. when a run starts over or finishes
+     */
+    public void saveImportCheckpoint(ImportCheckpoint checkpoint) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            pool.write(conn -> {
+                saveImportCheckpoint(conn, checkpoint);
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            SAVE_IMPORT_CHECKPOINT.record(start, failed);
+        }
     }
 
-    public List<Question> getQuestionsByCategoryAndDifficulty(String category, String difficulty) throws SQLException {
-        List<Question> questions = new ArrayList<>();
-        String sql = "SELECT * FROM questions WHERE category = ? AND difficulty = ? ORDER BY created_at DESC";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, category);
-            pstmt.setString(2, difficulty);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                Question question = new Question();
-                question.setId(rs.getInt("id"));
-                question.setCategory(rs.getString("category"));
-                question.setQuestionText(rs.getString("question_text"));
-                question.setOptionA(rs.getString("option_a"));
-                question.setOptionB(rs.getString("option_b"));
-                question.setOptionC(rs.getString("option_c"));
-                question.setOptionD(rs.getString("option_d"));
-                question.setCorrectAnswer(rs.getInt("correct_answer"));
-                question.setDifficulty(rs.getString("difficulty"));
-                question.setCreatedAt(rs.getString("created_at"));
-                questions.add(question);
-            }
-        }
-        return questions;
+    private static void saveImportCheckpoint(PooledConnection conn, ImportCheckpoint checkpoint) throws SQLException {
+        String sql = """
+            INSERT OR REPLACE INTO import_checkpoints (source, fingerprint, rows_done, imported, rejected, completed, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            """;
+        PreparedStatement pstmt = conn.prepare(sql);
+        pstmt.setString(1, checkpoint.getSource());
+        pstmt.setString(2, checkpoint.getFingerprint());
+        pstmt.setLong(3, checkpoint.getRowsDone());
+        pstmt.setLong(4, checkpoint.getImported());
+        pstmt.setLong(5, checkpoint.getRejected());
+        pstmt.setBoolean(6, checkpoint.isCompleted());
+        pstmt.executeUpdate();
     }
 
-    public void deleteQuestion(int questionId) throws SQLException {
-        String sql = "DELETE FROM questions WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, questionId);
+    /**
+     * Turn the row-by-row search indexing trigger off or back on for the current transaction
+     */
+    private static void setSearchIndexDeferred(PooledConnection conn, boolean deferred) throws SQLException {
+        PreparedStatement pstmt = conn.prepare("UPDATE search_index_state SET deferred = ? WHERE id = 1");
+        pstmt.setBoolean(1, deferred);
+        pstmt.executeUpdate();
+    }
+
+    /**
+     * Add the questions with ids {@code firstId..lastId} to both search indexes, one statement each
+     */
+    private static void indexForSearch(PooledConnection conn, int firstId, int lastId) throws SQLException {
+        String wordsSql = """
+            INSERT INTO question_fts (rowid, question_text, option_a, option_b, option_c, option_d)
+            SELECT id, question_text, option_a, option_b, option_c, option_d FROM questions WHERE id BETWEEN ? AND ?
+            """;
+        String trigramsSql = """
+            INSERT INTO question_trigram (rowid, question_text)
+            SELECT id, question_text FROM questions WHERE id BETWEEN ? AND ?
+            """;
+        for (String sql : new String[] {wordsSql, trigramsSql}) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setInt(1, firstId);
+            pstmt.setInt(2, lastId);
             pstmt.executeUpdate();
         }
     }
 
-    public List<String> getCategories() throws SQLException {
-        List<String> categories = new ArrayList<>();
-        String sql = "SELECT DISTINCT category FROM questions ORDER BY category";
+    public List<Question> getAllQuestions() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT * FROM questions ORDER BY category, created_at DESC";
+            return pool.read(conn -> {
+                List<Question> questions = new ArrayList<>();
+                try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+                    while (rs.next()) {
+                        questions.add(mapQuestion(rs));
+                    }
+                }
+                return questions;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_ALL_QUESTIONS.record(start, failed);
+        }
+    }
+
+    /**
+     * Read one page of questions in the query's order.
+     * @param after key of the last row before the page, or null to count from the start
+     * @param skip rows to pass over after {@code after} first; 0 when paging sequentially
+     */
+    public QuestionQuery.Page getQuestionPage(QuestionQuery query, QuestionQuery.Key after, int skip, int limit)
+            throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sortExpression = query.getSort().getExpression();
+            String direction = query.isDescending() ? " DESC" : "";
+            String comparison = query.isDescending() ? " < ?" : " > ?";
+            List<Object> filterParams = new ArrayList<>();
+            String filter = questionFilter(query, filterParams).toString();
+            String select = "SELECT *, " + sortExpression + " AS sort_key FROM questions";
+            String orderBy = " ORDER BY " + sortExpression + direction + ", id" + direction;
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                categories.add(rs.getString("category"));
+            List<Object> params = new ArrayList<>();
+            String sql;
+            if (after == null) {
+                sql = select + filter + orderBy + " LIMIT ? OFFSET ?";
+                params.addAll(filterParams);
+            } else if (query.getSort() == QuestionQuery.Sort.ID) {
+                sql = select + and(filter, "id" + comparison) + orderBy + " LIMIT ? OFFSET ?";
+                params.addAll(filterParams);
+                params.add(after.getId());
+            } else if (skip > 0) {
+                // A jump: walk the index from the key, stepping over the skipped rows
+                sql = select + and(filter, "(" + sortExpression + ", id)" + comparison.replace("?", "(?, ?)"))
+                    + orderBy + " LIMIT ? OFFSET ?";
+                params.addAll(filterParams);
+                params.add(after.getValue());
+                params.add(after.getId());
+            } else {
+                // The next page: (sort, id) > (?, ?) written as two index seeks, the rest of the current sort
+                // value and then the following values. SQLite only seeks on the first column of a row-value
+                // comparison and would step through every earlier row with the same sort value.
+                String sameValue = select + and(filter, sortExpression + " = ? AND id" + comparison)
+                    + " ORDER BY id" + direction + " LIMIT ?";
+                String laterValues = select + and(filter, sortExpression + comparison) + orderBy + " LIMIT ?";
+                sql = "SELECT * FROM (" + sameValue + ") UNION ALL SELECT * FROM (" + laterValues + ")"
+                    + " ORDER BY sort_key" + direction + ", id" + direction + " LIMIT ? OFFSET ?";
+                params.addAll(filterParams);
+                params.add(after.getValue());
+                params.add(after.getId());
+                params.add(limit);
+                params.addAll(filterParams);
+                params.add(after.getValue());
+                params.add(limit);
             }
+            params.add(limit);
+            params.add(skip);
+
+            return pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                List<Question> questions = new ArrayList<>(limit);
+                QuestionQuery.Key lastKey = null;
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Question question = mapQuestion(rs);
+                        questions.add(question);
+                        lastKey = new QuestionQuery.Key(rs.getObject("sort_key"), question.getId());
+                    }
+                }
+                return new QuestionQuery.Page(questions, lastKey);
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_QUESTION_PAGE.record(start, failed);
         }
-        return categories;
     }
 
-    public int getQuestionCount() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM questions";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            return rs.getInt(1);
+    /**
+     * Number of questions matching the query's filter
+     */
+    public int countQuestions(QuestionQuery query) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            List<Object> params = new ArrayList<>();
+            String sql = "SELECT COUNT(*) FROM questions" + questionFilter(query, params);
+            return pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.getInt(1);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            COUNT_QUESTIONS.record(start, failed);
         }
     }
 
-    // Quiz result operations
-    public void insertQuizResult(QuizResult result) throws SQLException {
-        String sql = """
-            INSERT INTO quiz_results (user_id, category, score, total_questions, time_spent, difficulty)
-            VALUES (?, ?, ?, ?, ?, ?)
-            """;
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, result.getUserId());
-            pstmt.setString(2, result.getCategory());
-            pstmt.setInt(3, result.getScore());
-            pstmt.setInt(4, result.getTotalQuestions());
-            pstmt.setInt(5, result.getTimeSpent());
-            pstmt.setString(6, result.getDifficulty());
-            pstmt.executeUpdate();
+    /**
+     * Ranked search for the admin search box. Questions containing every word of the text (in the
+     * question or its options; the last word may be a prefix) come first, by BM25 relevance with the
+     * question text weighted above the options (the rank function of {@code question_fts}, so FTS5 keeps
+     * only the best {@code limit} matches while scoring). Remaining places are filled with questions
+     * whose text shares the most three-letter sequences with the search, which finds them despite typos.
+     */
+    public List<SearchHit> searchQuestions(String text, int limit) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            List<SearchHit> hits = new ArrayList<>();
+            String wordQuery = text == null ? null : QuestionSearch.wordQuery(text);
+            if (wordQuery == null || limit <= 0) {
+                return hits;
+            }
+            String wordsSql = """
+                SELECT q.*, m.score FROM (
+                    SELECT rowid, rank AS score FROM question_fts
+                    WHERE question_fts MATCH ? ORDER BY rank LIMIT ?
+                ) m JOIN questions q ON q.id = m.rowid
+                ORDER BY m.score, q.id
+                """;
+            Set<Integer> found = new HashSet<>();
+            pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(wordsSql);
+                pstmt.setString(1, wordQuery);
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Question question = mapQuestion(rs);
+                        found.add(question.getId());
+                        // bm25() is lower for better matches
+                        hits.add(new SearchHit(question, SearchHit.Match.WORDS, -rs.getDouble("score")));
+                    }
+                }
+                return null;
+            });
+            if (hits.size() < limit) {
+                hits.addAll(similarQuestions(text, limit - hits.size(), found));
+            }
+            return hits;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            SEARCH_QUESTIONS.record(start, failed);
         }
     }
 
-    public List<QuizResult> getUserResults(int userId) throws SQLException {
-        List<QuizResult> results = new ArrayList<>();
-        String sql = "SELECT * FROM quiz_results WHERE user_id = ? ORDER BY completed_at DESC";
+    /**
+     * Questions sharing at least {@value #MIN_SIMILARITY} of the text's three-letter sequences, most first.
+     * The {@value #SIMILAR_CANDIDATES} candidates the index ranks best on the rarest sequences (a common one
+     * like "the" says little and matches much of the bank) are then scored on all of them.
+     */
+    private List<SearchHit> similarQuestions(String text, int limit, Set<Integer> exclude) throws SQLException {
+        Set<String> trigrams = QuestionSearch.trigrams(text);
+        if (trigrams.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String frequencySql = "SELECT doc FROM question_trigram_vocab WHERE term = ?";
+        String candidatesSql = """
+            SELECT q.* FROM (
+                SELECT rowid, rank FROM question_trigram WHERE question_trigram MATCH ?
+                ORDER BY rank LIMIT ?
+            ) m JOIN questions q ON q.id = m.rowid
+            ORDER BY m.rank
+            """;
+        return pool.read(conn -> {
+            // Sequences no question contains (the typo itself) cannot find anything
+            Map<String, Integer> frequencies = new HashMap<>();
+            PreparedStatement frequency = conn.prepare(frequencySql);
+            for (String trigram : trigrams) {
+                frequency.setString(1, trigram);
+                try (ResultSet rs = frequency.executeQuery()) {
+                    if (rs.next()) {
+                        frequencies.put(trigram, rs.getInt(1));
+                    }
+                }
+            }
+            List<String> rarest = new ArrayList<>(frequencies.keySet());
+            if (rarest.isEmpty()) {
+                return new ArrayList<SearchHit>();
+            }
+            rarest.sort(Comparator.comparing(frequencies::get));
+            PreparedStatement pstmt = conn.prepare(candidatesSql);
+            pstmt.setString(1, QuestionSearch.anyOf(rarest.subList(0, Math.min(SIMILAR_TRIGRAMS, rarest.size()))));
+            pstmt.setInt(2, SIMILAR_CANDIDATES);
+            List<SearchHit> similar = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Question question = mapQuestion(rs);
+                    double similarity = QuestionSearch.similarity(trigrams, question.getQuestionText());
+                    if (similarity >= MIN_SIMILARITY && !exclude.contains(question.getId())) {
+                        similar.add(new SearchHit(question, SearchHit.Match.SIMILAR, similarity));
+                    }
+                }
+            }
+            similar.sort(Comparator.comparingDouble(SearchHit::getScore).reversed());
+            return similar.size() > limit ? new ArrayList<>(similar.subList(0, limit)) : similar;
+        });
+    }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                QuizResult result = new QuizResult();
-                result.setId(rs.getInt("id"));
-                result.setUserId(rs.getInt("user_id"));
-                result.setCategory(rs.getString("category"));
-                result.setScore(rs.getInt("score"));
-                result.setTotalQuestions(rs.getInt("total_questions"));
-                result.setTimeSpent(rs.getInt("time_spent"));
-                result.setDifficulty(rs.getString("difficulty"));
-                result.setCompletedAt(rs.getString("completed_at"));
-                results.add(result);
+    private static StringBuilder questionFilter(QuestionQuery query, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (query.getCategory() != null) {
+            conditions.add("category = ?");
+            params.add(query.getCategory());
+        }
+        if (query.getDifficulty() != null) {
+            conditions.add("difficulty = ?");
+            params.add(query.getDifficulty());
+        }
+        if (query.getText() != null) {
+            String substring = QuestionSearch.substringQuery(query.getText());
+            if (substring != null) {
+                // Served by the trigram index instead of scanning every row
+                conditions.add("id IN (SELECT rowid FROM question_trigram WHERE question_trigram MATCH ?)");
+                params.add(substring);
+            } else {
+                conditions.add("question_text LIKE ? ESCAPE '\\'");
+                params.add("%" + query.getText().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
             }
         }
-        return results;
+        StringBuilder where = new StringBuilder();
+        if (!conditions.isEmpty()) {
+            where.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        return where;
     }
 
-    public List<QuizResult> getTopScores(String category, int limit) throws SQLException {
-        List<QuizResult> results = new ArrayList<>();
-        String sql = """
-            SELECT qr.*, u.username
-            FROM quiz_results qr
-            JOIN users u ON qr.user_id = u.id
-            WHERE qr.category = ?
-            ORDER BY (CAST(qr.score AS REAL) / qr.total_questions) DESC, qr.time_spent ASC
-            LIMIT ?
-            """;
+    private static String and(String where, String condition) {
+        return where + (where.isEmpty() ? " WHERE " : " AND ") + condition;
+    }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, category);
-            pstmt.setInt(2, limit);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                QuizResult result = new QuizResult();
-                result.setId(rs.getInt("id"));
-                result.setUserId(rs.getInt("user_id"));
-                result.setCategory(rs.getString("category"));
-                result.setScore(rs.getInt("score"));
-                result.setTotalQuestions(rs.getInt("total_questions"));
-                result.setTimeSpent(rs.getInt("time_spent"));
-                result.setDifficulty(rs.getString("difficulty"));
-                result.setCompletedAt(rs.getString("completed_at"));
-                results.add(result);
-            }
+    public List<Question> getQuestionsByCategory(String category) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT * FROM questions WHERE category = ? ORDER BY created_at DESC";
+            return pool.read(conn -> {
+                List<Question> questions = new ArrayList<>();
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, category);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        questions.add(mapQuestion(rs));
+                    }
+                }
+                return questions;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_QUESTIONS_BY_CATEGORY.record(start, failed);
         }
-        return results;
     }
 
-    // Utility methods
-    public void closeConnection() {
+    /**
+     * Draw random questions from the resident question bank; SQLite is not touched once the bank is loaded
+     * @return private copies the caller may modify
+     */
+    public List<Question> getRandomQuestions(int count, String category, String difficulty) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
+            List<Question> picked = questionBank().getRandom(count, category, difficulty);
+            for (int i = 0; i < picked.size(); i++) {
+                picked.set(i, copyOf(picked.get(i)));
             }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+            return picked;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_RANDOM_QUESTIONS.record(start, failed);
+        }
+    }
+
+    /**
+     * Ids of all questions matching the filter; a null or empty category/difficulty matches everything
+     */
+    public int[] getQuestionIds(String category, String difficulty) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            boolean byCategory = category != null && !category.isEmpty();
+            boolean byDifficulty = difficulty != null && !difficulty.isEmpty();
+            String sql = "SELECT id FROM questions"
+                + (byCategory && byDifficulty ? " WHERE category = ? AND difficulty = ?"
+                    : byCategory ? " WHERE category = ?"
+                    : byDifficulty ? " WHERE difficulty = ?" : "");
+            return pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                int index = 1;
+                if (byCategory) {
+                    pstmt.setString(index++, category);
+                }
+                if (byDifficulty) {
+                    pstmt.setString(index, difficulty);
+                }
+                QuestionSampler.IdSet ids = new QuestionSampler.IdSet(256);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+                return ids.toArray();
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_QUESTION_IDS.record(start, failed);
+        }
+    }
+
+    /**
+     * Load the given questions, preserving the order of {@code ids}; missing ids are skipped
+     */
+    public List<Question> getQuestionsByIds(int[] ids) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            if (ids.length == 0) {
+                return new ArrayList<>();
+            }
+            StringBuilder sql = new StringBuilder("SELECT * FROM questions WHERE id IN (");
+            for (int i = 0; i < ids.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+
+            Question[] ordered = pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql.toString());
+                for (int i = 0; i < ids.length; i++) {
+                    pstmt.setInt(i + 1, ids[i]);
+                }
+                Question[] found = new Question[ids.length];
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Question question = mapQuestion(rs);
+                        for (int i = 0; i < ids.length; i++) {
+                            if (ids[i] == question.getId()) {
+                                found[i] = question;
+                                break;
+                            }
+                        }
+                    }
+                }
+                return found;
+            });
+
+            List<Question> questions = new ArrayList<>(ids.length);
+            for (Question question : ordered) {
+                if (question != null) {
+                    questions.add(question);
+                }
+            }
+            return questions;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_QUESTIONS_BY_IDS.record(start, failed);
+        }
+    }
+
+    public List<Question> getQuestionsByDifficulty(String difficulty) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT * FROM questions WHERE difficulty = ? ORDER BY created_at DESC";
+            return pool.read(conn -> {
+                List<Question> questions = new ArrayList<>();
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, difficulty);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        questions.add(mapQuestion(rs));
+                    }
+                }
+                return questions;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_QUESTIONS_BY_DIFFICULTY.record(start, failed);
+        }
+    }
+
+    public List<Question> getQuestionsByCategoryAndDifficulty(String category, String difficulty) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT * FROM questions WHERE category = ? AND difficulty = ? ORDER BY created_at DESC";
+            return pool.read(conn -> {
+                List<Question> questions = new ArrayList<>();
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, category);
+                pstmt.setString(2, difficulty);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        questions.add(mapQuestion(rs));
+                    }
+                }
+                return questions;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_QUESTIONS_BY_CATEGORY_AND_DIFFICULTY.record(start, failed);
+        }
+    }
+
+    public void deleteQuestion(int questionId) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "DELETE FROM questions WHERE id = ?";
+            QuestionChangeEvent event = pool.write(writer -> {
+                Question deleted = pool.transaction(conn -> {
+                    Question current = selectQuestion(conn, questionId);
+                    if (current != null) {
+                        PreparedStatement pstmt = conn.prepare(sql);
+                        pstmt.setInt(1, questionId);
+                        pstmt.executeUpdate();
+                    }
+                    return current;
+                });
+                return deleted == null ? null
+                    : applyCommitted(new QuestionChangeEvent(QuestionChangeEvent.Type.DELETED, List.of(deleted), List.of()));
+            });
+            if (event != null) {
+                publish(event);
+            }
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            DELETE_QUESTION.record(start, failed);
+        }
+    }
+
+    /**
+     * Build the near-duplicate index now rather than on the first {@link #findNearDuplicates} call
+     */
+    public void prepareDuplicateCheck() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            duplicateIndex();
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            PREPARE_DUPLICATE_CHECK.record(start, failed);
+        }
+    }
+
+    /**
+     * Stored questions that are near-duplicates of {@code question}: the same text and options up to
+     * small edits, case, punctuation and option order. Checked against the in-memory LSH index, so it is
+     * cheap enough to run before every insert; the question's own id is skipped, so an edit does not
+     * match itself.
+     * @return up to {@code limit} hits, most similar first, scored by shingle similarity (0-1)
+     */
+    public List<SearchHit> findNearDuplicates(Question question, int limit) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            int[] shingles = MinHash.shingles(question);
+            int[] candidates = duplicateIndex().candidates(MinHash.bandKeys(shingles), question.getId());
+            QuestionBank bank = questionBank();
+            List<SearchHit> hits = new ArrayList<>();
+            for (int id : candidates) {
+                Question candidate = bank.getById(id);
+                if (candidate == null) {
+                    continue;
+                }
+                double similarity = MinHash.similarity(shingles, MinHash.shingles(candidate));
+                if (similarity >= DUPLICATE_SIMILARITY) {
+                    hits.add(new SearchHit(copyOf(candidate), SearchHit.Match.DUPLICATE, similarity));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed());
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            FIND_NEAR_DUPLICATES.record(start, failed);
+        }
+    }
+
+    /**
+     * Near-duplicate check for a batch about to be inserted, such as an import chunk: for each question,
+     * a stored question or an earlier question of the same batch that it is a near-duplicate of
+     * (see {@link #findNearDuplicates}), or null
+     * @return one entry per question of the batch; a stored match is a copy, a batch match the batch's own object
+     */
+    public List<Question> findBatchDuplicates(List<Question> batch) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            DuplicateIndex stored = duplicateIndex();
+            QuestionBank bank = questionBank();
+            // The batch is not stored yet, so its questions are indexed here by position
+            DuplicateIndex earlier = new DuplicateIndex(batch.size());
+            int[][] shingles = new int[batch.size()][];
+            List<Question> matches = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                shingles[i] = MinHash.shingles(batch.get(i));
+                int[] bandKeys = MinHash.bandKeys(shingles[i]);
+                Question match = null;
+                for (int id : stored.candidates(bandKeys, -1)) {
+                    Question candidate = bank.getById(id);
+                    if (candidate != null
+                            && MinHash.similarity(shingles[i], MinHash.shingles(candidate)) >= DUPLICATE_SIMILARITY) {
+                        match = copyOf(candidate);
+                        break;
+                    }
+                }
+                if (match == null) {
+                    for (int j : earlier.candidates(bandKeys, -1)) {
+                        if (MinHash.similarity(shingles[i], shingles[j]) >= DUPLICATE_SIMILARITY) {
+                            match = batch.get(j);
+                            break;
+                        }
+                    }
+                }
+                matches.add(match);
+                earlier.put(i, bandKeys);
+            }
+            return matches;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            FIND_BATCH_DUPLICATES.record(start, failed);
+        }
+    }
+
+    /**
+     * Group the whole questions table into clusters of near-duplicates (see {@link DuplicateFinder}),
+     * largest first. Questions without a duplicate are left out.
+     */
+    public List<DuplicateCluster> findDuplicateClusters() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            DuplicateFinder.Signatures signatures = scanSignatures();
+            long scanned = System.nanoTime();
+            QuestionBank bank = questionBank();
+            List<DuplicateFinder.Cluster> clusters = duplicateFinder().cluster(signatures, DUPLICATE_SIMILARITY, id -> {
+                Question question = bank.getById(id);
+                return question == null ? null : MinHash.shingles(question);
+            });
+            List<DuplicateCluster> result = new ArrayList<>(clusters.size());
+            for (DuplicateFinder.Cluster cluster : clusters) {
+                List<Question> questions = new ArrayList<>(cluster.members.length);
+                int[] oldest = null;
+                double similarity = 1;
+                for (int member : cluster.members) {
+                    Question question = bank.getById(signatures.ids[member]);
+                    if (question == null) {
+                        continue;
+                    }
+                    // Members are chained, so report how far the cluster strays from its oldest question
+                    if (oldest == null) {
+                        oldest = MinHash.shingles(question);
+                    } else {
+                        similarity = Math.min(similarity, MinHash.similarity(oldest, MinHash.shingles(question)));
+                    }
+                    questions.add(copyOf(question));
+                }
+                if (questions.size() > 1) {
+                    result.add(new DuplicateCluster(questions, similarity));
+                }
+            }
+            System.out.println("Duplicate scan: " + signatures.size() + " questions, " + result.size()
+                + " clusters (scan " + (scanned - start) / 1_000_000 + " ms, clustering "
+                + (System.nanoTime() - scanned) / 1_000_000 + " ms)");
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            FIND_DUPLICATE_CLUSTERS.record(start, failed);
+        }
+    }
+
+    /**
+     * The candidates that are near-duplicates of the question to keep, in the given order. A cluster from
+     * {@link #findDuplicateClusters} is chained, so only these may be merged into it.
+     */
+    public List<Integer> verifyDuplicates(int keepId, List<Integer> candidateIds) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            QuestionBank bank = questionBank();
+            Question kept = bank.getById(keepId);
+            List<Integer> verified = new ArrayList<>();
+            if (kept == null) {
+                return verified;
+            }
+            int[] keptShingles = MinHash.shingles(kept);
+            for (int candidateId : candidateIds) {
+                Question candidate = candidateId == keepId ? null : bank.getById(candidateId);
+                if (candidate != null
+                        && MinHash.similarity(keptShingles, MinHash.shingles(candidate)) >= DUPLICATE_SIMILARITY) {
+                    verified.add(candidateId);
+                }
+            }
+            return verified;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            VERIFY_DUPLICATES.record(start, failed);
+        }
+    }
+
+    /**
+     * Fold near-duplicates into the question that is kept, in one transaction: their recorded answers
+     * are moved to it and added to its item statistics, then they are deleted (their ratings and review
+     * schedules go with them). Each one is checked against the kept question again inside the
+     * transaction; one that is gone or no longer a near-duplicate of it is left alone.
+     * @return the number of questions removed; 0 if the kept question no longer exists
+     */
+    public int mergeDuplicates(int keepId, List<Integer> duplicateIds) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String moveSql = "UPDATE question_attempts SET question_id = ? WHERE question_id = ?";
+            String deleteSql = "DELETE FROM questions WHERE id = ?";
+            QuestionChangeEvent event = pool.write(writer -> {
+                List<Question> removed = pool.transaction(conn -> {
+                    List<Question> deleted = new ArrayList<>();
+                    Question keep = selectQuestion(conn, keepId);
+                    if (keep == null) {
+                        return deleted;
+                    }
+                    int[] keptShingles = MinHash.shingles(keep);
+                    ItemStats kept = selectItemStats(conn, keepId);
+                    boolean answered = kept != null;
+                    if (kept == null) {
+                        kept = new ItemStats(keepId);
+                    }
+                    for (int duplicateId : duplicateIds) {
+                        Question current = duplicateId == keepId ? null : selectQuestion(conn, duplicateId);
+                        if (current == null
+                                || MinHash.similarity(keptShingles, MinHash.shingles(current)) < DUPLICATE_SIMILARITY) {
+                            continue;
+                        }
+                        ItemStats stats = selectItemStats(conn, duplicateId);
+                        if (stats != null) {
+                            kept.merge(stats);
+                            answered = true;
+                        }
+                        PreparedStatement move = conn.prepare(moveSql);
+                        move.setInt(1, keepId);
+                        move.setInt(2, duplicateId);
+                        move.executeUpdate();
+                        PreparedStatement delete = conn.prepare(deleteSql);
+                        delete.setInt(1, duplicateId);
+                        delete.executeUpdate();
+                        deleted.add(current);
+                    }
+                    if (answered && !deleted.isEmpty()) {
+                        PreparedStatement upsert = prepareItemStatsUpsert(conn);
+                        bindItemStats(upsert, kept);
+                        upsert.executeUpdate();
+                    }
+                    return deleted;
+                });
+                return removed.isEmpty() ? null
+                    : applyCommitted(new QuestionChangeEvent(QuestionChangeEvent.Type.DELETED, removed, List.of()));
+            });
+            if (event == null) {
+                return 0;
+            }
+            publish(event);
+            return event.getQuestions().size();
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            MERGE_DUPLICATES.record(start, failed);
+        }
+    }
+
+    public List<String> getCategories() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT DISTINCT category FROM questions ORDER BY category";
+            return pool.read(conn -> {
+                List<String> categories = new ArrayList<>();
+                try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+                    while (rs.next()) {
+                        categories.add(rs.getString("category"));
+                    }
+                }
+                return categories;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_CATEGORIES.record(start, failed);
+        }
+    }
+
+    /**
+     * Number of questions in each category, by category name
+     */
+    public Map<String, Integer> getCategoryCounts() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT category, COUNT(*) FROM questions GROUP BY category ORDER BY category";
+            return pool.read(conn -> {
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+                    while (rs.next()) {
+                        counts.put(rs.getString(1), rs.getInt(2));
+                    }
+                }
+                return counts;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_CATEGORY_COUNTS.record(start, failed);
+        }
+    }
+
+    public int getQuestionCount() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT COUNT(*) FROM questions";
+            return pool.read(conn -> {
+                try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+                    return rs.getInt(1);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_QUESTION_COUNT.record(start, failed);
+        }
+    }
+
+    // Quiz result operations
+
+    /**
+     * Save a result and fold it into the user's running statistics in the same transaction
+     */
+    public void insertQuizResult(QuizResult result) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            insertQuizResults(List.of(result));
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            INSERT_QUIZ_RESULT.record(start, failed);
+        }
+    }
+
+    /**
+     * Save several results in one transaction (one commit for the whole batch).
+     * Either all of them are stored, with ids and completion times set, or none are.
+     */
+    public void insertQuizResults(List<QuizResult> results) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            List<QuizResult> ranked = pool.transaction(conn -> {
+                List<QuizResult> withUser = new ArrayList<>(results.size());
+                for (QuizResult result : results) {
+                    if (insertQuizResultRow(conn, result)) {
+                        withUser.add(result);
+                    }
+                }
+                return withUser;
+            });
+
+            // Leaderboards only list results joined to an existing user, like the SQL query
+            Leaderboard board = leaderboard;
+            if (board != null) {
+                for (QuizResult result : ranked) {
+                    board.offer(result);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            INSERT_QUIZ_RESULTS.record(start, failed);
+        }
+    }
+
+    /**
+     * Queue a result for the write-behind writer, which groups concurrent submissions into one commit.
+     * Blocks while the queue is full; call off the EDT.
+     * @return future completed with the saved result once it has been committed
+     */
+    public CompletableFuture<QuizResult> submitQuizResult(QuizResult result) {
+        return resultQueue.submit(result);
+    }
+
+    public WriteBehindQueue.Stats getResultQueueStats() {
+        return resultQueue.getStats();
+    }
+
+    // Adaptive quiz operations
+
+    /**
+     * Start an adaptive quiz of {@code length} questions, optionally limited to one category
+     */
+    public AdaptiveSession startAdaptiveSession(int userId, String category, int length) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            ratingIndex();
+            getUserRating(userId);
+            return new AdaptiveSession(userId, category == null || category.isEmpty() ? null : category, length);
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            START_ADAPTIVE_SESSION.record(start, failed);
+        }
+    }
+
+    /**
+     * The unasked question whose rating is closest to the user's current ability, where the chance of
+     * a correct answer is about even and the answer tells the most about the user
+     * @return a private copy of the question, or null if the session is finished or has asked every
+     *         matching question
+     */
+    public Question nextAdaptiveQuestion(AdaptiveSession session) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            RatingIndex index = ratingIndex();
+            QuestionBank bank = questionBank();
+            double ability = getUserRating(session.getUserId()).getRating();
+            synchronized (session) {
+                while (!session.isFinished()) {
+                    int questionId = index.pick(ability, session.getCategory(), session.asked());
+                    if (questionId < 0) {
+                        return null;
+                    }
+                    session.markAsked(questionId);
+                    Question question = bank.getById(questionId);
+                    // Null if the question was deleted since it was picked; pick another
+                    if (question != null) {
+                        return copyOf(question);
+                    }
+                }
+                return null;
+            }
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            NEXT_ADAPTIVE_QUESTION.record(start, failed);
+        }
+    }
+
+    /**
+     * Score an answer: update the user's ability and the question's rating in memory and queue both
+     * for the next batched write
+     * @return the user's new rating
+     */
+    public Rating recordAdaptiveAnswer(AdaptiveSession session, int questionId, boolean correct) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            session.recordAnswer(correct);
+            Rating user = getUserRating(session.getUserId());
+            Rating question = ratingIndex().getRating(questionId);
+            if (question == null) {
+                return user;
+            }
+            double surprise = (correct ? 1.0 : 0.0) - EloModel.expected(user.getRating(), question.getRating());
+            Rating updatedUser = userRatings.compute(session.getUserId(), (id, current) -> new Rating(
+                Rating.Subject.USER, id, current.getRating() + EloModel.userK(current.getAnswers()) * surprise,
+                current.getAnswers() + 1));
+            Rating updatedQuestion = ratingIndex().adjust(questionId, -EloModel.questionK(question.getAnswers()) * surprise);
+            queueRating(updatedUser);
+            if (updatedQuestion != null) {
+                queueRating(updatedQuestion);
+            }
+            return updatedUser;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            RECORD_ADAPTIVE_ANSWER.record(start, failed);
+        }
+    }
+
+    private void queueRating(Rating rating) {
+        try {
+            ratingQueue.submit(rating).exceptionally(e -> {
+                System.err.println("Failed to save rating " + rating + ": " + e.getMessage());
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            // The in-memory rating stands; a later update of the same subject stores it
+            System.err.println("Rating not queued: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A user's current ability rating; the initial rating if they have never answered adaptively
+     */
+    public Rating getUserRating(int userId) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            Rating cached = userRatings.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            String sql = "SELECT rating, answers FROM user_ratings WHERE user_id = ?";
+            Rating stored = pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next()
+                        ? new Rating(Rating.Subject.USER, userId, rs.getDouble("rating"), rs.getInt("answers"))
+                        : new Rating(Rating.Subject.USER, userId, Rating.INITIAL, 0);
+                }
+            });
+            // Another thread may have loaded (and already updated) it meanwhile
+            Rating previous = userRatings.putIfAbsent(userId, stored);
+            return previous != null ? previous : stored;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_USER_RATING.record(start, failed);
+        }
+    }
+
+    /**
+     * The current rating of a question for adaptive quizzes, or null if there is no such question
+     */
+    public Rating getQuestionRating(int questionId) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return ratingIndex().getRating(questionId);
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_QUESTION_RATING.record(start, failed);
+        }
+    }
+
+    /**
+     * Store a batch of rating updates in one transaction. Only the last update of each user or
+     * question in the batch is written; ratings of questions deleted meanwhile are dropped.
+     */
+    public void saveRatings(List<Rating> ratings) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            Map<Long, Rating> latest = new LinkedHashMap<>();
+            for (Rating rating : ratings) {
+                latest.put(((long) rating.getSubject().ordinal() << 32) | (rating.getId() & 0xFFFFFFFFL), rating);
+            }
+            String userSql = """
+                INSERT INTO user_ratings (user_id, rating, answers) VALUES (?, ?, ?)
+                ON CONFLICT (user_id) DO UPDATE SET rating = excluded.rating, answers = excluded.answers
+                """;
+            String questionSql = """
+                INSERT INTO question_ratings (question_id, rating, answers)
+                SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM questions WHERE id = ?)
+                ON CONFLICT (question_id) DO UPDATE SET rating = excluded.rating, answers = excluded.answers
+                """;
+            pool.transaction(conn -> {
+                PreparedStatement users = conn.prepare(userSql);
+                PreparedStatement questions = conn.prepare(questionSql);
+                try {
+                    for (Rating rating : latest.values()) {
+                        PreparedStatement pstmt = rating.getSubject() == Rating.Subject.USER ? users : questions;
+                        pstmt.setInt(1, rating.getId());
+                        pstmt.setDouble(2, rating.getRating());
+                        pstmt.setInt(3, rating.getAnswers());
+                        if (pstmt == questions) {
+                            pstmt.setInt(4, rating.getId());
+                        }
+                        pstmt.addBatch();
+                    }
+                    users.executeBatch();
+                    questions.executeBatch();
+                } finally {
+                    users.clearBatch();
+                    questions.clearBatch();
+                }
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            SAVE_RATINGS.record(start, failed);
+        }
+    }
+
+    public WriteBehindQueue.Stats getRatingQueueStats() {
+        return ratingQueue.getStats();
+    }
+
+    // Attempt and item statistics operations
+
+    /**
+     * Queue the answers of a finished quiz for the attempt writer
+     * @return future completed once all of them are committed
+     */
+    public CompletableFuture<Void> submitAttempts(List<QuestionAttempt> attempts) {
+        CompletableFuture<?>[] saved = new CompletableFuture<?>[attempts.size()];
+        for (int i = 0; i < saved.length; i++) {
+            saved[i] = attemptQueue.submit(attempts.get(i));
+        }
+        return CompletableFuture.allOf(saved);
+    }
+
+    public WriteBehindQueue.Stats getAttemptQueueStats() {
+        return attemptQueue.getStats();
+    }
+
+    /**
+     * Store a batch of attempts and fold them into question_stats in the same transaction, so the
+     * statistics never have to be recomputed from the raw attempts
+     */
+    public void insertAttempts(List<QuestionAttempt> attempts) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String insertSql = """
+                INSERT INTO question_attempts (user_id, question_id, chosen_option, correct, time_ms, answered_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """;
+            String questionExistsSql = "SELECT 1 FROM questions WHERE id = ?";
+            Map<Integer, ItemStats> batchStats = new LinkedHashMap<>();
+            for (QuestionAttempt attempt : attempts) {
+                batchStats.computeIfAbsent(attempt.getQuestionId(), ItemStats::new).add(attempt);
+            }
+            pool.transaction(conn -> {
+                PreparedStatement insert = conn.prepare(insertSql);
+                try {
+                    for (QuestionAttempt attempt : attempts) {
+                        insert.setInt(1, attempt.getUserId());
+                        insert.setInt(2, attempt.getQuestionId());
+                        insert.setInt(3, attempt.getChosenOption());
+                        insert.setBoolean(4, attempt.isCorrect());
+                        insert.setLong(5, attempt.getTimeMillis());
+                        insert.setLong(6, attempt.getAnsweredAt());
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                } finally {
+                    insert.clearBatch();
+                }
+
+                PreparedStatement exists = conn.prepare(questionExistsSql);
+                PreparedStatement upsert = prepareItemStatsUpsert(conn);
+                try {
+                    for (ItemStats delta : batchStats.values()) {
+                        // A question deleted after it was answered keeps its attempts but gets no stats row:
+                        // the delete trigger has already run and would not run again
+                        exists.setInt(1, delta.getQuestionId());
+                        try (ResultSet rs = exists.executeQuery()) {
+                            if (!rs.next()) {
+                                continue;
+                            }
+                        }
+                        ItemStats stats = selectItemStats(conn, delta.getQuestionId());
+                        if (stats == null) {
+                            stats = new ItemStats(delta.getQuestionId());
+                        }
+                        stats.merge(delta);
+                        bindItemStats(upsert, stats);
+                        upsert.addBatch();
+                    }
+                    upsert.executeBatch();
+                } finally {
+                    upsert.clearBatch();
+                }
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            INSERT_ATTEMPTS.record(start, failed);
+        }
+    }
+
+    /**
+     * Item statistics of the most answered questions, most attempts first
+     */
+    public List<ItemStats> getItemStats(int limit) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = """
+                SELECT s.*, q.question_text, q.correct_answer
+                FROM question_stats s
+                JOIN questions q ON q.id = s.question_id
+                ORDER BY s.attempts DESC
+                LIMIT ?
+                """;
+            return pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, limit);
+                List<ItemStats> stats = new ArrayList<>();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        ItemStats item = mapItemStats(rs);
+                        item.setQuestionText(rs.getString("question_text"));
+                        item.setCorrectAnswer(rs.getInt("correct_answer"));
+                        stats.add(item);
+                    }
+                }
+                return stats;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_ITEM_STATS.record(start, failed);
+        }
+    }
+
+    /**
+     * The stored item statistics of a question, or null if it has never been answered
+     */
+    private static ItemStats selectItemStats(PooledConnection conn, int questionId) throws SQLException {
+        PreparedStatement pstmt = conn.prepare("SELECT * FROM question_stats WHERE question_id = ?");
+        pstmt.setInt(1, questionId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? mapItemStats(rs) : null;
+        }
+    }
+
+    private static PreparedStatement prepareItemStatsUpsert(PooledConnection conn) throws SQLException {
+        return conn.prepare("""
+            INSERT INTO question_stats (question_id, attempts, correct, chose_a, chose_b, chose_c, chose_d,
+                                        unanswered, median_time_ms, time_histogram)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (question_id) DO UPDATE SET attempts = excluded.attempts, correct = excluded.correct,
+                chose_a = excluded.chose_a, chose_b = excluded.chose_b, chose_c = excluded.chose_c,
+                chose_d = excluded.chose_d, unanswered = excluded.unanswered,
+                median_time_ms = excluded.median_time_ms, time_histogram = excluded.time_histogram
+            """);
+    }
+
+    private static void bindItemStats(PreparedStatement upsert, ItemStats stats) throws SQLException {
+        upsert.setInt(1, stats.getQuestionId());
+        upsert.setInt(2, stats.getAttempts());
+        upsert.setInt(3, stats.getCorrect());
+        for (int option = 0; option < 4; option++) {
+            upsert.setInt(4 + option, stats.getOptionCount(option));
+        }
+        upsert.setInt(8, stats.getUnanswered());
+        upsert.setLong(9, stats.getMedianTimeMillis());
+        upsert.setBytes(10, encodeHistogram(stats.getTimeHistogram()));
+    }
+
+    private static ItemStats mapItemStats(ResultSet rs) throws SQLException {
+        ItemStats stats = new ItemStats(rs.getInt("question_id"));
+        stats.setAttempts(rs.getInt("attempts"));
+        stats.setCorrect(rs.getInt("correct"));
+        stats.setOptionCount(0, rs.getInt("chose_a"));
+        stats.setOptionCount(1, rs.getInt("chose_b"));
+        stats.setOptionCount(2, rs.getInt("chose_c"));
+        stats.setOptionCount(3, rs.getInt("chose_d"));
+        stats.setUnanswered(rs.getInt("unanswered"));
+        ByteBuffer histogram = ByteBuffer.wrap(rs.getBytes("time_histogram")).order(ByteOrder.LITTLE_ENDIAN);
+        int[] counts = stats.getTimeHistogram();
+        for (int i = 0; i < counts.length && histogram.remaining() >= 4; i++) {
+            counts[i] = histogram.getInt();
+        }
+        return stats;
+    }
+
+    private static byte[] encodeHistogram(int[] counts) {
+        ByteBuffer buffer = ByteBuffer.allocate(counts.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int count : counts) {
+            buffer.putInt(count);
+        }
+        return buffer.array();
+    }
+
+    // Review operations
+
+    /**
+     * A user's review schedule, loaded from the table the first time it is needed
+     */
+    private ReviewScheduler.UserSchedule reviewSchedule(int userId) throws SQLException {
+        ReviewScheduler.UserSchedule schedule = reviews.get(userId);
+        if (schedule != null) {
+            return schedule;
+        }
+        String sql = """
+            SELECT question_id, due_at, interval_days, ease, repetitions
+            FROM review_schedule WHERE user_id = ?
+            """;
+        List<ReviewItem> items = pool.read(conn -> {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setInt(1, userId);
+            List<ReviewItem> loaded = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    loaded.add(new ReviewItem(rs.getInt("question_id"), rs.getLong("due_at"),
+                        rs.getInt("interval_days"), rs.getInt("ease"), rs.getInt("repetitions")));
+                }
+            }
+            return loaded;
+        });
+        return reviews.register(userId, new ReviewScheduler.UserSchedule(items));
+    }
+
+    /**
+     * Up to {@code limit} questions due for review, most overdue first
+     */
+    public List<Question> getDueReviewQuestions(int userId, int limit) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            ReviewScheduler.UserSchedule schedule = reviewSchedule(userId);
+            QuestionBank bank = questionBank();
+            long now = Instant.now().getEpochSecond();
+            List<Question> due = new ArrayList<>();
+            synchronized (schedule) {
+                List<Integer> deleted = new ArrayList<>();
+                for (ReviewItem item : schedule.due(now, limit)) {
+                    Question question = bank.getById(item.getQuestionId());
+                    if (question != null) {
+                        due.add(copyOf(question));
+                    } else {
+                        deleted.add(item.getQuestionId());
+                    }
+                }
+                // Deleted questions are dropped in publish(); this catches a schedule loaded during the delete
+                deleted.forEach(schedule::remove);
+            }
+            return due;
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_DUE_REVIEW_QUESTIONS.record(start, failed);
+        }
+    }
+
+    public int countDueReviews(int userId) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            ReviewScheduler.UserSchedule schedule = reviewSchedule(userId);
+            synchronized (schedule) {
+                return schedule.countDue(Instant.now().getEpochSecond());
+            }
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            COUNT_DUE_REVIEWS.record(start, failed);
+        }
+    }
+
+    /**
+     * Reschedule the questions of a finished quiz (question id to whether it was answered correctly).
+     * Only these rows are written, in one transaction; the in-memory schedule follows once it commits.
+     */
+    public void recordReviews(int userId, Map<Integer, Boolean> answers) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            if (answers.isEmpty()) {
+                return;
+            }
+            String sql = """
+                INSERT INTO review_schedule (user_id, question_id, due_at, interval_days, ease, repetitions)
+                VALUES (?, ?, ?, ?, ?, ?)
+                ON CONFLICT (user_id, question_id) DO UPDATE SET due_at = excluded.due_at,
+                    interval_days = excluded.interval_days, ease = excluded.ease, repetitions = excluded.repetitions
+                """;
+            ReviewScheduler.UserSchedule schedule = reviewSchedule(userId);
+            long now = Instant.now().getEpochSecond();
+            // Held across the write so two quizzes of the same user cannot both start from the same state
+            synchronized (schedule) {
+                List<ReviewItem> updated = new ArrayList<>(answers.size());
+                for (Map.Entry<Integer, Boolean> answer : answers.entrySet()) {
+                    updated.add(ReviewScheduler.next(schedule.get(answer.getKey()), answer.getKey(), answer.getValue(), now));
+                }
+                pool.transaction(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    try {
+                        for (ReviewItem item : updated) {
+                            pstmt.setInt(1, userId);
+                            pstmt.setInt(2, item.getQuestionId());
+                            pstmt.setLong(3, item.getDueAt());
+                            pstmt.setInt(4, item.getIntervalDays());
+                            pstmt.setInt(5, item.getEase());
+                            pstmt.setInt(6, item.getRepetitions());
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    } finally {
+                        pstmt.clearBatch();
+                    }
+                    return null;
+                });
+                for (ReviewItem item : updated) {
+                    schedule.put(item);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            RECORD_REVIEWS.record(start, failed);
+        }
+    }
+
+    /**
+     * Insert one result row and update the aggregates; must run inside a transaction
+     * @return true if the result belongs to an existing user
+     */
+    private static boolean insertQuizResultRow(PooledConnection conn, QuizResult result) throws SQLException {
+        String sql = """
+            INSERT INTO quiz_results (user_id, category, score, total_questions, time_spent, difficulty)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+        String insertedSql = """
+            SELECT qr.id, qr.completed_at, u.username
+            FROM quiz_results qr
+            LEFT JOIN users u ON qr.user_id = u.id
+            WHERE qr.id = last_insert_rowid()
+            """;
+        PreparedStatement pstmt = conn.prepare(sql);
+        pstmt.setInt(1, result.getUserId());
+        pstmt.setString(2, result.getCategory());
+        pstmt.setInt(3, result.getScore());
+        pstmt.setInt(4, result.getTotalQuestions());
+        pstmt.setInt(5, result.getTimeSpent());
+        pstmt.setString(6, result.getDifficulty());
+        pstmt.executeUpdate();
+
+        boolean joined;
+        try (ResultSet rs = conn.prepare(insertedSql).executeQuery()) {
+            rs.next();
+            result.setId(rs.getInt("id"));
+            result.setCompletedAt(rs.getString("completed_at"));
+            result.setUsername(rs.getString("username"));
+            joined = result.getUsername() != null;
+        }
+
+        updateUserStats(conn, result);
+        return joined;
+    }
+
+    private static void updateUserStats(PooledConnection conn, QuizResult result) throws SQLException {
+        String userSql = """
+            INSERT INTO user_stats (user_id, quiz_count, percentage_sum, best_result_id, best_percentage)
+            VALUES (?, 1, ?, ?, ?)
+            ON CONFLICT (user_id) DO UPDATE SET
+                quiz_count = quiz_count + 1,
+                percentage_sum = percentage_sum + excluded.percentage_sum,
+                best_result_id = CASE WHEN excluded.best_percentage > best_percentage
+                                      THEN excluded.best_result_id ELSE best_result_id END,
+                best_percentage = MAX(best_percentage, excluded.best_percentage)
+            """;
+        String categorySql = """
+            INSERT INTO user_category_stats (user_id, category, quiz_count, percentage_sum, best_result_id, best_percentage)
+            VALUES (?, ?, 1, ?, ?, ?)
+            ON CONFLICT (user_id, category) DO UPDATE SET
+                quiz_count = quiz_count + 1,
+                percentage_sum = percentage_sum + excluded.percentage_sum,
+                best_result_id = CASE WHEN excluded.best_percentage > best_percentage
+                                      THEN excluded.best_result_id ELSE best_result_id END,
+                best_percentage = MAX(best_percentage, excluded.best_percentage)
+            """;
+        double percentage = result.getPercentage();
+
+        PreparedStatement pstmt = conn.prepare(userSql);
+        pstmt.setInt(1, result.getUserId());
+        pstmt.setDouble(2, percentage);
+        pstmt.setInt(3, result.getId());
+        pstmt.setDouble(4, percentage);
+        pstmt.executeUpdate();
+
+        pstmt = conn.prepare(categorySql);
+        pstmt.setInt(1, result.getUserId());
+        pstmt.setString(2, result.getCategory());
+        pstmt.setDouble(3, percentage);
+        pstmt.setInt(4, result.getId());
+        pstmt.setDouble(5, percentage);
+        pstmt.executeUpdate();
+    }
+
+    /**
+     * Dashboard snapshot for a user: two primary-key lookups, independent of history length
+     */
+    public UserStats getUserStats(int userId) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String statsSql = """
+                SELECT s.*, qr.category AS best_category
+                FROM user_stats s
+                LEFT JOIN quiz_results qr ON qr.id = s.best_result_id
+                WHERE s.user_id = ?
+                """;
+            String categorySql = "SELECT * FROM user_category_stats WHERE user_id = ? ORDER BY category";
+            return pool.read(conn -> {
+                UserStats stats = new UserStats(userId);
+                PreparedStatement pstmt = conn.prepare(statsSql);
+                pstmt.setInt(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return stats;
+                    }
+                    stats.setTotalQuizzes(rs.getInt("quiz_count"));
+                    stats.setPercentageSum(rs.getDouble("percentage_sum"));
+                    stats.setBestResultId(rs.getInt("best_result_id"));
+                    stats.setBestPercentage(rs.getDouble("best_percentage"));
+                    stats.setBestCategory(rs.getString("best_category"));
+                }
+
+                pstmt = conn.prepare(categorySql);
+                pstmt.setInt(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        stats.addCategory(new UserStats.CategoryStats(
+                            rs.getString("category"),
+                            rs.getInt("quiz_count"),
+                            rs.getDouble("percentage_sum"),
+                            rs.getDouble("best_percentage")
+                        ));
+                    }
+                }
+                return stats;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_USER_STATS.record(start, failed);
+        }
+    }
+
+    public List<QuizResult> getUserResults(int userId) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = "SELECT * FROM quiz_results WHERE user_id = ? ORDER BY completed_at DESC";
+            return pool.read(conn -> {
+                List<QuizResult> results = new ArrayList<>();
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        results.add(mapQuizResult(rs));
+                    }
+                }
+                return results;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_USER_RESULTS.record(start, failed);
+        }
+    }
+
+    /**
+     * Best results for a category. Served from the in-memory leaderboard when the limit fits
+     * within it, otherwise from the database.
+     */
+    public List<QuizResult> getTopScores(String category, int limit) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            List<QuizResult> top = leaderboard().top(category, limit);
+            return top != null ? top : queryTopScores(category, limit);
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            GET_TOP_SCORES.record(start, failed);
+        }
+    }
+
+    /**
+     * Best results for a category read straight from quiz_results, bypassing the leaderboards
+     */
+    public List<QuizResult> queryTopScores(String category, int limit) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            String sql = """
+                SELECT qr.*, u.username
+                FROM quiz_results qr
+                JOIN users u ON qr.user_id = u.id
+                WHERE qr.category = ?
+                ORDER BY (CAST(qr.score AS REAL) / qr.total_questions) DESC, qr.time_spent ASC
+                LIMIT ?
+                """;
+            return pool.read(conn -> {
+                List<QuizResult> results = new ArrayList<>();
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, category);
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        QuizResult result = mapQuizResult(rs);
+                        result.setUsername(rs.getString("username"));
+                        results.add(result);
+                    }
+                }
+                return results;
+            });
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            QUERY_TOP_SCORES.record(start, failed);
+        }
+    }
+
+    private static Question mapQuestion(ResultSet rs) throws SQLException {
+        Question question = new Question();
+        question.setId(rs.getInt("id"));
+        question.setCategory(rs.getString("category"));
+        question.setQuestionText(rs.getString("question_text"));
+        question.setOptionA(rs.getString("option_a"));
+        question.setOptionB(rs.getString("option_b"));
+        question.setOptionC(rs.getString("option_c"));
+        question.setOptionD(rs.getString("option_d"));
+        question.setCorrectAnswer(rs.getInt("correct_answer"));
+        question.setDifficulty(rs.getString("difficulty"));
+        question.setCreatedAt(rs.getString("created_at"));
+        return question;
+    }
+
+    private static Question copyOf(Question source) {
+        Question copy = new Question(source.getCategory(), source.getQuestionText(),
+            source.getOptionA(), source.getOptionB(), source.getOptionC(), source.getOptionD(),
+            source.getCorrectAnswer(), source.getDifficulty());
+        copy.setId(source.getId());
+        copy.setCreatedAtEpochSecond(source.getCreatedAtEpochSecond());
+        return copy;
+    }
+
+    private static QuizResult mapQuizResult(ResultSet rs) throws SQLException {
+        QuizResult result = new QuizResult();
+        result.setId(rs.getInt("id"));
+        result.setUserId(rs.getInt("user_id"));
+        result.setCategory(rs.getString("category"));
+        result.setScore(rs.getInt("score"));
+        result.setTotalQuestions(rs.getInt("total_questions"));
+        result.setTimeSpent(rs.getInt("time_spent"));
+        result.setDifficulty(rs.getString("difficulty"));
+        result.setCompletedAt(rs.getString("completed_at"));
+        return result;
+    }
+
+    // Utility methods
+    public ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Ranked statements that went over {@code smartquiz.slowQueryMillis} (see {@link SlowQueryLog})
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return pool.getSlowQueryLog();
+    }
+
+    public void closeConnection() {
+        resultQueue.close();
+        System.out.println("Result queue drained: " + resultQueue.getStats());
+        ratingQueue.close();
+        System.out.println("Rating queue drained: " + ratingQueue.getStats());
+        attemptQueue.close();
+        System.out.println("Attempt queue drained: " + attemptQueue.getStats());
+        System.out.println("Operation latencies:\n" + Metrics.report());
+        if (!pool.getSlowQueryLog().getEntries().isEmpty()) {
+            System.out.println("Slow queries:\n" + pool.getSlowQueryLog().report());
         }
+        System.out.println("Closing database connections: " + pool.getStats());
+        pool.close();
+        System.out.println("Database connection closed.");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,300 @@
+package com.smartquiz.database;
+
+import com.smartquiz.models.Question;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Bulk near-duplicate detection over the whole questions table, in three parallel steps:
+ * <ol>
+ * <li>{@link #scan}: id ranges of {@value #CHUNK_IDS} are read and turned into MinHash band keys by a
+ * pool of workers;</li>
+ * <li>{@link #cluster}: per band, (key, question) pairs are sorted so questions sharing a key are
+ * adjacent, and each run yields candidate pairs. A run longer than {@value #MAX_BUCKET} (boilerplate
+ * shared by many questions) only pairs neighbours, so it costs linear time and still chains real
+ * duplicates together;</li>
+ * <li>candidate pairs are verified with their exact shingle similarity and the ones at or above the
+ * threshold are joined into clusters with union-find.</li>
+ * </ol>
+ */
+final class DuplicateFinder {
+    static final int CHUNK_IDS = 16_384;
+    static final int MAX_BUCKET = 64;
+
+    /**
+     * Reads the questions with ids in [fromId, toId]
+     */
+    interface ChunkReader {
+        List<Question> read(int fromId, int toId) throws SQLException;
+    }
+
+    /**
+     * Band keys of every scanned question: question {@code i} has id {@code ids[i]} and keys
+     * {@code bandKeys[i * BANDS ..]}, in id order
+     */
+    static final class Signatures {
+        final int[] ids;
+        final int[] bandKeys;
+
+        Signatures(int[] ids, int[] bandKeys) {
+            this.ids = ids;
+            this.bandKeys = bandKeys;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int[] bandKeys(int index) {
+            return Arrays.copyOfRange(bandKeys, index * MinHash.BANDS, (index + 1) * MinHash.BANDS);
+        }
+    }
+
+    /**
+     * Indexes into the scanned questions of one cluster, in id order. Members are joined through
+     * chains of verified pairs, so two of them need not be near-duplicates of each other.
+     */
+    static final class Cluster {
+        final int[] members;
+
+        Cluster(int[] members) {
+            this.members = members;
+        }
+    }
+
+    private final int workers;
+
+    DuplicateFinder(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
+    /**
+     * Band keys of every question with an id in [minId, maxId]
+     */
+    Signatures scan(int minId, int maxId, ChunkReader reader) throws SQLException {
+        List<Callable<Signatures>> tasks = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += CHUNK_IDS) {
+            int fromId = (int) from;
+            int toId = (int) Math.min(maxId, from + CHUNK_IDS - 1);
+            tasks.add(() -> signatures(reader.read(fromId, toId)));
+        }
+        List<Signatures> chunks = runAll(tasks);
+        int total = 0;
+        for (Signatures chunk : chunks) {
+            total += chunk.size();
+        }
+        int[] ids = new int[total];
+        int[] bandKeys = new int[total * MinHash.BANDS];
+        int offset = 0;
+        for (Signatures chunk : chunks) {
+            System.arraycopy(chunk.ids, 0, ids, offset, chunk.size());
+            System.arraycopy(chunk.bandKeys, 0, bandKeys, offset * MinHash.BANDS, chunk.bandKeys.length);
+            offset += chunk.size();
+        }
+        return new Signatures(ids, bandKeys);
+    }
+
+    private static Signatures signatures(List<Question> questions) {
+        int[] ids = new int[questions.size()];
+        int[] bandKeys = new int[questions.size() * MinHash.BANDS];
+        for (int i = 0; i < ids.length; i++) {
+            Question question = questions.get(i);
+            ids[i] = question.getId();
+            System.arraycopy(MinHash.bandKeys(question), 0, bandKeys, i * MinHash.BANDS, MinHash.BANDS);
+        }
+        return new Signatures(ids, bandKeys);
+    }
+
+    /**
+     * Clusters of scanned questions whose shingle similarity is at least {@code threshold}, largest first
+     * @param shingles the shingles of the question with the given id, or null if it is gone
+     */
+    List<Cluster> cluster(Signatures signatures, double threshold, IntFunction<int[]> shingles) throws SQLException {
+        int n = signatures.size();
+        List<Callable<long[]>> bandTasks = new ArrayList<>();
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            int b = band;
+            bandTasks.add(() -> candidatePairs(signatures, b));
+        }
+        long[] pairs = distinct(runAll(bandTasks));
+
+        // Verify in slices; each question's shingles are computed once, by whichever worker needs them first
+        AtomicReferenceArray<int[]> cache = new AtomicReferenceArray<>(n);
+        float[] similarities = new float[pairs.length];
+        int slice = Math.max(1024, pairs.length / (workers * 8) + 1);
+        List<Callable<Void>> verifyTasks = new ArrayList<>();
+        for (int start = 0; start < pairs.length; start += slice) {
+            int from = start;
+            int to = Math.min(pairs.length, start + slice);
+            verifyTasks.add(() -> {
+                for (int p = from; p < to; p++) {
+                    int[] a = shinglesOf((int) (pairs[p] >>> 32), signatures, cache, shingles);
+                    int[] b = shinglesOf((int) pairs[p], signatures, cache, shingles);
+                    similarities[p] = a == null || b == null ? 0 : (float) MinHash.similarity(a, b);
+                }
+                return null;
+            });
+        }
+        runAll(verifyTasks);
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        boolean[] linked = new boolean[n];
+        for (int p = 0; p < pairs.length; p++) {
+            if (similarities[p] >= threshold) {
+                int a = root(parent, (int) (pairs[p] >>> 32));
+                int b = root(parent, (int) pairs[p]);
+                if (a != b) {
+                    parent[Math.max(a, b)] = Math.min(a, b);
+                }
+                linked[Math.min(a, b)] = true;
+            }
+        }
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (linked[i] && parent[i] == i) {
+                groups.put(i, new ArrayList<>());
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            List<Integer> group = groups.get(root(parent, i));
+            if (group != null) {
+                group.add(i);
+            }
+        }
+        List<Cluster> clusters = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            clusters.add(new Cluster(group.stream().mapToInt(Integer::intValue).toArray()));
+        }
+        clusters.sort((x, y) -> x.members.length != y.members.length
+            ? Integer.compare(y.members.length, x.members.length) : Integer.compare(x.members[0], y.members[0]));
+        return clusters;
+    }
+
+    /**
+     * Pairs (lower index << 32 | higher index) of questions sharing their key in one band
+     */
+    private static long[] candidatePairs(Signatures signatures, int band) {
+        int n = signatures.size();
+        long[] entries = new long[n];
+        for (int i = 0; i < n; i++) {
+            entries[i] = (long) signatures.bandKeys[i * MinHash.BANDS + band] << 32 | i;
+        }
+        Arrays.sort(entries);
+        long[] pairs = new long[16];
+        int count = 0;
+        for (int start = 0; start < n; ) {
+            int end = start + 1;
+            while (end < n && entries[end] >>> 32 == entries[start] >>> 32) {
+                end++;
+            }
+            int length = end - start;
+            int needed = length > MAX_BUCKET ? length - 1 : length * (length - 1) / 2;
+            if (count + needed > pairs.length) {
+                pairs = Arrays.copyOf(pairs, Math.max(pairs.length * 2, count + needed));
+            }
+            for (int i = start; i < end; i++) {
+                int last = length > MAX_BUCKET ? Math.min(end, i + 2) : end;
+                for (int j = i + 1; j < last; j++) {
+                    // Entries with the same key are in index order
+                    pairs[count++] = (entries[i] & 0xFFFFFFFFL) << 32 | (entries[j] & 0xFFFFFFFFL);
+                }
+            }
+            start = end;
+        }
+        return Arrays.copyOf(pairs, count);
+    }
+
+    private static long[] distinct(List<long[]> perBand) {
+        int total = 0;
+        for (long[] pairs : perBand) {
+            total += pairs.length;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (long[] pairs : perBand) {
+            System.arraycopy(pairs, 0, all, offset, pairs.length);
+            offset += pairs.length;
+        }
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < total; i++) {
+            if (i == 0 || all[i] != all[distinct - 1]) {
+                all[distinct++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+
+    private static int[] shinglesOf(int index, Signatures signatures, AtomicReferenceArray<int[]> cache,
+                                    IntFunction<int[]> shingles) {
+        int[] cached = cache.get(index);
+        if (cached == null) {
+            cached = shingles.apply(signatures.ids[index]);
+            if (cached == null) {
+                return null;
+            }
+            cache.set(index, cached);
+        }
+        return cached;
+    }
+
+    private static int root(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Run the tasks on a pool of {@code workers} threads, returning their results in task order
+     */
+    private <T> List<T> runAll(List<Callable<T>> tasks) throws SQLException {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, tasks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "smartquiz-duplicates-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Duplicate scan interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sql) {
+                throw sql;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new SQLException("Duplicate scan failed: " + cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
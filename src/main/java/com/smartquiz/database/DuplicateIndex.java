@@ -0,0 +1,198 @@
+package com.smartquiz.database;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * LSH index of question MinHash band keys (see {@link MinHash}) for the near-duplicate check on insert.
+ * Each question has a slot holding its id and its {@value MinHash#BANDS} band keys; each band has an
+ * open-addressing table of slots, probed by band key. The tables store only slot numbers and read the
+ * keys back from the slots, so the whole index costs about 140 bytes per question. A lookup probes one
+ * short run per band and returns the questions sharing any band key with the query, which the caller
+ * then verifies; signatures and texts are not kept.
+ */
+class DuplicateIndex {
+    private static final int BANDS = MinHash.BANDS;
+    private static final int EMPTY = 0;
+
+    private final IntIntMap slots;
+    private int[] ids;
+    // slot * BANDS + band -> band key
+    private int[] keys;
+    private int size;
+    // band -> table of slot + 1 (0 is empty), home position is the band key & mask
+    private int[][] tables;
+    private int mask;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    DuplicateIndex(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        slots = new IntIntMap(capacity);
+        ids = new int[capacity];
+        keys = new int[capacity * BANDS];
+        allocateTables(tableCapacity(capacity));
+    }
+
+    /**
+     * Add a question or replace its band keys
+     */
+    void put(int questionId, int[] bandKeys) {
+        lock.writeLock().lock();
+        try {
+            int slot = slots.get(questionId, -1);
+            if (slot >= 0) {
+                unlink(slot);
+            } else {
+                slot = size++;
+                if (slot == ids.length) {
+                    grow();
+                }
+                slots.put(questionId, slot);
+                ids[slot] = questionId;
+            }
+            System.arraycopy(bandKeys, 0, keys, slot * BANDS, BANDS);
+            link(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int questionId) {
+        lock.writeLock().lock();
+        try {
+            int slot = slots.remove(questionId, -1);
+            if (slot < 0) {
+                return;
+            }
+            unlink(slot);
+            // Fill the hole with the last slot
+            int last = --size;
+            if (slot < last) {
+                for (int band = 0; band < BANDS; band++) {
+                    tables[band][find(band, last)] = slot + 1;
+                }
+                ids[slot] = ids[last];
+                System.arraycopy(keys, last * BANDS, keys, slot * BANDS, BANDS);
+                slots.put(ids[slot], slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the questions sharing at least one band key with {@code bandKeys}, except {@code excludeId}
+     */
+    int[] candidates(int[] bandKeys, int excludeId) {
+        lock.readLock().lock();
+        try {
+            int[] found = new int[16];
+            int count = 0;
+            for (int band = 0; band < BANDS; band++) {
+                int[] table = tables[band];
+                for (int pos = bandKeys[band] & mask; table[pos] != EMPTY; pos = (pos + 1) & mask) {
+                    int slot = table[pos] - 1;
+                    int id = ids[slot];
+                    if (keys[slot * BANDS + band] == bandKeys[band] && id != excludeId && !contains(found, count, id)) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        found[count++] = id;
+                    }
+                }
+            }
+            return Arrays.copyOf(found, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void link(int slot) {
+        for (int band = 0; band < BANDS; band++) {
+            int[] table = tables[band];
+            int pos = keys[slot * BANDS + band] & mask;
+            while (table[pos] != EMPTY) {
+                pos = (pos + 1) & mask;
+            }
+            table[pos] = slot + 1;
+        }
+    }
+
+    private void unlink(int slot) {
+        for (int band = 0; band < BANDS; band++) {
+            shiftBack(band, find(band, slot));
+        }
+    }
+
+    /**
+     * Position of a slot in a band's table
+     */
+    private int find(int band, int slot) {
+        int[] table = tables[band];
+        int pos = keys[slot * BANDS + band] & mask;
+        while (table[pos] != slot + 1) {
+            pos = (pos + 1) & mask;
+        }
+        return pos;
+    }
+
+    private void shiftBack(int band, int pos) {
+        int[] table = tables[band];
+        int gap = pos;
+        int next = (gap + 1) & mask;
+        while (table[next] != EMPTY) {
+            int home = keys[(table[next] - 1) * BANDS + band] & mask;
+            // Move the entry into the gap unless its home position lies cyclically in (gap, next]
+            boolean movable = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+            if (movable) {
+                table[gap] = table[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = EMPTY;
+    }
+
+    /**
+     * Smallest power of two keeping the tables at most three quarters full
+     */
+    private static int tableCapacity(int entries) {
+        return Integer.highestOneBit(Math.max(16, entries + entries / 3) - 1) << 1;
+    }
+
+    private void allocateTables(int capacity) {
+        tables = new int[BANDS][capacity];
+        mask = capacity - 1;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1) + 1;
+        ids = Arrays.copyOf(ids, capacity);
+        keys = Arrays.copyOf(keys, capacity * BANDS);
+        if (tableCapacity(capacity) > mask + 1) {
+            allocateTables(tableCapacity(capacity));
+            for (int slot = 0; slot < size - 1; slot++) {
+                link(slot);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.smartquiz.database;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detects database work running on the Swing event dispatch thread.
+ * {@link ConnectionPool} calls {@link #check} before every borrow, so any JDBC call made from the EDT
+ * is caught regardless of which UI class issued it. The mode comes from the
+ * {@code smartquiz.edtCheck} system property ({@code off}, {@code warn} or {@code fail}, default warn);
+ * tests switch to {@link Mode#FAIL} to turn a violation into an exception.
+ */
+public final class EdtGuard {
+
+    public enum Mode { OFF, WARN, FAIL }
+
+    private static volatile Mode mode = parse(System.getProperty("smartquiz.edtCheck", "warn"));
+    private static final AtomicLong violations = new AtomicLong();
+
+    private EdtGuard() {}
+
+    private static Mode parse(String value) {
+        try {
+            return Mode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Mode.WARN;
+        }
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static void setMode(Mode newMode) {
+        mode = newMode;
+    }
+
+    /**
+     * Number of database calls made on the EDT since startup (or the last reset)
+     */
+    public static long getViolationCount() {
+        return violations.get();
+    }
+
+    public static void resetViolationCount() {
+        violations.set(0);
+    }
+
+    static void check(String operation) {
+        if (mode == Mode.OFF || !SwingUtilities.isEventDispatchThread()) {
+            return;
+        }
+        violations.incrementAndGet();
+        if (mode == Mode.FAIL) {
+            throw new IllegalStateException("Database " + operation + " attempted on the event dispatch thread");
+        }
+        StackTraceElement caller = findCaller(new Throwable().getStackTrace());
+        System.err.println("Warning: database " + operation + " on the event dispatch thread"
+            + (caller != null ? " from " + caller : ""));
+    }
+
+    private static StackTraceElement findCaller(StackTraceElement[] stack) {
+        for (StackTraceElement element : stack) {
+            if (!element.getClassName().startsWith("com.smartquiz.database.")) {
+                return element;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.smartquiz.database;
+
+/**
+ * Elo-style rating updates for adaptive quizzes (a one-parameter IRT model on the Elo scale).
+ * A user of ability A answers a question of difficulty D correctly with probability
+ * 1 / (1 + 10^((D - A) / 400)). After each answer both ratings move by K times the surprise
+ * (actual - expected), in opposite directions. K starts high and shrinks with the number of answers
+ * a rating is based on, so new users and new questions settle quickly and established ones stay stable;
+ * questions shrink further since every user's answers feed them.
+ */
+public final class EloModel {
+    private static final double USER_K_MAX = 128;
+    private static final double USER_K_MIN = 24;
+    private static final double USER_HALF_LIFE = 10;
+    private static final double QUESTION_K_MAX = 48;
+    private static final double QUESTION_K_MIN = 8;
+    private static final double QUESTION_HALF_LIFE = 30;
+
+    private EloModel() {}
+
+    /**
+     * Probability that a user of {@code ability} answers a question of {@code difficulty} correctly
+     */
+    public static double expected(double ability, double difficulty) {
+        return 1.0 / (1.0 + Math.pow(10, (difficulty - ability) / 400.0));
+    }
+
+    public static double userK(int answers) {
+        return k(answers, USER_K_MAX, USER_K_MIN, USER_HALF_LIFE);
+    }
+
+    public static double questionK(int answers) {
+        return k(answers, QUESTION_K_MAX, QUESTION_K_MIN, QUESTION_HALF_LIFE);
+    }
+
+    /**
+     * K halfway between max and min after {@code halfLife} answers
+     */
+    private static double k(int answers, double max, double min, double halfLife) {
+        return min + (max - min) * halfLife / (halfLife + answers);
+    }
+}
@@ -0,0 +1,136 @@
+package com.smartquiz.database;
+
+import java.util.Arrays;
+
+/**
+ * Minimal open-addressing int-to-int hash map (linear probing, backward-shift deletion).
+ * Keys must be non-negative. Used by the sampling code to avoid boxing on hot paths.
+ */
+final class IntIntMap {
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int key, int defaultValue) {
+        int slot = mix(key) & mask;
+        while (true) {
+            int k = keys[slot];
+            if (k == key) {
+                return values[slot];
+            }
+            if (k == EMPTY) {
+                return defaultValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    void put(int key, int value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+        int slot = mix(key) & mask;
+        while (true) {
+            int k = keys[slot];
+            if (k == key) {
+                values[slot] = value;
+                return;
+            }
+            if (k == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size * 2 > keys.length) {
+                    rehash(keys.length << 1);
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Remove the key, returning its value or {@code defaultValue} if absent
+     */
+    int remove(int key, int defaultValue) {
+        int slot = mix(key) & mask;
+        while (true) {
+            int k = keys[slot];
+            if (k == EMPTY) {
+                return defaultValue;
+            }
+            if (k == key) {
+                int removed = values[slot];
+                shiftBack(slot);
+                size--;
+                return removed;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Remove all entries. Oversized tables are shrunk so a one-off large use does not make
+     * every later clear expensive.
+     */
+    void clear(int maxRetainedCapacity) {
+        if (keys.length > maxRetainedCapacity) {
+            allocate(Integer.highestOneBit(Math.max(4, maxRetainedCapacity)));
+        } else if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            // Move the entry into the gap unless its home slot lies cyclically in (gap, next]
+            boolean movable = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+            if (movable) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,123 @@
+package com.smartquiz.database;
+
+import com.smartquiz.models.QuizResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded top-K leaderboard per category, kept in memory and updated as results are inserted.
+ * Entries carry the username, so reading a leaderboard needs neither the users join nor a sort.
+ * Ordering matches the SQL ranking: percentage descending, then time spent ascending.
+ */
+public class Leaderboard {
+    public static final int DEFAULT_CAPACITY = 100;
+
+    /** Best result first; the id keeps otherwise equal results distinct in the set */
+    static final Comparator<QuizResult> RANKING = Comparator
+        .comparingDouble(Leaderboard::ratio).reversed()
+        .thenComparingInt(QuizResult::getTimeSpent)
+        .thenComparingInt(QuizResult::getId);
+
+    private final int capacity;
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+
+    public Leaderboard(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Replace the contents with the given results (already limited to the top K per category
+     * or not - extra entries are dropped). Results must carry their id and username.
+     * @param truncatedCategories categories that had more results than were supplied
+     */
+    public void rebuild(Collection<QuizResult> results, Collection<String> truncatedCategories) {
+        boards.clear();
+        for (QuizResult result : results) {
+            offer(result);
+        }
+        for (String category : truncatedCategories) {
+            boards.computeIfAbsent(category, c -> new Board()).markTruncated();
+        }
+    }
+
+    /**
+     * Record a newly inserted result; it is kept only if it ranks within the category's top K
+     */
+    public void offer(QuizResult result) {
+        boards.computeIfAbsent(result.getCategory(), c -> new Board()).offer(copyOf(result), capacity);
+    }
+
+    /**
+     * Top results for a category in rank order, or null when the request reaches past
+     * what is held in memory and the caller must ask the database
+     */
+    public List<QuizResult> top(String category, int limit) {
+        Board board = boards.get(category);
+        if (board == null) {
+            return new ArrayList<>();
+        }
+        return board.top(limit);
+    }
+
+    private static double ratio(QuizResult result) {
+        // SQLite yields NULL for x / 0, which sorts last in a descending order
+        return result.getTotalQuestions() == 0 ? -1.0 : (double) result.getScore() / result.getTotalQuestions();
+    }
+
+    private static QuizResult copyOf(QuizResult source) {
+        QuizResult copy = new QuizResult(source.getUserId(), source.getCategory(), source.getScore(),
+            source.getTotalQuestions(), source.getTimeSpent(), source.getDifficulty());
+        copy.setId(source.getId());
+        copy.setCompletedAtEpochSecond(source.getCompletedAtEpochSecond());
+        copy.setUsername(source.getUsername());
+        return copy;
+    }
+
+    private static final class Board {
+        private final TreeSet<QuizResult> entries = new TreeSet<>(RANKING);
+        // True once a result has been dropped, i.e. the board no longer holds the whole category
+        private boolean truncated;
+
+        synchronized void offer(QuizResult result, int capacity) {
+            if (entries.size() < capacity) {
+                entries.add(result);
+            } else if (RANKING.compare(result, entries.last()) < 0) {
+                entries.add(result);
+                entries.pollLast();
+                truncated = true;
+            } else {
+                truncated = true;
+            }
+        }
+
+        synchronized void markTruncated() {
+            truncated = true;
+        }
+
+        synchronized List<QuizResult> top(int limit) {
+            if (limit > entries.size() && truncated) {
+                return null;
+            }
+            List<QuizResult> top = new ArrayList<>(Math.min(limit, entries.size()));
+            Iterator<QuizResult> it = entries.iterator();
+            while (top.size() < limit && it.hasNext()) {
+                top.add(copyOf(it.next()));
+            }
+            return top;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.smartquiz.database;
+
+import com.smartquiz.models.Question;
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures for near-duplicate detection. A question is normalized (lower case, runs of
+ * anything but letters and digits collapsed to one space, options sorted so their order does not
+ * matter) and cut into overlapping {@value #SHINGLE_LENGTH}-character shingles. The share of shingles
+ * two questions have in common (their Jaccard similarity) is estimated by {@value #HASHES} min-hashes,
+ * grouped into {@value #BANDS} bands of {@value #ROWS} for locality-sensitive hashing: two questions
+ * become candidates when all hashes of any one band agree, which happens with probability
+ * 1 - (1 - J^5)^10: 98% at a similarity of 0.8, 27% at 0.5 and 2% at 0.3.
+ */
+final class MinHash {
+    static final int SHINGLE_LENGTH = 5;
+    static final int BANDS = 10;
+    static final int ROWS = 5;
+    static final int HASHES = BANDS * ROWS;
+
+    // Odd multipliers and offsets of the hash functions, fixed so band keys are stable across runs
+    private static final int[] MULTIPLIERS = new int[HASHES];
+    private static final int[] OFFSETS = new int[HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < HASHES; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            MULTIPLIERS[i] = (int) (seed >>> 32) | 1;
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            OFFSETS[i] = (int) (seed >>> 32);
+        }
+    }
+
+    private MinHash() {}
+
+    /**
+     * Question text followed by the sorted options, normalized
+     */
+    static String normalize(Question question) {
+        String[] options = {
+            normalize(question.getOptionA()), normalize(question.getOptionB()),
+            normalize(question.getOptionC()), normalize(question.getOptionD())
+        };
+        Arrays.sort(options);
+        StringBuilder text = new StringBuilder(normalize(question.getQuestionText()));
+        for (String option : options) {
+            if (!option.isEmpty()) {
+                text.append(" | ").append(option);
+            }
+        }
+        return text.toString();
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Sorted, distinct hashes of the shingles of normalized text, for {@link #similarity}
+     */
+    static int[] shingles(String normalized) {
+        int[] shingles = shingleHashes(normalized);
+        Arrays.sort(shingles);
+        int distinct = 0;
+        for (int i = 0; i < shingles.length; i++) {
+            if (i == 0 || shingles[i] != shingles[distinct - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return distinct == shingles.length ? shingles : Arrays.copyOf(shingles, distinct);
+    }
+
+    static int[] shingles(Question question) {
+        return shingles(normalize(question));
+    }
+
+    /**
+     * Hashes of the shingles of normalized text in text order, repeats included; text shorter than a
+     * shingle is one shingle. Enough for {@link #bandKeys}, which does not need them sorted.
+     */
+    static int[] shingleHashes(String normalized) {
+        int length = normalized.length();
+        int count = Math.max(1, length - SHINGLE_LENGTH + 1);
+        int[] hashes = new int[count];
+        int h = 0;
+        int dropFactor = 1;
+        for (int j = 0; j < Math.min(length, SHINGLE_LENGTH); j++) {
+            h = h * 31 + normalized.charAt(j);
+            dropFactor *= 31;
+        }
+        hashes[0] = mix(h);
+        // Rolling hash: add the next character, drop the first one of the previous shingle
+        for (int i = 1; i < count; i++) {
+            h = h * 31 + normalized.charAt(i + SHINGLE_LENGTH - 1) - dropFactor * normalized.charAt(i - 1);
+            hashes[i] = mix(h);
+        }
+        return hashes;
+    }
+
+    /**
+     * The {@value #BANDS} LSH band keys of a question's shingle hashes, each non-negative
+     */
+    static int[] bandKeys(int[] shingleHashes) {
+        int[] minimums = new int[HASHES];
+        for (int i = 0; i < HASHES; i++) {
+            int offset = OFFSETS[i];
+            int multiplier = MULTIPLIERS[i];
+            // The shingle hashes are already mixed, so xor and an odd multiplier make a good permutation;
+            // flipping the sign bit keeps the unsigned order in signed ints. This min-reduction vectorizes.
+            int minimum = Integer.MAX_VALUE;
+            for (int shingle : shingleHashes) {
+                minimum = Math.min(minimum, ((shingle ^ offset) * multiplier) ^ Integer.MIN_VALUE);
+            }
+            minimums[i] = minimum;
+        }
+        int[] keys = new int[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            int h = band;
+            for (int row = 0; row < ROWS; row++) {
+                h = h * 0x01000193 ^ minimums[band * ROWS + row];
+            }
+            keys[band] = mix(h) & Integer.MAX_VALUE;
+        }
+        return keys;
+    }
+
+    static int[] bandKeys(Question question) {
+        return bandKeys(shingleHashes(normalize(question)));
+    }
+
+    /**
+     * Exact Jaccard similarity of two sorted shingle sets, 0 to 1
+     */
+    static double similarity(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 1 : (double) common / union;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+}
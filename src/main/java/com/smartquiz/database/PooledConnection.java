@@ -0,0 +1,66 @@
+package com.smartquiz.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * A connection owned by the {@link ConnectionPool}.
+ * Callers borrow it through {@link ConnectionPool#read} or {@link ConnectionPool#write}
+ * and must not close it themselves. Statements obtained through {@link #prepare} are cached
+ * for the lifetime of the connection.
+ */
+public class PooledConnection {
+    private final Connection connection;
+    private final boolean readOnly;
+    private final String name;
+    private final StatementCache statementCache;
+
+    PooledConnection(Connection connection, boolean readOnly, String name, int statementCacheSize,
+                     SlowQueryLog slowQueries) {
+        this.connection = connection;
+        this.readOnly = readOnly;
+        this.name = name;
+        this.statementCache = new StatementCache(connection, statementCacheSize, slowQueries);
+    }
+
+    /**
+     * Cached equivalent of {@code getConnection().prepareStatement(sql)}.
+     * The returned statement must not be closed by the caller.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return statementCache.prepare(sql);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    void close() {
+        statementCache.clear();
+        try {
+            if (!connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing connection " + name + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PooledConnection{" + name + (readOnly ? ", read-only" : ", writer") + '}';
+    }
+}
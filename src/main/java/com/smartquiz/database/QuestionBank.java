@@ -0,0 +1,217 @@
+package com.smartquiz.database;
+
+import com.smartquiz.database.QuestionSampler.IdSet;
+import com.smartquiz.models.Question;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident copy of the questions table, indexed by id and by (category, difficulty).
+ * Each question is registered once, in the bucket of its exact (category, difficulty). A filter on
+ * only one of them (or neither) samples the union of the buckets it covers through
+ * {@link QuestionSampler#sample(IdSet[], int)}; there are only a few dozen buckets, so sampling stays
+ * O(count) and never scans the bank. Buckets hold primitive ids only; {@link QuestionSampler} picks
+ * ids and just the chosen questions are looked up.
+ *
+ * A bank can also sit on a {@link QuestionSnapshot}: then only the buckets are built up front and
+ * questions are decoded from the mapped file when picked. Changes made after loading are kept in
+ * memory on top of the snapshot.
+ *
+ * Questions handed out are shared instances and must be treated as read-only.
+ */
+public class QuestionBank {
+    // Marks a snapshot question that has since been deleted
+    private static final Question REMOVED = new Question();
+
+    private final IntObjectMap<Question> byId;
+    private final QuestionSnapshot snapshot;
+    // category -> difficulty -> ids
+    private final Map<String, Map<String, IdSet>> buckets = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    public QuestionBank(Collection<Question> questions) {
+        byId = new IntObjectMap<>(questions.size());
+        snapshot = null;
+        for (Question question : questions) {
+            addInternal(question);
+        }
+    }
+
+    /**
+     * A bank over a mapped snapshot; nothing but ids, categories and difficulties is read yet
+     */
+    public QuestionBank(QuestionSnapshot snapshot) {
+        byId = new IntObjectMap<>(16);
+        this.snapshot = snapshot;
+        // Count by dictionary code pair first so every bucket is allocated at its final size
+        int codes = snapshot.dictionarySize();
+        int[] counts = new int[codes * codes];
+        for (int i = 0; i < snapshot.size(); i++) {
+            counts[snapshot.categoryCode(i) * codes + snapshot.difficultyCode(i)]++;
+        }
+        IdSet[] sets = new IdSet[counts.length];
+        for (int pair = 0; pair < counts.length; pair++) {
+            if (counts[pair] > 0) {
+                sets[pair] = new IdSet(counts[pair]);
+                buckets.computeIfAbsent(snapshot.dictionaryValue(pair / codes), c -> new HashMap<>())
+                    .put(snapshot.dictionaryValue(pair % codes), sets[pair]);
+            }
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            sets[snapshot.categoryCode(i) * codes + snapshot.difficultyCode(i)].add(snapshot.getId(i));
+        }
+        size = snapshot.size();
+    }
+
+    /**
+     * The snapshot this bank was loaded from, or null if it was loaded from rows
+     */
+    public QuestionSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void add(Question question) {
+        lock.writeLock().lock();
+        try {
+            Question previous = lookup(question.getId());
+            if (previous != null) {
+                removeInternal(previous);
+            }
+            addInternal(question);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int questionId) {
+        lock.writeLock().lock();
+        try {
+            Question question = lookup(questionId);
+            if (question != null) {
+                removeInternal(question);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Question getById(int questionId) {
+        lock.readLock().lock();
+        try {
+            return lookup(questionId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pick up to {@code count} distinct random questions matching the filter in O(count).
+     * A null or empty category/difficulty matches everything.
+     */
+    public List<Question> getRandom(int count, String category, String difficulty) {
+        lock.readLock().lock();
+        try {
+            IdSet[] matching = bucketsFor(normalize(category), normalize(difficulty));
+            if (matching.length == 0 || count <= 0) {
+                return new ArrayList<>();
+            }
+            int[] ids = QuestionSampler.sample(matching, count);
+            List<Question> picked = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                picked.add(lookup(id));
+            }
+            return picked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IdSet[] bucketsFor(String category, String difficulty) {
+        List<IdSet> matching = new ArrayList<>();
+        if (category != null) {
+            Map<String, IdSet> byDifficulty = buckets.get(category);
+            if (byDifficulty != null) {
+                collect(byDifficulty, difficulty, matching);
+            }
+        } else {
+            for (Map<String, IdSet> byDifficulty : buckets.values()) {
+                collect(byDifficulty, difficulty, matching);
+            }
+        }
+        return matching.toArray(new IdSet[0]);
+    }
+
+    private static void collect(Map<String, IdSet> byDifficulty, String difficulty, List<IdSet> into) {
+        if (difficulty == null) {
+            into.addAll(byDifficulty.values());
+        } else {
+            IdSet bucket = byDifficulty.get(difficulty);
+            if (bucket != null) {
+                into.add(bucket);
+            }
+        }
+    }
+
+    private Question lookup(int questionId) {
+        Question question = byId.get(questionId);
+        if (question == null && snapshot != null) {
+            int index = snapshot.indexOf(questionId);
+            return index >= 0 ? snapshot.getQuestion(index) : null;
+        }
+        return question == REMOVED ? null : question;
+    }
+
+    private IdSet bucket(String category, String difficulty) {
+        return buckets.computeIfAbsent(category, c -> new HashMap<>())
+            .computeIfAbsent(difficulty, d -> new IdSet());
+    }
+
+    private void addInternal(Question question) {
+        byId.put(question.getId(), question);
+        bucket(question.getCategory(), question.getDifficulty()).add(question.getId());
+        size++;
+    }
+
+    private void removeInternal(Question question) {
+        if (snapshot != null) {
+            byId.put(question.getId(), REMOVED);
+        } else {
+            byId.remove(question.getId());
+        }
+        size--;
+        Map<String, IdSet> byDifficulty = buckets.get(question.getCategory());
+        if (byDifficulty == null) {
+            return;
+        }
+        IdSet bucket = byDifficulty.get(question.getDifficulty());
+        if (bucket != null) {
+            bucket.remove(question.getId());
+            if (bucket.isEmpty()) {
+                byDifficulty.remove(question.getDifficulty());
+                if (byDifficulty.isEmpty()) {
+                    buckets.remove(question.getCategory());
+                }
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
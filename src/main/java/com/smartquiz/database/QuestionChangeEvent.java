@@ -0,0 +1,49 @@
+package com.smartquiz.database;
+
+import com.smartquiz.models.Question;
+
+import java.util.List;
+
+/**
+ * A committed change to one or more questions. The questions are snapshots shared with the question
+ * bank and other listeners and must be treated as read-only.
+ */
+public final class QuestionChangeEvent {
+
+    public enum Type {
+        INSERTED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final List<Question> questions;
+    private final List<Question> previous;
+
+    QuestionChangeEvent(Type type, List<Question> questions, List<Question> previous) {
+        this.type = type;
+        this.questions = List.copyOf(questions);
+        this.previous = List.copyOf(previous);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * The questions as they are now; for DELETED, as they were when deleted
+     */
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    /**
+     * For UPDATED, the questions before the change, in the same order; empty otherwise
+     */
+    public List<Question> getPrevious() {
+        return previous;
+    }
+
+    @Override
+    public String toString() {
+        return "QuestionChangeEvent{" + type + ", " + questions.size() + " questions}";
+    }
+}
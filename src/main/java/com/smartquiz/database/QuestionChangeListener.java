@@ -0,0 +1,11 @@
+package com.smartquiz.database;
+
+/**
+ * Notified after questions were inserted, updated or deleted through {@link DatabaseManager}.
+ * Called on the thread that made the change, after it committed; implementations must be quick and
+ * thread-safe (UI listeners hand the event to the EDT).
+ */
+@FunctionalInterface
+public interface QuestionChangeListener {
+    void questionsChanged(QuestionChangeEvent event);
+}
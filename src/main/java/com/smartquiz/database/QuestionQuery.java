@@ -0,0 +1,190 @@
+package com.smartquiz.database;
+
+import com.smartquiz.models.Question;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filter and sort order for browsing the questions table page by page.
+ * Pages are read with keyset pagination: each page continues after the sort key of the last row of
+ * the page before it ({@link Key}), so reading the next page costs the same wherever it is in the table.
+ * Every order ends in {@code id}, which makes the key unique.
+ */
+public final class QuestionQuery {
+
+    /**
+     * Sortable columns. The SQL expressions are matched by indexes added in schema migration 6.
+     */
+    public enum Sort {
+        CATEGORY("category"),
+        ID("id"),
+        DIFFICULTY("CASE difficulty WHEN 'easy' THEN 0 WHEN 'medium' THEN 1 WHEN 'hard' THEN 2 ELSE 3 END");
+
+        private final String expression;
+
+        Sort(String expression) {
+            this.expression = expression;
+        }
+
+        String getExpression() {
+            return expression;
+        }
+
+        /**
+         * The value the SQL expression gives for a question
+         */
+        Object valueOf(Question question) {
+            switch (this) {
+                case CATEGORY:
+                    return question.getCategory();
+                case ID:
+                    return question.getId();
+                default:
+                    int rank = Question.DIFFICULTIES.indexOf(question.getDifficulty());
+                    return rank >= 0 ? rank : Question.DIFFICULTIES.size();
+            }
+        }
+    }
+
+    /**
+     * Position of a row in the sort order: the sort column value and the id
+     */
+    public static final class Key {
+        private final Object value;
+        private final int id;
+
+        Key(Object value, int id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        Object getValue() {
+            return value;
+        }
+
+        int getId() {
+            return id;
+        }
+    }
+
+    /**
+     * One page of rows and the key to continue after
+     */
+    public static final class Page {
+        private final List<Question> questions;
+        private final Key lastKey;
+
+        Page(List<Question> questions, Key lastKey) {
+            this.questions = questions;
+            this.lastKey = lastKey;
+        }
+
+        public List<Question> getQuestions() {
+            return questions;
+        }
+
+        /** Key of the last row, or null if the page is empty */
+        public Key getLastKey() {
+            return lastKey;
+        }
+    }
+
+    private final String category;
+    private final String difficulty;
+    private final String text;
+    private final Sort sort;
+    private final boolean descending;
+
+    /**
+     * @param category exact category, or null/empty for all
+     * @param difficulty exact difficulty, or null/empty for all
+     * @param text case-insensitive substring of the question text, or null/empty for any; three or more
+     *             characters are looked up in the trigram index
+     */
+    public QuestionQuery(String category, String difficulty, String text, Sort sort, boolean descending) {
+        this.category = emptyToNull(category);
+        this.difficulty = emptyToNull(difficulty);
+        this.text = emptyToNull(text);
+        this.sort = sort;
+        this.descending = descending;
+    }
+
+    /**
+     * Every question, by category
+     */
+    public static QuestionQuery all() {
+        return new QuestionQuery(null, null, null, Sort.CATEGORY, false);
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Whether the filter selects a question, as the SQL filter would
+     */
+    public boolean matches(Question question) {
+        return (category == null || category.equals(question.getCategory()))
+            && (difficulty == null || difficulty.equals(question.getDifficulty()))
+            && (text == null || containsIgnoreCase(question.getQuestionText(), text));
+    }
+
+    /**
+     * Where a question sits in this query's order
+     */
+    public Key keyOf(Question question) {
+        return new Key(sort.valueOf(question), question.getId());
+    }
+
+    /**
+     * Compare two keys in this query's order (descending queries reverse it)
+     */
+    public int compare(Key a, Key b) {
+        int result = compareValues(a.getValue(), b.getValue());
+        if (result == 0) {
+            result = Integer.compare(a.getId(), b.getId());
+        }
+        return descending ? -result : result;
+    }
+
+    private static int compareValues(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return Long.compare(((Number) a).longValue(), ((Number) b).longValue());
+        }
+        // SQLite compares TEXT with BINARY collation; String order matches it outside surrogate pairs
+        return String.valueOf(a).compareTo(String.valueOf(b));
+    }
+
+    private static boolean containsIgnoreCase(String haystack, String needle) {
+        return haystack != null && haystack.toLowerCase(Locale.ROOT).contains(needle.toLowerCase(Locale.ROOT));
+    }
+
+    public QuestionQuery withFilter(String category, String difficulty, String text) {
+        return new QuestionQuery(category, difficulty, text, sort, descending);
+    }
+
+    public QuestionQuery withSort(Sort sort, boolean descending) {
+        return new QuestionQuery(category, difficulty, text, sort, descending);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
@@ -0,0 +1,171 @@
+package com.smartquiz.database;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws k distinct question ids from a primitive id array without copying or shuffling it.
+ *
+ * Uses a partial Fisher-Yates shuffle whose swaps are recorded in a small sparse map instead of
+ * the array itself, so a draw costs O(k) time and memory regardless of the bank size, leaves the
+ * source untouched (safe under a shared read lock) and yields the picks already in random order.
+ * Each thread draws from its own {@link SplittableRandom} split off a common root.
+ */
+public final class QuestionSampler {
+    private static final SplittableRandom ROOT = new SplittableRandom();
+    private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(QuestionSampler::split);
+    private static final ThreadLocal<IntIntMap> SWAPS = ThreadLocal.withInitial(() -> new IntIntMap(64));
+    private static final int MAX_RETAINED_SCRATCH = 1 << 12;
+
+    private QuestionSampler() {}
+
+    private static SplittableRandom split() {
+        synchronized (ROOT) {
+            return ROOT.split();
+        }
+    }
+
+    /**
+     * Sample up to {@code k} distinct entries from {@code ids[0..size)} in random order
+     */
+    public static int[] sample(int[] ids, int size, int k) {
+        int count = Math.max(0, Math.min(k, size));
+        int[] picked = new int[count];
+        if (count == 0) {
+            return picked;
+        }
+
+        SplittableRandom random = RANDOM.get();
+        IntIntMap swaps = SWAPS.get();
+        try {
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(size - i);
+                int atJ = swaps.get(j, j);
+                int atI = swaps.get(i, i);
+                // Position i is never visited again, so only j needs to remember the swap
+                swaps.put(j, atI);
+                picked[i] = ids[atJ];
+            }
+        } finally {
+            swaps.clear(MAX_RETAINED_SCRATCH);
+        }
+        return picked;
+    }
+
+    public static int[] sample(int[] ids, int k) {
+        return sample(ids, ids.length, k);
+    }
+
+    /**
+     * Sample up to {@code k} distinct ids from the union of disjoint sets, as if they were one array.
+     * Every id is equally likely whichever set holds it, so callers can index by the finest key only
+     * and sample a coarser filter from the sets it covers.
+     */
+    public static int[] sample(IdSet[] sets, int k) {
+        if (sets.length == 1) {
+            return sets[0].sample(k);
+        }
+        // starts[p] is the position of sets[p]'s first id in the virtual concatenation
+        int[] starts = new int[sets.length];
+        int total = 0;
+        for (int p = 0; p < sets.length; p++) {
+            starts[p] = total;
+            total += sets[p].size;
+        }
+        int count = Math.max(0, Math.min(k, total));
+        int[] picked = new int[count];
+        if (count == 0) {
+            return picked;
+        }
+
+        SplittableRandom random = RANDOM.get();
+        IntIntMap swaps = SWAPS.get();
+        try {
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(total - i);
+                int atJ = swaps.get(j, j);
+                int atI = swaps.get(i, i);
+                swaps.put(j, atI);
+                int part = Arrays.binarySearch(starts, atJ);
+                if (part < 0) {
+                    part = -part - 2;
+                }
+                // Empty sets share a start with the next one; step to the set that holds the position
+                while (atJ - starts[part] >= sets[part].size) {
+                    part++;
+                }
+                picked[i] = sets[part].ids[atJ - starts[part]];
+            }
+        } finally {
+            swaps.clear(MAX_RETAINED_SCRATCH);
+        }
+        return picked;
+    }
+
+    /**
+     * Growable set of ids backed by a dense int[], with O(1) add, swap-remove and sampling
+     */
+    public static final class IdSet {
+        private int[] ids;
+        private int size;
+        private final IntIntMap positions;
+
+        public IdSet() {
+            this(16);
+        }
+
+        public IdSet(int expectedSize) {
+            ids = new int[Math.max(4, expectedSize)];
+            positions = new IntIntMap(Math.max(4, expectedSize));
+        }
+
+        public boolean add(int id) {
+            if (positions.get(id, -1) >= 0) {
+                return false;
+            }
+            if (size == ids.length) {
+                int[] grown = new int[size + (size >> 1) + 1];
+                System.arraycopy(ids, 0, grown, 0, size);
+                ids = grown;
+            }
+            positions.put(id, size);
+            ids[size++] = id;
+            return true;
+        }
+
+        public boolean remove(int id) {
+            int position = positions.remove(id, -1);
+            if (position < 0) {
+                return false;
+            }
+            int last = ids[--size];
+            if (position < size) {
+                ids[position] = last;
+                positions.put(last, position);
+            }
+            return true;
+        }
+
+        public boolean contains(int id) {
+            return positions.get(id, -1) >= 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int[] sample(int k) {
+            return QuestionSampler.sample(ids, size, k);
+        }
+
+        public int[] toArray() {
+            int[] copy = new int[size];
+            System.arraycopy(ids, 0, copy, 0, size);
+            return copy;
+        }
+    }
+}
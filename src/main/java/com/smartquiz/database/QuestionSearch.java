@@ -0,0 +1,128 @@
+package com.smartquiz.database;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns search box text into FTS5 query expressions for the question_fts (words) and
+ * question_trigram (three-character sequences) indexes of schema migration 11, and scores near matches.
+ * Every term is quoted, so nothing the user types is read as FTS5 syntax.
+ */
+final class QuestionSearch {
+    // The trigram tokenizer cannot match anything shorter
+    static final int MIN_SUBSTRING_LENGTH = 3;
+
+    private QuestionSearch() {}
+
+    /**
+     * Lower-cased runs of letters and digits
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        text.toLowerCase(Locale.ROOT).codePoints().forEach(c -> {
+            if (Character.isLetterOrDigit(c)) {
+                word.appendCodePoint(c);
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        });
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    /**
+     * Every word must occur; the last one is a prefix unless the text ends in a separator, since it
+     * may still be being typed
+     * @return the expression, or null if the text has no words
+     */
+    static String wordQuery(String text) {
+        List<String> words = words(text);
+        if (words.isEmpty()) {
+            return null;
+        }
+        boolean lastComplete = !Character.isLetterOrDigit(text.codePointBefore(text.length()));
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            if (i > 0) {
+                query.append(' ');
+            }
+            query.append(quote(words.get(i)));
+            if (i == words.size() - 1 && !lastComplete) {
+                query.append('*');
+            }
+        }
+        return query.toString();
+    }
+
+    /**
+     * The text as one case-insensitive substring, for the trigram index
+     * @return the expression, or null if the text is too short for the index
+     */
+    static String substringQuery(String text) {
+        if (text.codePointCount(0, text.length()) < MIN_SUBSTRING_LENGTH) {
+            return null;
+        }
+        return quote(text);
+    }
+
+    /**
+     * Distinct three-letter sequences of each word of the text (not across words)
+     */
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : words(text)) {
+            addTrigrams(word, trigrams);
+        }
+        return trigrams;
+    }
+
+    /**
+     * Any of the given sequences, for the trigram index
+     */
+    static String anyOf(List<String> trigrams) {
+        StringBuilder query = new StringBuilder();
+        for (String trigram : trigrams) {
+            if (query.length() > 0) {
+                query.append(" OR ");
+            }
+            query.append(quote(trigram));
+        }
+        return query.toString();
+    }
+
+    /**
+     * Share of the search's sequences that occur in the text, 0 to 1
+     */
+    static double similarity(Set<String> searchTrigrams, String text) {
+        if (searchTrigrams.isEmpty() || text == null) {
+            return 0;
+        }
+        Set<String> textTrigrams = new LinkedHashSet<>();
+        addTrigrams(text.toLowerCase(Locale.ROOT), textTrigrams);
+        int found = 0;
+        for (String trigram : searchTrigrams) {
+            if (textTrigrams.contains(trigram)) {
+                found++;
+            }
+        }
+        return (double) found / searchTrigrams.size();
+    }
+
+    private static void addTrigrams(String text, Set<String> into) {
+        int[] codePoints = text.codePoints().toArray();
+        for (int i = 0; i + MIN_SUBSTRING_LENGTH <= codePoints.length; i++) {
+            into.add(new String(codePoints, i, MIN_SUBSTRING_LENGTH));
+        }
+    }
+
+    private static String quote(String term) {
+        return '"' + term.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,347 @@
+package com.smartquiz.database;
+
+import com.smartquiz.models.Question;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only, memory-mapped binary copy of the questions table.
+ * <p>
+ * Layout (little-endian):
+ * <pre>
+ *   header      64 bytes: magic, format, bank version, question count, dictionary size,
+ *               heap offset, heap length, CRC32C of everything after the header
+ *   dictionary  (offset, length) of each distinct category/difficulty string
+ *   records     64 bytes per question, sorted by id: id, correct answer, created_at (epoch seconds),
+ *               category and difficulty dictionary indexes, then (offset, length) of the question
+ *               text and the four options in the string heap
+ *   heap        UTF-8 string bytes
+ * </pre>
+ * Opening a snapshot maps the file and checks the header and checksum; questions are decoded only
+ * when asked for, so a bank of any size is usable right away. The bank version is the
+ * {@code bank_version} counter the file was written at (see schema migration 7); a snapshot whose
+ * version differs from the database is stale.
+ */
+public final class QuestionSnapshot {
+    private static final int MAGIC = 0x504E5351; // "QSNP"
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 64;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final long bankVersion;
+    private final int size;
+    private final int recordsOffset;
+    private final long heapOffset;
+    private final String[] dictionary;
+
+    private QuestionSnapshot(Path file, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a question snapshot");
+        }
+        if (buffer.getInt(4) != FORMAT) {
+            throw new IOException(file + " has snapshot format " + buffer.getInt(4) + ", expected " + FORMAT);
+        }
+        bankVersion = buffer.getLong(8);
+        size = buffer.getInt(16);
+        int dictionarySize = buffer.getInt(20);
+        heapOffset = buffer.getLong(24);
+        long heapLength = buffer.getLong(32);
+        long checksum = buffer.getLong(40);
+        recordsOffset = HEADER_SIZE + dictionarySize * 8;
+        if (size < 0 || dictionarySize < 0 || heapOffset != recordsOffset + (long) size * RECORD_SIZE
+                || heapOffset + heapLength != buffer.capacity()) {
+            throw new IOException(file + " is truncated or corrupt");
+        }
+        if (checksum(buffer) != checksum) {
+            throw new IOException(file + " failed its checksum");
+        }
+        dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionary[i] = string(HEADER_SIZE + i * 8);
+        }
+    }
+
+    /**
+     * Map a snapshot file and verify it
+     * @throws IOException if the file is missing, from another format version or damaged
+     */
+    public static QuestionSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new QuestionSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write questions to a snapshot file. The file is written next to the target and moved into
+     * place, so readers never see a partial snapshot.
+     */
+    public static void write(Path file, long bankVersion, Collection<Question> questions) throws IOException {
+        List<Question> sorted = new ArrayList<>(questions);
+        sorted.sort(Comparator.comparingInt(Question::getId));
+
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (Question question : sorted) {
+            code(question.getCategory(), codes, dictionary);
+            code(question.getDifficulty(), codes, dictionary);
+        }
+
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+                long recordsOffset = HEADER_SIZE + dictionary.size() * 8L;
+                long heapOffset = recordsOffset + (long) sorted.size() * RECORD_SIZE;
+                Region header = new Region(channel, 0);
+                Region records = new Region(channel, recordsOffset);
+                Region heap = new Region(channel, heapOffset);
+
+                header.skip(HEADER_SIZE);
+                for (String value : dictionary) {
+                    header.putString(value, heap);
+                }
+                for (Question question : sorted) {
+                    records.out.putInt(question.getId());
+                    records.out.putInt(question.getCorrectAnswer());
+                    records.out.putLong(question.getCreatedAtEpochSecond());
+                    records.out.putInt(code(question.getCategory(), codes, dictionary));
+                    records.out.putInt(code(question.getDifficulty(), codes, dictionary));
+                    records.putString(question.getQuestionText(), heap);
+                    for (int i = 0; i < 4; i++) {
+                        records.putString(question.getOption(i), heap);
+                    }
+                    records.flushIfFull();
+                }
+                header.flush();
+                records.flush();
+                heap.flush();
+                long heapLength = heap.length();
+
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, heapOffset + heapLength);
+                mapped.order(ByteOrder.LITTLE_ENDIAN);
+                mapped.putInt(0, MAGIC);
+                mapped.putInt(4, FORMAT);
+                mapped.putLong(8, bankVersion);
+                mapped.putInt(16, sorted.size());
+                mapped.putInt(20, dictionary.size());
+                mapped.putLong(24, heapOffset);
+                mapped.putLong(32, heapLength);
+                mapped.putLong(40, checksum(mapped));
+                mapped.force();
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int code(String value, Map<String, Integer> codes, List<String> dictionary) {
+        String key = value == null ? "" : value;
+        Integer code = codes.get(key);
+        if (code == null) {
+            code = dictionary.size();
+            codes.put(key, code);
+            dictionary.add(key);
+        }
+        return code;
+    }
+
+    private static long checksum(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(HEADER_SIZE));
+        return crc.getValue();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getBankVersion() {
+        return bankVersion;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Id of the question at {@code index} (ids ascend with the index)
+     */
+    public int getId(int index) {
+        return buffer.getInt(record(index));
+    }
+
+    public String getCategory(int index) {
+        return dictionary[categoryCode(index)];
+    }
+
+    public String getDifficulty(int index) {
+        return dictionary[difficultyCode(index)];
+    }
+
+    /**
+     * Number of distinct category and difficulty strings; codes run from 0 to this size
+     */
+    int dictionarySize() {
+        return dictionary.length;
+    }
+
+    String dictionaryValue(int code) {
+        return dictionary[code];
+    }
+
+    int categoryCode(int index) {
+        return buffer.getInt(record(index) + 16);
+    }
+
+    int difficultyCode(int index) {
+        return buffer.getInt(record(index) + 20);
+    }
+
+    /**
+     * Index of a question id, or -1 if the snapshot does not hold it
+     */
+    public int indexOf(int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = getId(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decode the question at {@code index} into a new instance
+     */
+    public Question getQuestion(int index) {
+        int record = record(index);
+        int strings = record + 24;
+        Question question = new Question(getCategory(index), string(strings),
+            string(strings + 8), string(strings + 16), string(strings + 24), string(strings + 32),
+            buffer.getInt(record + 4), getDifficulty(index));
+        question.setId(buffer.getInt(record));
+        question.setCreatedAtEpochSecond(buffer.getLong(record + 8));
+        return question;
+    }
+
+    private int record(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Snapshot index " + index + " out of range 0-" + (size - 1));
+        }
+        return recordsOffset + index * RECORD_SIZE;
+    }
+
+    /**
+     * Decode the string whose (heap offset, length) pair is stored at {@code at}
+     */
+    private String string(int at) {
+        int offset = buffer.getInt(at);
+        int length = buffer.getInt(at + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(Math.toIntExact(heapOffset + offset), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sequential writer for one section of the file, buffering positional writes
+     */
+    private static final class Region {
+        private final FileChannel channel;
+        private final ByteBuffer out = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private final long start;
+        private long position;
+
+        Region(FileChannel channel, long start) {
+            this.channel = channel;
+            this.start = start;
+            this.position = start;
+        }
+
+        /**
+         * Bytes appended so far, buffered or not
+         */
+        long length() {
+            return position + out.position() - start;
+        }
+
+        void skip(int bytes) {
+            position += bytes;
+        }
+
+        /**
+         * Append a string to {@code heap} and its (offset, length) pair to this region
+         */
+        void putString(String value, Region heap) throws IOException {
+            flushIfFull();
+            if (value == null) {
+                out.putInt(0).putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            long offset = heap.length();
+            if (offset + bytes.length > Integer.MAX_VALUE) {
+                throw new IOException("Question text exceeds the 2 GB snapshot string heap");
+            }
+            out.putInt((int) offset).putInt(bytes.length);
+            heap.put(bytes);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            if (bytes.length > out.remaining()) {
+                flush();
+            }
+            if (bytes.length > out.remaining()) {
+                position += channel.write(ByteBuffer.wrap(bytes), position);
+            } else {
+                out.put(bytes);
+            }
+        }
+
+        void flushIfFull() throws IOException {
+            if (out.remaining() < RECORD_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                position += channel.write(out, position);
+            }
+            out.clear();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.smartquiz.database;
+
+import com.smartquiz.database.QuestionSampler.IdSet;
+import com.smartquiz.models.Rating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Question difficulty ratings, indexed by category and by rating band for adaptive quizzes.
+ * Ratings are kept in parallel primitive arrays (slot per question) and every question sits in the
+ * {@link IdSet} of its category and {@value #BAND_WIDTH}-point band. {@link #pick} starts at the band
+ * of the target rating and widens one band at a time on both sides until it finds a question the
+ * session has not seen, so a pick touches a handful of bands and never scans the bank.
+ * An adjustment only moves a question between sets when it crosses a band boundary.
+ */
+public class RatingIndex {
+    public static final int BAND_WIDTH = 25;
+    private static final double MIN_RATING = 0;
+    private static final double MAX_RATING = 3000;
+    private static final int BANDS = (int) ((MAX_RATING - MIN_RATING) / BAND_WIDTH);
+
+    private final IntIntMap slots;
+    private int[] ids;
+    private float[] ratings;
+    private int[] answers;
+    private String[] categories;
+    private int size;
+    // category -> band -> ids (bands are allocated when first used)
+    private final Map<String, IdSet[]> bands = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RatingIndex(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        slots = new IntIntMap(capacity);
+        ids = new int[capacity];
+        ratings = new float[capacity];
+        answers = new int[capacity];
+        categories = new String[capacity];
+    }
+
+    /**
+     * Add a question or replace its category and rating
+     */
+    public void put(int questionId, String category, double rating, int answerCount) {
+        lock.writeLock().lock();
+        try {
+            int slot = slots.get(questionId, -1);
+            if (slot >= 0) {
+                band(categories[slot], ratings[slot]).remove(questionId);
+            } else {
+                slot = size++;
+                if (slot == ids.length) {
+                    grow();
+                }
+                slots.put(questionId, slot);
+                ids[slot] = questionId;
+            }
+            ratings[slot] = (float) clamp(rating);
+            answers[slot] = answerCount;
+            categories[slot] = category;
+            band(category, ratings[slot]).add(questionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int questionId) {
+        lock.writeLock().lock();
+        try {
+            int slot = slots.remove(questionId, -1);
+            if (slot < 0) {
+                return;
+            }
+            band(categories[slot], ratings[slot]).remove(questionId);
+            // Fill the hole with the last slot
+            int last = --size;
+            if (slot < last) {
+                ids[slot] = ids[last];
+                ratings[slot] = ratings[last];
+                answers[slot] = answers[last];
+                categories[slot] = categories[last];
+                slots.put(ids[slot], slot);
+            }
+            categories[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The current rating of a question, or null if it is not indexed
+     */
+    public Rating getRating(int questionId) {
+        lock.readLock().lock();
+        try {
+            int slot = slots.get(questionId, -1);
+            return slot < 0 ? null : rating(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Move a question's rating by {@code delta} and count one more answer
+     * @return the new rating, or null if the question is not indexed (e.g. deleted meanwhile)
+     */
+    public Rating adjust(int questionId, double delta) {
+        lock.writeLock().lock();
+        try {
+            int slot = slots.get(questionId, -1);
+            if (slot < 0) {
+                return null;
+            }
+            float updated = (float) clamp(ratings[slot] + delta);
+            if (bandOf(updated) != bandOf(ratings[slot])) {
+                band(categories[slot], ratings[slot]).remove(questionId);
+                band(categories[slot], updated).add(questionId);
+            }
+            ratings[slot] = updated;
+            answers[slot]++;
+            return rating(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Pick a random question rated as close to {@code target} as possible that is not in {@code exclude}.
+     * A null or empty category matches every category.
+     * @return the question id, or -1 if every matching question is excluded
+     */
+    public int pick(double target, String category, IdSet exclude) {
+        lock.readLock().lock();
+        try {
+            List<IdSet[]> matching = new ArrayList<>();
+            if (category == null || category.isEmpty()) {
+                matching.addAll(bands.values());
+            } else if (bands.containsKey(category)) {
+                matching.add(bands.get(category));
+            }
+            int center = bandOf(clamp(target));
+            List<IdSet> candidates = new ArrayList<>();
+            for (int distance = 0; distance < BANDS; distance++) {
+                candidates.clear();
+                collect(matching, center - distance, candidates);
+                if (distance > 0) {
+                    collect(matching, center + distance, candidates);
+                }
+                if (candidates.isEmpty()) {
+                    continue;
+                }
+                // One more than the excluded ids guarantees a fresh id whenever the bands have one
+                int[] sample = QuestionSampler.sample(candidates.toArray(new IdSet[0]), exclude.size() + 1);
+                for (int id : sample) {
+                    if (!exclude.contains(id)) {
+                        return id;
+                    }
+                }
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(List<IdSet[]> matching, int band, List<IdSet> into) {
+        if (band < 0 || band >= BANDS) {
+            return;
+        }
+        for (IdSet[] byBand : matching) {
+            if (byBand[band] != null && !byBand[band].isEmpty()) {
+                into.add(byBand[band]);
+            }
+        }
+    }
+
+    private Rating rating(int slot) {
+        return new Rating(Rating.Subject.QUESTION, ids[slot], ratings[slot], answers[slot]);
+    }
+
+    private IdSet band(String category, double rating) {
+        IdSet[] byBand = bands.computeIfAbsent(category, c -> new IdSet[BANDS]);
+        int band = bandOf(rating);
+        if (byBand[band] == null) {
+            byBand[band] = new IdSet();
+        }
+        return byBand[band];
+    }
+
+    private static int bandOf(double rating) {
+        return Math.min(BANDS - 1, (int) ((rating - MIN_RATING) / BAND_WIDTH));
+    }
+
+    private static double clamp(double rating) {
+        return Math.max(MIN_RATING, Math.min(MAX_RATING, rating));
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1) + 1;
+        ids = Arrays.copyOf(ids, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        answers = Arrays.copyOf(answers, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+    }
+}
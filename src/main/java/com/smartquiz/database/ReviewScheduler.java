@@ -0,0 +1,154 @@
+package com.smartquiz.database;
+
+import com.smartquiz.models.ReviewItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * SM-2 spaced-repetition scheduling and the in-memory due queues of recently active users.
+ * Each user's schedule is ordered by due time, so the next due questions come off the front
+ * without looking at the rest, and one question's entry can be replaced in O(log n).
+ * Schedules are loaded from {@code review_schedule} the first time a user needs one and are
+ * dropped least recently used first; the table stays the source of truth (see
+ * {@link DatabaseManager#recordReviews}).
+ */
+class ReviewScheduler {
+    static final int INITIAL_EASE = 250;
+    private static final int MIN_EASE = 130;
+    private static final long DAY_SECONDS = 24 * 60 * 60;
+
+    private final Map<Integer, UserSchedule> schedules;
+
+    ReviewScheduler(int maxCachedUsers) {
+        schedules = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, UserSchedule> eldest) {
+                return size() > maxCachedUsers;
+            }
+        };
+    }
+
+    synchronized UserSchedule get(int userId) {
+        return schedules.get(userId);
+    }
+
+    /**
+     * Register a freshly loaded schedule, unless another thread got there first
+     * @return the registered schedule
+     */
+    synchronized UserSchedule register(int userId, UserSchedule loaded) {
+        UserSchedule existing = schedules.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Drop deleted questions from every loaded schedule (their rows went with them, schema migration 9)
+     */
+    void removeQuestions(Collection<Integer> questionIds) {
+        List<UserSchedule> loaded;
+        synchronized (this) {
+            loaded = new ArrayList<>(schedules.values());
+        }
+        for (UserSchedule schedule : loaded) {
+            synchronized (schedule) {
+                for (int questionId : questionIds) {
+                    schedule.remove(questionId);
+                }
+            }
+        }
+    }
+
+    /**
+     * SM-2 step: a correct answer (quality 4) stretches the interval to 1 day, 6 days, then the previous
+     * interval times the easiness factor; a wrong answer (quality 1) starts over at 1 day.
+     * The easiness factor moves by 0.1 - (5 - q) * (0.08 + (5 - q) * 0.02) and never drops below 1.3.
+     * @param previous the current state, or null for a question the user has not been scheduled on
+     */
+    static ReviewItem next(ReviewItem previous, int questionId, boolean correct, long now) {
+        int quality = correct ? 4 : 1;
+        int ease = previous != null ? previous.getEase() : INITIAL_EASE;
+        int repetitions = previous != null ? previous.getRepetitions() : 0;
+        int interval = previous != null ? previous.getIntervalDays() : 0;
+
+        int miss = 5 - quality;
+        ease = Math.max(MIN_EASE, ease + 10 - miss * (8 + miss * 2));
+        if (!correct) {
+            repetitions = 0;
+            interval = 1;
+        } else {
+            interval = switch (repetitions) {
+                case 0 -> 1;
+                case 1 -> 6;
+                default -> (int) Math.min(36500, Math.round(interval * ease / 100.0));
+            };
+            repetitions++;
+        }
+        return new ReviewItem(questionId, now + interval * DAY_SECONDS, interval, ease, repetitions);
+    }
+
+    /**
+     * One user's review items, by question and by due time; callers synchronize on it
+     */
+    static final class UserSchedule {
+        private static final Comparator<ReviewItem> BY_DUE = Comparator
+            .comparingLong(ReviewItem::getDueAt)
+            .thenComparingInt(ReviewItem::getQuestionId);
+
+        private final TreeSet<ReviewItem> byDue = new TreeSet<>(BY_DUE);
+        private final Map<Integer, ReviewItem> byQuestion = new HashMap<>();
+
+        UserSchedule(Collection<ReviewItem> items) {
+            for (ReviewItem item : items) {
+                put(item);
+            }
+        }
+
+        ReviewItem get(int questionId) {
+            return byQuestion.get(questionId);
+        }
+
+        void put(ReviewItem item) {
+            ReviewItem previous = byQuestion.put(item.getQuestionId(), item);
+            if (previous != null) {
+                byDue.remove(previous);
+            }
+            byDue.add(item);
+        }
+
+        void remove(int questionId) {
+            ReviewItem previous = byQuestion.remove(questionId);
+            if (previous != null) {
+                byDue.remove(previous);
+            }
+        }
+
+        /**
+         * Up to {@code limit} items due at {@code now}, most overdue first
+         */
+        List<ReviewItem> due(long now, int limit) {
+            List<ReviewItem> due = new ArrayList<>(Math.min(limit, 64));
+            for (ReviewItem item : byDue) {
+                if (due.size() == limit || !item.isDue(now)) {
+                    break;
+                }
+                due.add(item);
+            }
+            return due;
+        }
+
+        int countDue(long now) {
+            return byDue.headSet(new ReviewItem(Integer.MAX_VALUE, now, 0, 0, 0), true).size();
+        }
+
+        int size() {
+            return byQuestion.size();
+        }
+    }
+}
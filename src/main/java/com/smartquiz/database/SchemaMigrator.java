@@ -0,0 +1,406 @@
+package com.smartquiz.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Versioned schema migrations.
+ * The applied version is tracked in the {@code schema_version} table; each pending migration runs
+ * in its own transaction together with the row recording it, so a failed step leaves the database
+ * at the previous version. Steps are written to be idempotent ({@code IF NOT EXISTS}) so databases
+ * created before versioning existed upgrade in place.
+ */
+public class SchemaMigrator {
+
+    /**
+     * A single ordered schema change
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+
+        public Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = List.of(statements);
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        void apply(Connection connection) throws SQLException {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : statements) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Create users, questions and quiz_results tables",
+            """
+            CREATE TABLE IF NOT EXISTS users (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                username TEXT UNIQUE NOT NULL,
+                email TEXT UNIQUE NOT NULL,
+                password_hash TEXT NOT NULL,
+                role TEXT NOT NULL DEFAULT 'user',
+                created_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS questions (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                category TEXT NOT NULL,
+                question_text TEXT NOT NULL,
+                option_a TEXT NOT NULL,
+                option_b TEXT NOT NULL,
+                option_c TEXT NOT NULL,
+                option_d TEXT NOT NULL,
+                correct_answer INTEGER NOT NULL,
+                difficulty TEXT NOT NULL DEFAULT 'medium',
+                created_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS quiz_results (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER NOT NULL,
+                category TEXT NOT NULL,
+                score INTEGER NOT NULL,
+                total_questions INTEGER NOT NULL,
+                time_spent INTEGER NOT NULL,
+                difficulty TEXT NOT NULL,
+                completed_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (user_id) REFERENCES users (id)
+            )
+            """),
+
+        new Migration(2, "Indexes for question filters, user history and leaderboards",
+            // WHERE category = ? [AND difficulty = ?] ORDER BY created_at DESC
+            "CREATE INDEX IF NOT EXISTS idx_questions_category_difficulty_created "
+                + "ON questions (category, difficulty, created_at DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_questions_category_created ON questions (category, created_at DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_questions_difficulty_created ON questions (difficulty, created_at DESC)",
+            // WHERE user_id = ? ORDER BY completed_at DESC
+            "CREATE INDEX IF NOT EXISTS idx_quiz_results_user_completed ON quiz_results (user_id, completed_at DESC)",
+            // getTopScores: the expression must match the ORDER BY text for the planner to use it
+            "CREATE INDEX IF NOT EXISTS idx_quiz_results_category_ranking "
+                + "ON quiz_results (category, (CAST(score AS REAL) / total_questions) DESC, time_spent ASC)"),
+
+        new Migration(3, "Collect planner statistics", "ANALYZE"),
+
+        new Migration(4, "Running per-user and per-category result aggregates",
+            """
+            CREATE TABLE IF NOT EXISTS user_stats (
+                user_id INTEGER PRIMARY KEY,
+                quiz_count INTEGER NOT NULL DEFAULT 0,
+                percentage_sum REAL NOT NULL DEFAULT 0,
+                best_result_id INTEGER,
+                best_percentage REAL,
+                FOREIGN KEY (user_id) REFERENCES users (id)
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS user_category_stats (
+                user_id INTEGER NOT NULL,
+                category TEXT NOT NULL,
+                quiz_count INTEGER NOT NULL DEFAULT 0,
+                percentage_sum REAL NOT NULL DEFAULT 0,
+                best_result_id INTEGER,
+                best_percentage REAL,
+                PRIMARY KEY (user_id, category)
+            ) WITHOUT ROWID
+            """,
+            // Backfill from existing history. With a single max() SQLite takes the bare id
+            // column from the row holding the maximum, i.e. the best result.
+            """
+            INSERT OR REPLACE INTO user_stats (user_id, quiz_count, percentage_sum, best_result_id, best_percentage)
+            SELECT user_id, COUNT(*), SUM(pct), id, MAX(pct)
+            FROM (SELECT id, user_id,
+                         CASE WHEN total_questions = 0 THEN 0.0 ELSE score * 100.0 / total_questions END AS pct
+                  FROM quiz_results)
+            GROUP BY user_id
+            """,
+            """
+            INSERT OR REPLACE INTO user_category_stats
+                (user_id, category, quiz_count, percentage_sum, best_result_id, best_percentage)
+            SELECT user_id, category, COUNT(*), SUM(pct), id, MAX(pct)
+            FROM (SELECT id, user_id, category,
+                         CASE WHEN total_questions = 0 THEN 0.0 ELSE score * 100.0 / total_questions END AS pct
+                  FROM quiz_results)
+            GROUP BY user_id, category
+            """),
+
+        new Migration(5, "Bulk import checkpoints",
+            """
+            CREATE TABLE IF NOT EXISTS import_checkpoints (
+                source TEXT PRIMARY KEY,
+                fingerprint TEXT NOT NULL,
+                rows_done INTEGER NOT NULL DEFAULT 0,
+                imported INTEGER NOT NULL DEFAULT 0,
+                rejected INTEGER NOT NULL DEFAULT 0,
+                completed INTEGER NOT NULL DEFAULT 0,
+                updated_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )
+            """),
+
+        new Migration(6, "Keyset pagination indexes for browsing questions",
+            // QuestionQuery orders by (sort column, id); [WHERE category = ?] ORDER BY category, id
+            "CREATE INDEX IF NOT EXISTS idx_questions_category_id ON questions (category, id)",
+            // WHERE difficulty = ? [AND category = ?] ORDER BY category, id
+            "CREATE INDEX IF NOT EXISTS idx_questions_difficulty_category_id ON questions (difficulty, category, id)",
+            // WHERE difficulty = ? ORDER BY id
+            "CREATE INDEX IF NOT EXISTS idx_questions_difficulty_id ON questions (difficulty, id)",
+            // ORDER BY difficulty rank; the expression must match QuestionQuery.Sort.DIFFICULTY
+            "CREATE INDEX IF NOT EXISTS idx_questions_difficulty_rank_id ON questions "
+                + "(CASE difficulty WHEN 'easy' THEN 0 WHEN 'medium' THEN 1 WHEN 'hard' THEN 2 ELSE 3 END, id)",
+            "ANALYZE questions"),
+
+        new Migration(7, "Question bank version counter for snapshots",
+            // Bumped by every change to questions; QuestionSnapshot files record the value they were
+            // written at, so a changed value means the snapshot is stale
+            """
+            CREATE TABLE IF NOT EXISTS bank_version (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                version INTEGER NOT NULL
+            )
+            """,
+            "INSERT OR IGNORE INTO bank_version (id, version) VALUES (1, 1)",
+            """
+            CREATE TRIGGER IF NOT EXISTS questions_version_insert AFTER INSERT ON questions
+            BEGIN UPDATE bank_version SET version = version + 1 WHERE id = 1; END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS questions_version_update AFTER UPDATE ON questions
+            BEGIN UPDATE bank_version SET version = version + 1 WHERE id = 1; END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS questions_version_delete AFTER DELETE ON questions
+            BEGIN UPDATE bank_version SET version = version + 1 WHERE id = 1; END
+            """),
+
+        new Migration(8, "Elo ratings for adaptive quizzes",
+            // Written in batches by the rating write-behind queue; a missing row means the initial rating
+            """
+            CREATE TABLE IF NOT EXISTS user_ratings (
+                user_id INTEGER PRIMARY KEY,
+                rating REAL NOT NULL,
+                answers INTEGER NOT NULL DEFAULT 0,
+                FOREIGN KEY (user_id) REFERENCES users (id)
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS question_ratings (
+                question_id INTEGER PRIMARY KEY,
+                rating REAL NOT NULL,
+                answers INTEGER NOT NULL DEFAULT 0,
+                FOREIGN KEY (question_id) REFERENCES questions (id)
+            )
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS questions_rating_delete AFTER DELETE ON questions
+            BEGIN DELETE FROM question_ratings WHERE question_id = OLD.id; END
+            """),
+
+        new Migration(9, "Spaced-repetition review schedule",
+            // One row per (user, question) answered; due_at is epoch seconds, ease is the SM-2 factor x 100
+            """
+            CREATE TABLE IF NOT EXISTS review_schedule (
+                user_id INTEGER NOT NULL,
+                question_id INTEGER NOT NULL,
+                due_at INTEGER NOT NULL,
+                interval_days INTEGER NOT NULL,
+                ease INTEGER NOT NULL,
+                repetitions INTEGER NOT NULL,
+                PRIMARY KEY (user_id, question_id)
+            ) WITHOUT ROWID
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS questions_review_delete AFTER DELETE ON questions
+            BEGIN DELETE FROM review_schedule WHERE question_id = OLD.id; END
+            """),
+
+        new Migration(10, "Per-answer attempts and item statistics",
+            // answered_at is epoch seconds; chosen_option is -1 for a question left unanswered
+            """
+            CREATE TABLE IF NOT EXISTS question_attempts (
+                id INTEGER PRIMARY KEY,
+                user_id INTEGER NOT NULL,
+                question_id INTEGER NOT NULL,
+                chosen_option INTEGER NOT NULL,
+                correct INTEGER NOT NULL,
+                time_ms INTEGER NOT NULL,
+                answered_at INTEGER NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users (id),
+                FOREIGN KEY (question_id) REFERENCES questions (id)
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_question_attempts_question ON question_attempts (question_id)",
+            // Running totals kept in step with question_attempts by the attempt writer; time_histogram
+            // holds ItemStats.TIME_BUCKETS little-endian int counts
+            """
+            CREATE TABLE IF NOT EXISTS question_stats (
+                question_id INTEGER PRIMARY KEY,
+                attempts INTEGER NOT NULL DEFAULT 0,
+                correct INTEGER NOT NULL DEFAULT 0,
+                chose_a INTEGER NOT NULL DEFAULT 0,
+                chose_b INTEGER NOT NULL DEFAULT 0,
+                chose_c INTEGER NOT NULL DEFAULT 0,
+                chose_d INTEGER NOT NULL DEFAULT 0,
+                unanswered INTEGER NOT NULL DEFAULT 0,
+                median_time_ms INTEGER NOT NULL DEFAULT 0,
+                time_histogram BLOB NOT NULL,
+                FOREIGN KEY (question_id) REFERENCES questions (id)
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_question_stats_attempts ON question_stats (attempts DESC)",
+            """
+            CREATE TRIGGER IF NOT EXISTS questions_stats_delete AFTER DELETE ON questions
+            BEGIN DELETE FROM question_stats WHERE question_id = OLD.id; END
+            """),
+
+        new Migration(11, "Full-text and trigram search indexes",
+            // Word index over the text and options (external content: the rows stay in questions only);
+            // prefix indexes serve the last, still being typed, word of a search
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS question_fts USING fts5(
+                question_text, option_a, option_b, option_c, option_d,
+                content='questions', content_rowid='id',
+                tokenize='unicode61 remove_diacritics 2', prefix='2 3'
+            )
+            """,
+            // The question text counts four times as much as an option; as the table's rank function,
+            // ORDER BY rank LIMIT n lets FTS5 keep just the n best matches instead of sorting them all
+            "INSERT INTO question_fts (question_fts, rank) VALUES ('rank', 'bm25(4.0, 1.0, 1.0, 1.0, 1.0)')",
+            // Every three-character sequence of the text: substring filters and typo-tolerant search
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS question_trigram USING fts5(
+                question_text, content='questions', content_rowid='id', tokenize='trigram'
+            )
+            """,
+            // How many questions contain each sequence, to search on the rarest ones
+            "CREATE VIRTUAL TABLE IF NOT EXISTS question_trigram_vocab USING fts5vocab(question_trigram, row)",
+            // Set (inside its own transaction) by a bulk insert that indexes its rows in one statement at the
+            // end: FTS5 flushes pending index data at every statement savepoint, so indexing row by row from
+            // the trigger would write a tiny index segment per question
+            """
+            CREATE TABLE IF NOT EXISTS search_index_state (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                deferred INTEGER NOT NULL
+            )
+            """,
+            "INSERT OR IGNORE INTO search_index_state (id, deferred) VALUES (1, 0)",
+            """
+            CREATE TRIGGER IF NOT EXISTS questions_fts_insert AFTER INSERT ON questions
+            WHEN (SELECT deferred FROM search_index_state WHERE id = 1) = 0 BEGIN
+                INSERT INTO question_fts (rowid, question_text, option_a, option_b, option_c, option_d)
+                VALUES (NEW.id, NEW.question_text, NEW.option_a, NEW.option_b, NEW.option_c, NEW.option_d);
+                INSERT INTO question_trigram (rowid, question_text) VALUES (NEW.id, NEW.question_text);
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS questions_fts_delete AFTER DELETE ON questions BEGIN
+                INSERT INTO question_fts (question_fts, rowid, question_text, option_a, option_b, option_c, option_d)
+                VALUES ('delete', OLD.id, OLD.question_text, OLD.option_a, OLD.option_b, OLD.option_c, OLD.option_d);
+                INSERT INTO question_trigram (question_trigram, rowid, question_text)
+                VALUES ('delete', OLD.id, OLD.question_text);
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS questions_fts_update
+            AFTER UPDATE OF question_text, option_a, option_b, option_c, option_d ON questions BEGIN
+                INSERT INTO question_fts (question_fts, rowid, question_text, option_a, option_b, option_c, option_d)
+                VALUES ('delete', OLD.id, OLD.question_text, OLD.option_a, OLD.option_b, OLD.option_c, OLD.option_d);
+                INSERT INTO question_trigram (question_trigram, rowid, question_text)
+                VALUES ('delete', OLD.id, OLD.question_text);
+                INSERT INTO question_fts (rowid, question_text, option_a, option_b, option_c, option_d)
+                VALUES (NEW.id, NEW.question_text, NEW.option_a, NEW.option_b, NEW.option_c, NEW.option_d);
+                INSERT INTO question_trigram (rowid, question_text) VALUES (NEW.id, NEW.question_text);
+            END
+            """,
+            // Index the questions that already exist
+            "INSERT INTO question_fts (question_fts) VALUES ('rebuild')",
+            "INSERT INTO question_trigram (question_trigram) VALUES ('rebuild')")
+    );
+
+    /**
+     * All known migrations in order
+     */
+    public static List<Migration> getMigrations() {
+        return MIGRATIONS;
+    }
+
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    /**
+     * Apply every pending migration on the writer connection
+     * @return number of migrations applied
+     */
+    public int migrate(ConnectionPool pool) throws SQLException {
+        return pool.write(conn -> {
+            Connection connection = conn.getConnection();
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        applied_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """);
+            }
+
+            int current = currentVersion(connection);
+            int applied = 0;
+            for (Migration migration : MIGRATIONS) {
+                if (migration.getVersion() <= current) {
+                    continue;
+                }
+                applyInTransaction(connection, migration);
+                System.out.println("Applied schema migration " + migration.getVersion() + ": " + migration.getDescription());
+                applied++;
+            }
+            return applied;
+        });
+    }
+
+    private static int currentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.getInt(1);
+        }
+    }
+
+    private static void applyInTransaction(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            migration.apply(connection);
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                pstmt.setInt(1, migration.getVersion());
+                pstmt.setString(2, migration.getDescription());
+                pstmt.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Schema migration " + migration.getVersion() + " failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.smartquiz.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Log of statements slower than a threshold ({@code smartquiz.slowQueryMillis}, 0 turns it off).
+ * When enabled, every statement a {@link StatementCache} prepares is wrapped to remember its bound
+ * parameters and to time it: an update until it returns, a query from execution until its result set
+ * is exhausted or closed (SQLite does most of the work while stepping through rows). A slow statement
+ * is printed with the DatabaseManager operation that ran it, its parameters, duration and row count.
+ * The first time a SQL text is slow its {@code EXPLAIN QUERY PLAN} is captured and printed as well;
+ * later occurrences only add to its entry in the ranked {@link #report()}.
+ * A disabled log hands statements out unwrapped, so it costs nothing.
+ */
+public class SlowQueryLog {
+    private static final int MAX_PARAM_LENGTH = 40;
+
+    private final long thresholdNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(long thresholdMillis) {
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+    }
+
+    public boolean isEnabled() {
+        return thresholdNanos > 0;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdNanos / 1_000_000;
+    }
+
+    /**
+     * The statement itself when the log is off, otherwise a timing wrapper around it
+     */
+    PreparedStatement wrap(PreparedStatement statement, String sql, Connection connection) {
+        if (!isEnabled()) {
+            return statement;
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class}, new TracedStatement(statement, sql, connection));
+    }
+
+    /**
+     * Slow statements seen so far, most total time first
+     */
+    public List<Entry> getEntries() {
+        List<Entry> ranked = new ArrayList<>(entries.values());
+        ranked.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+        return ranked;
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format("%4s %7s %10s %9s %9s  %s%n",
+            "rank", "count", "total ms", "max ms", "max rows", "operation: SQL"));
+        int rank = 1;
+        for (Entry entry : getEntries()) {
+            report.append(String.format("%4d %7d %10.1f %9.1f %9d  %s: %s%n", rank++, entry.getCount(),
+                entry.getTotalNanos() / 1e6, entry.getMaxNanos() / 1e6, entry.getMaxRows(),
+                entry.getOperation(), entry.getSql()));
+            report.append("       slowest params: ").append(entry.getSlowestParams()).append(System.lineSeparator());
+            report.append(indent(entry.getPlan(), "       "));
+        }
+        return report.toString();
+    }
+
+    public void reset() {
+        entries.clear();
+    }
+
+    /**
+     * @param batchSize rows of the batch that ran, 0 for a single execution; a batch is logged and
+     *                  explained with the parameters of its last row
+     */
+    private void record(String sql, Connection connection, Object[] params, int paramCount, int batchSize,
+                        long nanos, long rows) {
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        String operation = callingOperation();
+        String shownParams = batchSize > 0
+            ? "batch of " + batchSize + ", last row " + formatParams(params, paramCount)
+            : formatParams(params, paramCount);
+        Entry entry = entries.computeIfAbsent(sql, s -> new Entry(s, operation));
+        String plan = null;
+        if (entry.needsPlan()) {
+            plan = explain(connection, sql, params, paramCount);
+        }
+        long count = entry.add(nanos, rows, shownParams, plan);
+        String line = String.format("[slow query] %s %.1f ms, %d rows (%d so far): %s params=%s",
+            operation, nanos / 1e6, rows, count, entry.getSql(), shownParams);
+        System.err.println(plan == null ? line : line + System.lineSeparator() + indent(plan, "  "));
+    }
+
+    /**
+     * EXPLAIN QUERY PLAN of the statement with the same parameters, as an indented tree
+     */
+    private static String explain(Connection connection, String sql, Object[] params, int paramCount) {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 0; i < paramCount; i++) {
+                explain.setObject(i + 1, params[i]);
+            }
+            Map<Integer, Integer> depths = new HashMap<>();
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    int depth = depths.getOrDefault(rs.getInt("parent"), -1) + 1;
+                    depths.put(rs.getInt("id"), depth);
+                    plan.append("  ".repeat(depth)).append(rs.getString("detail")).append(System.lineSeparator());
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            return "(no plan: " + e.getMessage() + ")" + System.lineSeparator();
+        }
+    }
+
+    /**
+     * The DatabaseManager method the statement runs for, found by walking the stack (slow path only)
+     */
+    private static String callingOperation() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(frame -> frame.getClassName().equals(DatabaseManager.class.getName()))
+            .map(frame -> {
+                String method = frame.getMethodName();
+                // lambda$getTopScores$12 -> getTopScores
+                return method.startsWith("lambda$") ? method.split("\\$")[1] : method;
+            })
+            .findFirst()
+            .orElse("?"));
+    }
+
+    private static String formatParams(Object[] params, int paramCount) {
+        StringBuilder formatted = new StringBuilder("[");
+        for (int i = 0; i < paramCount; i++) {
+            if (i > 0) {
+                formatted.append(", ");
+            }
+            Object param = params[i];
+            if (param instanceof String text) {
+                formatted.append('\'').append(text.length() > MAX_PARAM_LENGTH
+                    ? text.substring(0, MAX_PARAM_LENGTH) + "..." : text).append('\'');
+            } else if (param instanceof byte[] bytes) {
+                formatted.append('<').append(bytes.length).append(" bytes>");
+            } else {
+                formatted.append(param);
+            }
+        }
+        return formatted.append(']').toString();
+    }
+
+    private static String indent(String text, String prefix) {
+        StringBuilder indented = new StringBuilder();
+        for (String line : text.split(System.lineSeparator())) {
+            if (!line.isEmpty()) {
+                indented.append(prefix).append(line).append(System.lineSeparator());
+            }
+        }
+        return indented.toString();
+    }
+
+    /**
+     * One SQL text that has been slow at least once
+     */
+    public static final class Entry {
+        private final String sql;
+        private final String operation;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long maxRows;
+        private String slowestParams;
+        private String plan;
+
+        private Entry(String sql, String operation) {
+            this.sql = sql.replaceAll("\\s+", " ").trim();
+            this.operation = operation;
+        }
+
+        private synchronized boolean needsPlan() {
+            return plan == null;
+        }
+
+        private synchronized long add(long nanos, long rows, String params, String capturedPlan) {
+            count++;
+            totalNanos += nanos;
+            if (nanos >= maxNanos) {
+                maxNanos = nanos;
+                slowestParams = params;
+            }
+            maxRows = Math.max(maxRows, rows);
+            if (plan == null && capturedPlan != null) {
+                plan = capturedPlan;
+            }
+            return count;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public synchronized long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public synchronized long getMaxRows() {
+            return maxRows;
+        }
+
+        public synchronized String getSlowestParams() {
+            return slowestParams;
+        }
+
+        public synchronized String getPlan() {
+            return plan == null ? "" : plan;
+        }
+    }
+
+    /**
+     * Tracks the parameters and batches of one cached statement and times its executions.
+     * Like the statement itself it is only used by the thread holding its connection.
+     */
+    private final class TracedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final String sql;
+        private final Connection connection;
+        private Object[] params = new Object[8];
+        private int paramCount;
+        private int batchSize;
+
+        TracedStatement(PreparedStatement statement, String sql, Connection connection) {
+            this.statement = statement;
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(params, 0, paramCount, null);
+                paramCount = 0;
+            } else if (name.equals("addBatch") && args == null) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (args == null) {
+                switch (name) {
+                    case "executeQuery":
+                        return tracedQuery(System.nanoTime(), (ResultSet) call(method, null));
+                    case "executeUpdate":
+                    case "execute":
+                        long start = System.nanoTime();
+                        Object result = call(method, null);
+                        long updated = name.equals("execute") ? statement.getUpdateCount() : (Integer) result;
+                        record(sql, connection, params, paramCount, 0, System.nanoTime() - start, Math.max(0, updated));
+                        return result;
+                    case "executeBatch":
+                        long batchStart = System.nanoTime();
+                        int[] counts = (int[]) call(method, null);
+                        long rows = 0;
+                        for (int count : counts) {
+                            rows += Math.max(0, count);
+                        }
+                        int batchRows = batchSize;
+                        batchSize = 0;
+                        record(sql, connection, params, paramCount, batchRows, System.nanoTime() - batchStart, rows);
+                        return counts;
+                    default:
+                        break;
+                }
+            }
+            return call(method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index > params.length) {
+                params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            }
+            params[index - 1] = value;
+            paramCount = Math.max(paramCount, index);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private ResultSet tracedQuery(long start, ResultSet resultSet) {
+            Object[] boundParams = Arrays.copyOf(params, paramCount);
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class}, new InvocationHandler() {
+                    private long rows;
+                    private boolean finished;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().equals("getStatement")) {
+                            return TracedStatement.this.statement;
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(resultSet, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (method.getName().equals("next")) {
+                            if ((Boolean) result) {
+                                rows++;
+                            } else {
+                                finish();
+                            }
+                        } else if (method.getName().equals("close")) {
+                            finish();
+                        }
+                        return result;
+                    }
+
+                    private void finish() {
+                        if (!finished) {
+                            finished = true;
+                            record(sql, connection, boundParams, boundParams.length, 0, System.nanoTime() - start, rows);
+                        }
+                    }
+                });
+        }
+    }
+}
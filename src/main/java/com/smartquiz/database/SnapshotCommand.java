@@ -0,0 +1,49 @@
+package com.smartquiz.database;
+
+import java.nio.file.Path;
+
+/**
+ * Command-line entry point for writing a question bank snapshot:
+ * <pre>
+ *   java -cp smartquiz.jar com.smartquiz.database.SnapshotCommand [--db jdbc:sqlite:quiz_app.db] quiz_app.snapshot
+ * </pre>
+ * Start read-only kiosks with {@code -Dsmartquiz.bank.snapshot=quiz_app.snapshot} to map the bank
+ * from the file instead of reading every question row. Exit status is 0 on success and 1 on failure.
+ */
+public final class SnapshotCommand {
+
+    private SnapshotCommand() {}
+
+    public static void main(String[] args) {
+        String dbUrl = null;
+        Path file = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--db")) {
+                dbUrl = args[++i];
+            } else {
+                file = Path.of(args[i]);
+            }
+        }
+        if (file == null) {
+            System.err.println("Usage: SnapshotCommand [--db url] <snapshot file>");
+            System.exit(1);
+        }
+
+        DatabaseManager db = dbUrl == null ? DatabaseManager.getInstance() : DatabaseManager.open(dbUrl);
+        int status;
+        try {
+            db.initializeDatabase();
+            long start = System.nanoTime();
+            int count = db.exportQuestionSnapshot(file);
+            System.out.printf("Wrote %d questions to %s (bank version %d) in %d ms%n",
+                count, file, db.getBankVersion(), (System.nanoTime() - start) / 1_000_000);
+            status = 0;
+        } catch (Exception e) {
+            System.err.println("Snapshot failed: " + e.getMessage());
+            status = 1;
+        } finally {
+            db.closeConnection();
+        }
+        System.exit(status);
+    }
+}
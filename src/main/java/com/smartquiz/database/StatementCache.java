@@ -0,0 +1,99 @@
+package com.smartquiz.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-connection cache of prepared statements keyed by SQL text, with LRU eviction.
+ * A cache belongs to exactly one {@link PooledConnection} and is only touched by the thread
+ * currently holding that connection, so the map itself needs no locking.
+ */
+public class StatementCache {
+    private final Connection connection;
+    private final int maxSize;
+    private final SlowQueryLog slowQueries;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public StatementCache(Connection connection, int maxSize) {
+        this(connection, maxSize, new SlowQueryLog(0));
+    }
+
+    public StatementCache(Connection connection, int maxSize, SlowQueryLog slowQueries) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.slowQueries = slowQueries;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return a prepared statement for the SQL, compiling it only on a cache miss.
+     * Parameters from the previous use are cleared. The statement stays owned by the cache,
+     * so callers close their ResultSets but never the statement.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            hits.incrementAndGet();
+            statement.clearParameters();
+            return statement;
+        }
+
+        misses.incrementAndGet();
+        statement = slowQueries.wrap(connection.prepareStatement(sql), sql, connection);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Close every cached statement. Called before the owning connection is closed.
+     */
+    public void clear() {
+        statements.values().forEach(StatementCache::closeQuietly);
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.smartquiz.database;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind queue with group commit.
+ * Producers enqueue items and get a future back; a single writer thread drains the queue and hands
+ * the sink up to {@code batchSize} items at a time, waiting at most {@code maxDelayMillis} after the
+ * first item for more to arrive. The sink writes a batch in one transaction, so a burst of submissions
+ * shares one commit instead of paying for one each. With a delay of 0 the writer never lingers: it takes
+ * whatever queued up while the previous batch was committing, which suits submitters that each wait for
+ * their own commit. A future completes only once its item is committed;
+ * items still queued when the process dies are lost, so callers must not report success before that.
+ * When the queue is full, {@link #submit} blocks for up to {@code offerTimeoutMillis} and then fails.
+ */
+public class WriteBehindQueue<T> implements AutoCloseable {
+
+    /**
+     * Writes one batch atomically; a failure means none of the batch was stored
+     */
+    @FunctionalInterface
+    public interface BatchWriter<T> {
+        void write(List<T> batch) throws SQLException;
+    }
+
+    private static final class Pending<T> {
+        final T item;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final long enqueuedNanos = System.nanoTime();
+
+        Pending(T item) {
+            this.item = item;
+        }
+    }
+
+    private final String name;
+    private final BatchWriter<T> writer;
+    private final BlockingQueue<Pending<T>> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutMillis;
+    private final Thread writerThread;
+
+    // Metrics
+    private final AtomicInteger peakDepth = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder commitNanos = new LongAdder();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+    private final LongAdder queuedNanos = new LongAdder();
+
+    private volatile boolean closed;
+
+    public WriteBehindQueue(String name, BatchWriter<T> writer, int capacity, int batchSize,
+                            long maxDelayMillis, long offerTimeoutMillis) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("capacity and batchSize must be at least 1");
+        }
+        this.name = name;
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        writerThread = new Thread(this::run, "smartquiz-" + name + "-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queue an item for writing, blocking while the queue is full (backpressure).
+     * @return future completed with the item once its batch has committed
+     * @throws RejectedExecutionException if the queue is closed or stays full past the offer timeout
+     */
+    public CompletableFuture<T> submit(T item) {
+        if (closed) {
+            throw new RejectedExecutionException(name + " queue is closed");
+        }
+        Pending<T> pending = new Pending<>(item);
+        boolean accepted;
+        try {
+            accepted = queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            throw new RejectedExecutionException(name + " queue is full (" + queue.size() + " waiting)");
+        }
+        submitted.increment();
+        peakDepth.accumulateAndGet(queue.size(), Math::max);
+        return pending.future;
+    }
+
+    private void run() {
+        List<Pending<T>> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                Pending<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Nothing interrupts this thread on purpose; keep going so queued items are still written
+                Thread.interrupted();
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Top the batch up until it is full or the first item has waited maxDelay
+     */
+    private void collect(List<Pending<T>> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || closed) {
+                return;
+            }
+            Pending<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeBatch(List<Pending<T>> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            items.add(pending.item);
+        }
+        long start = System.nanoTime();
+        try {
+            writer.write(items);
+            recordCommit(start, batch);
+        } catch (SQLException | RuntimeException e) {
+            if (batch.size() == 1) {
+                failed.increment();
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            // One bad row should not take the rest of the batch down with it: retry one by one
+            System.err.println("Batch of " + batch.size() + " " + name + " failed, retrying individually: "
+                + e.getMessage());
+            for (Pending<T> pending : batch) {
+                writeBatch(List.of(pending));
+            }
+        }
+    }
+
+    private void recordCommit(long start, List<Pending<T>> batch) {
+        long end = System.nanoTime();
+        long elapsed = end - start;
+        batches.increment();
+        commitNanos.add(elapsed);
+        maxCommitNanos.accumulateAndGet(elapsed, Math::max);
+        for (Pending<T> pending : batch) {
+            queuedNanos.add(start - pending.enqueuedNanos);
+            committed.increment();
+            pending.future.complete(pending.item);
+        }
+    }
+
+    public int getDepth() {
+        return queue.size();
+    }
+
+    public Stats getStats() {
+        return new Stats(this);
+    }
+
+    /**
+     * Stop accepting items and wait for everything already queued to be committed
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            System.err.println("Warning: " + name + " writer did not finish; " + queue.size() + " items not written");
+            return;
+        }
+        // Items that raced with close() after the writer's last look at the queue
+        Pending<T> orphan;
+        while ((orphan = queue.poll()) != null) {
+            failed.increment();
+            orphan.future.completeExceptionally(new RejectedExecutionException(name + " queue is closed"));
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of the queue metrics
+     */
+    public static final class Stats {
+        private final int depth;
+        private final int peakDepth;
+        private final long submitted;
+        private final long rejected;
+        private final long committed;
+        private final long failed;
+        private final long batches;
+        private final double avgCommitMillis;
+        private final double maxCommitMillis;
+        private final double avgQueueMillis;
+
+        private Stats(WriteBehindQueue<?> queue) {
+            depth = queue.queue.size();
+            peakDepth = queue.peakDepth.get();
+            submitted = queue.submitted.sum();
+            rejected = queue.rejected.sum();
+            committed = queue.committed.sum();
+            failed = queue.failed.sum();
+            batches = queue.batches.sum();
+            avgCommitMillis = batches == 0 ? 0.0 : queue.commitNanos.sum() / 1_000_000.0 / batches;
+            maxCommitMillis = queue.maxCommitNanos.get() / 1_000_000.0;
+            avgQueueMillis = committed == 0 ? 0.0 : queue.queuedNanos.sum() / 1_000_000.0 / committed;
+        }
+
+        /** Items waiting to be written right now */
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getPeakDepth() {
+            return peakDepth;
+        }
+
+        public long getSubmitted() {
+            return submitted;
+        }
+
+        /** Submissions refused because the queue stayed full or was closed */
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getCommitted() {
+            return committed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getBatches() {
+            return batches;
+        }
+
+        public double getAvgBatchSize() {
+            return batches == 0 ? 0.0 : (double) committed / batches;
+        }
+
+        /** Average time to write and commit one batch */
+        public double getAvgCommitMillis() {
+            return avgCommitMillis;
+        }
+
+        public double getMaxCommitMillis() {
+            return maxCommitMillis;
+        }
+
+        /** Average time an item waited in the queue before its batch started */
+        public double getAvgQueueMillis() {
+            return avgQueueMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "WriteBehind{depth=%d (peak %d), submitted=%d, rejected=%d, committed=%d, failed=%d, " +
+                "batches=%d (avg size %.1f), avg commit=%.2fms, max commit=%.2fms, avg queue wait=%.2fms}",
+                depth, peakDepth, submitted, rejected, committed, failed,
+                batches, getAvgBatchSize(), avgCommitMillis, maxCommitMillis, avgQueueMillis);
+        }
+    }
+}
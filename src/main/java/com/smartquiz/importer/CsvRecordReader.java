@@ -0,0 +1,134 @@
+package com.smartquiz.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV reader: the first row names the columns, fields may be quoted, quoted fields may contain
+ * commas, doubled quotes and line breaks. A row with a different number of fields than the header is
+ * still returned; the missing columns are simply absent.
+ */
+final class CsvRecordReader implements RecordReader {
+    private final Reader in;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private long recordLine;
+    private List<String> header;
+
+    CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        if (header == null) {
+            header = readRow();
+            if (header == null) {
+                return null;
+            }
+            if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+        }
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty());   // blank line
+
+        Map<String, String> record = new LinkedHashMap<>();
+        for (int i = 0; i < row.size() && i < header.size(); i++) {
+            record.put(header.get(i), row.get(i));
+        }
+        if (row.size() > header.size()) {
+            record.put(QuestionRowMapper.EXTRA_FIELDS, String.valueOf(row.size() - header.size()));
+        }
+        return record;
+    }
+
+    @Override
+    public long getLine() {
+        return recordLine;
+    }
+
+    private List<String> readRow() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean afterQuote = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') unread();
+                }
+                if (c != -1) line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private void unread() {
+        if (position > 0) {
+            position--;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
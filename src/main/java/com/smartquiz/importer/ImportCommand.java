@@ -0,0 +1,84 @@
+package com.smartquiz.importer;
+
+import com.smartquiz.database.DatabaseManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line entry point for bulk question imports:
+ * <pre>
+ *   java -cp smartquiz.jar com.smartquiz.importer.ImportCommand [options] questions.csv
+ *     --db jdbc:sqlite:quiz_app.db   database to import into (default: the application database)
+ *     --chunk 1000                   rows per transaction
+ *     --workers N                    validation threads
+ *     --restart                      ignore the checkpoint of an earlier run and import the whole file again
+ *     --allow-duplicates             import rows that are near-duplicates of existing questions too
+ * </pre>
+ * Exit status is 0 on success (including a file that was already imported), 1 on failure and 2 if any row
+ * was rejected.
+ */
+public final class ImportCommand {
+
+    private ImportCommand() {}
+
+    public static void main(String[] args) {
+        String dbUrl = null;
+        Path file = null;
+        Integer chunk = null;
+        Integer workers = null;
+        boolean restart = false;
+        boolean allowDuplicates = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--db" -> dbUrl = args[++i];
+                case "--chunk" -> chunk = Integer.parseInt(args[++i]);
+                case "--workers" -> workers = Integer.parseInt(args[++i]);
+                case "--restart" -> restart = true;
+                case "--allow-duplicates" -> allowDuplicates = true;
+                default -> file = Path.of(args[i]);
+            }
+        }
+        if (file == null || !Files.isRegularFile(file)) {
+            System.err.println("Usage: ImportCommand [--db url] [--chunk n] [--workers n] [--restart] [--allow-duplicates] <file.csv|file.json>");
+            System.exit(1);
+        }
+
+        DatabaseManager db = dbUrl == null ? DatabaseManager.getInstance() : DatabaseManager.open(dbUrl);
+        int status;
+        try {
+            db.initializeDatabase();
+            QuestionImporter importer = new QuestionImporter(db);
+            if (chunk != null) importer.setChunkSize(chunk);
+            if (workers != null) importer.setWorkers(workers);
+            importer.setResume(!restart);
+            importer.setAllowDuplicates(allowDuplicates);
+            importer.setProgressIntervalMillis(1000);
+
+            ImportProgress result = importer.importFile(file, progress -> {
+                if (!progress.isFinished()) {
+                    System.out.println(progress);
+                }
+            });
+            if (result.isAlreadyImported()) {
+                System.out.printf("%s was already imported (%d rows); nothing to do. Use --restart --allow-duplicates to import it again.%n",
+                    file, result.getResumedRows());
+                status = 0;
+            } else {
+                System.out.printf("Import finished in %.1fs: %d imported, %d rejected (%d near-duplicates), "
+                        + "%d already imported earlier%n", result.getElapsedMillis() / 1000.0, result.getImported(),
+                    result.getRejected(), result.getDuplicates(), result.getResumedRows());
+                if (result.getRejectedReport() != null) {
+                    System.out.println("Rejected rows: " + result.getRejectedReport());
+                }
+                status = result.getRejected() > 0 ? 2 : 0;
+            }
+        } catch (Exception e) {
+            System.err.println("Import failed: " + e.getMessage());
+            status = 1;
+        } finally {
+            db.closeConnection();
+        }
+        System.exit(status);
+    }
+}
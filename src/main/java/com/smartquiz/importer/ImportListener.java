@@ -0,0 +1,10 @@
+package com.smartquiz.importer;
+
+/**
+ * Receives progress snapshots from a running import, on the importing thread.
+ * Implementations that touch Swing components must hop to the EDT themselves.
+ */
+@FunctionalInterface
+public interface ImportListener {
+    void onProgress(ImportProgress progress);
+}
@@ -0,0 +1,113 @@
+package com.smartquiz.importer;
+
+import java.nio.file.Path;
+
+/**
+ * Snapshot of an import: counts so far, position in the file and throughput.
+ * The final snapshot returned by {@link QuestionImporter#importFile} has {@link #isFinished()} set.
+ */
+public class ImportProgress {
+    private final long resumedRows;
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final long duplicates;
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long elapsedMillis;
+    private final boolean finished;
+    private final boolean cancelled;
+    private final boolean alreadyImported;
+    private final Path rejectedReport;
+
+    ImportProgress(long resumedRows, long rowsRead, long imported, long rejected, long duplicates, long bytesRead,
+                   long totalBytes, long elapsedMillis, boolean finished, boolean cancelled, boolean alreadyImported,
+                   Path rejectedReport) {
+        this.resumedRows = resumedRows;
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.duplicates = duplicates;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.elapsedMillis = elapsedMillis;
+        this.finished = finished;
+        this.cancelled = cancelled;
+        this.alreadyImported = alreadyImported;
+        this.rejectedReport = rejectedReport;
+    }
+
+    /** Rows skipped because an earlier run had already committed them */
+    public long getResumedRows() {
+        return resumedRows;
+    }
+
+    /** Rows read from the file in this run */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /** Questions committed in this run */
+    public long getImported() {
+        return imported;
+    }
+
+    /** Rows rejected in this run */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /** Rows rejected in this run as near-duplicates of a stored question or an earlier row (part of {@link #getRejected}) */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /** Fraction of the file consumed (0..1) */
+    public double getFraction() {
+        return totalBytes <= 0 ? 0.0 : Math.min(1.0, (double) bytesRead / totalBytes);
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /** Committed questions per second in this run */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : imported * 1000.0 / elapsedMillis;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * The unchanged file had already been imported completely, so nothing was read; restart the import
+     * ({@link QuestionImporter#setResume} false) to import it again
+     */
+    public boolean isAlreadyImported() {
+        return alreadyImported;
+    }
+
+    /** CSV of rejected rows with their reasons, or null if nothing was rejected */
+    public Path getRejectedReport() {
+        return rejectedReport;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.0f%% - %d imported, %d rejected (%d near-duplicates), %d resumed (%.0f rows/s)",
+            getFraction() * 100, imported, rejected, duplicates, resumedRows, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,256 @@
+package com.smartquiz.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming reader for JSON question files: either one top-level array of objects or one object per line
+ * (JSON Lines). Only the current object is held in memory. Scalar values are returned as text; an
+ * {@code "options"} array is spread over option_a..option_d; other nested values are ignored.
+ */
+final class JsonRecordReader implements RecordReader {
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private final Reader in;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+    private int peeked = -2;
+    private long line = 1;
+    private long recordLine;
+    private boolean started;
+    private boolean inArray;
+    private boolean finished;
+
+    JsonRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int c = skipWhitespace();
+        if (!started) {
+            started = true;
+            if (c == 0xFEFF) {
+                c = skipWhitespace();
+            }
+            if (c == '[') {
+                inArray = true;
+                c = skipWhitespace();
+                if (c == ']') {
+                    finished = true;
+                    return null;
+                }
+            }
+        } else if (inArray) {
+            if (c == ']') {
+                finished = true;
+                return null;
+            }
+            if (c != ',') {
+                throw error("expected ',' or ']' between records");
+            }
+            c = skipWhitespace();
+        }
+        if (c == -1) {
+            if (inArray) {
+                throw error("unterminated array");
+            }
+            finished = true;
+            return null;
+        }
+        if (c != '{') {
+            throw error("expected '{' at the start of a record");
+        }
+        recordLine = line;
+        return flatten(readObject());
+    }
+
+    @Override
+    public long getLine() {
+        return recordLine;
+    }
+
+    private static Map<String, String> flatten(Map<String, Object> object) {
+        Map<String, String> record = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : object.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof List<?> list) {
+                if ("options".equalsIgnoreCase(entry.getKey())) {
+                    for (int i = 0; i < list.size() && i < 4; i++) {
+                        Object option = list.get(i);
+                        record.put("option_" + (char) ('a' + i), option == null ? null : option.toString());
+                    }
+                    if (list.size() != 4) {
+                        record.put(QuestionRowMapper.OPTION_COUNT, String.valueOf(list.size()));
+                    }
+                }
+            } else if (!(value instanceof Map)) {
+                record.put(entry.getKey(), value == null ? null : value.toString());
+            }
+        }
+        return record;
+    }
+
+    // Called after the opening '{'
+    private Map<String, Object> readObject() throws IOException {
+        Map<String, Object> object = new LinkedHashMap<>();
+        int c = skipWhitespace();
+        if (c == '}') {
+            return object;
+        }
+        while (true) {
+            if (c != '"') {
+                throw error("expected a field name");
+            }
+            String key = readString();
+            if (skipWhitespace() != ':') {
+                throw error("expected ':' after field name");
+            }
+            object.put(key, readValue(skipWhitespace()));
+            c = skipWhitespace();
+            if (c == '}') {
+                return object;
+            }
+            if (c != ',') {
+                throw error("expected ',' or '}' in object");
+            }
+            c = skipWhitespace();
+        }
+    }
+
+    private List<Object> readArray() throws IOException {
+        List<Object> array = new ArrayList<>();
+        int c = skipWhitespace();
+        if (c == ']') {
+            return array;
+        }
+        while (true) {
+            array.add(readValue(c));
+            c = skipWhitespace();
+            if (c == ']') {
+                return array;
+            }
+            if (c != ',') {
+                throw error("expected ',' or ']' in array");
+            }
+            c = skipWhitespace();
+        }
+    }
+
+    private Object readValue(int c) throws IOException {
+        switch (c) {
+            case '"':
+                return readString();
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case -1:
+                throw error("unexpected end of input");
+            default:
+                // number, true, false or null
+                StringBuilder literal = new StringBuilder();
+                while (c != -1 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+                    literal.append((char) c);
+                    c = read();
+                }
+                unread(c);
+                String text = literal.toString();
+                if (text.equals("null")) {
+                    return null;
+                }
+                if (!text.equals("true") && !text.equals("false") && !NUMBER.matcher(text).matches()) {
+                    throw error("invalid value '" + text + "'");
+                }
+                return text;
+        }
+    }
+
+    // Called after the opening quote
+    private String readString() throws IOException {
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw error("unterminated string");
+            }
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                if (c == '\n') line++;
+                text.append((char) c);
+                continue;
+            }
+            int escaped = read();
+            switch (escaped) {
+                case '"', '\\', '/' -> text.append((char) escaped);
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw error("invalid \\u escape");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    text.append((char) code);
+                }
+                default -> throw error("invalid escape '\\" + (char) escaped + "'");
+            }
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+            if (c == '\n') line++;
+        } while (c != -1 && (c == ' ' || c == '\t' || c == '\n' || c == '\r'));
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private void unread(int c) {
+        peeked = c;
+    }
+
+    private IOException error(String message) {
+        return new IOException("Malformed JSON on line " + line + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,435 @@
+package com.smartquiz.importer;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.models.ImportCheckpoint;
+import com.smartquiz.models.Question;
+
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming bulk importer for question files (CSV with a header row, a JSON array or JSON Lines).
+ * <p>
+ * A reader thread splits the file into chunks of raw records, a worker pool maps and validates each chunk
+ * in parallel, and the calling thread commits the chunks in file order, each as one JDBC batch in one
+ * transaction together with the import checkpoint. If the run stops (crash, cancel, error) the next run of
+ * the same unchanged file resumes after the last committed chunk; once it has been imported completely,
+ * further runs skip it unless resuming is turned off. Rejected rows go to
+ * {@code <file>.rejected.csv} with the reason; that report uses the import columns, so it can be fixed
+ * and imported again. Rows that are near-duplicates of a stored question or of an earlier row of the file
+ * are rejected too (see {@link DatabaseManager#findBatchDuplicates}) unless duplicates are allowed.
+ */
+public class QuestionImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final DatabaseManager db;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private boolean resume = true;
+    private boolean allowDuplicates;
+    private long progressIntervalMillis = 250;
+    private volatile boolean cancelled;
+
+    public QuestionImporter(DatabaseManager db) {
+        this.db = db;
+    }
+
+    /** Rows per transaction */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /** Threads mapping and validating rows */
+    public void setWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1");
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * Whether to continue from the checkpoint of an earlier run (default true): after an interrupted run,
+     * import the rest of the file; after a completed one, import nothing. False imports the whole file again.
+     */
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    /** Whether to import rows that are near-duplicates of existing questions (default false: reject them) */
+    public void setAllowDuplicates(boolean allowDuplicates) {
+        this.allowDuplicates = allowDuplicates;
+    }
+
+    public void setProgressIntervalMillis(long progressIntervalMillis) {
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    /**
+     * Stop after the chunk being committed; the checkpoint allows resuming later. Safe from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Import a file, blocking until it is done, cancelled or fails. Must not run on the EDT.
+     * @param listener progress callback, may be null
+     * @return final progress, with the rejected-rows report if any
+     */
+    public ImportProgress importFile(Path file, ImportListener listener) throws IOException, SQLException {
+        cancelled = false;
+        long startNanos = System.nanoTime();
+        long totalBytes = Files.size(file);
+        String source = file.toAbsolutePath().normalize().toString();
+        String fingerprint = totalBytes + ":" + Files.getLastModifiedTime(file).toMillis();
+
+        ImportCheckpoint checkpoint = db.getImportCheckpoint(source);
+        Path reportPath = file.resolveSibling(file.getFileName() + ".rejected.csv");
+        if (resume && checkpoint != null && checkpoint.isCompleted() && fingerprint.equals(checkpoint.getFingerprint())) {
+            System.out.println("Skipping import of " + source + ": already imported (" + checkpoint.getImported()
+                + " questions); restart it with duplicates allowed to load it again");
+            ImportProgress result = new ImportProgress(checkpoint.getRowsDone(), 0, 0, 0, 0, totalBytes, totalBytes,
+                (System.nanoTime() - startNanos) / 1_000_000, true, false, true,
+                Files.exists(reportPath) ? reportPath : null);
+            if (listener != null) {
+                listener.onProgress(result);
+            }
+            return result;
+        }
+        boolean resuming = resume && checkpoint != null && !checkpoint.isCompleted()
+            && fingerprint.equals(checkpoint.getFingerprint());
+        if (resuming) {
+            System.out.println("Resuming import of " + source + " after row " + checkpoint.getRowsDone());
+        } else {
+            checkpoint = new ImportCheckpoint(source, fingerprint, 0, 0, 0, false);
+            db.saveImportCheckpoint(checkpoint);
+        }
+        long skipRows = checkpoint.getRowsDone();
+
+        if (!resuming) {
+            Files.deleteIfExists(reportPath);
+        }
+
+        CountingInputStream input = new CountingInputStream(Files.newInputStream(file));
+        RecordReader reader = openReader(file, input);
+        ExecutorService pool = Executors.newFixedThreadPool(workers, daemonThreads("smartquiz-import-"));
+        BlockingQueue<Future<Chunk>> chunks = new ArrayBlockingQueue<>(workers * 2);
+        Thread readerThread = new Thread(() -> readChunks(reader, skipRows, pool, chunks), "smartquiz-import-reader");
+        readerThread.setDaemon(true);
+
+        RejectedReport report = new RejectedReport(reportPath);
+        long rowsRead = 0;
+        long imported = 0;
+        long rejected = 0;
+        long duplicates = 0;
+        long lastReport = 0;
+        try {
+            readerThread.start();
+            while (!cancelled) {
+                Chunk chunk = take(chunks);
+                if (chunk == null) {
+                    break;
+                }
+                if (!allowDuplicates) {
+                    duplicates += rejectDuplicates(chunk);
+                }
+                checkpoint = checkpoint.advance(chunk.rows, chunk.questions.size(), chunk.rejected.size());
+                db.insertQuestionBatch(chunk.questions, checkpoint);
+                // Only once the chunk has committed: a failed or resumed chunk must not report its rows twice
+                report.write(chunk.rejected);
+
+                rowsRead += chunk.rows;
+                imported += chunk.questions.size();
+                rejected += chunk.rejected.size();
+                long now = System.nanoTime();
+                if (listener != null && now - lastReport >= progressIntervalMillis * 1_000_000) {
+                    lastReport = now;
+                    listener.onProgress(new ImportProgress(skipRows, rowsRead, imported, rejected, duplicates,
+                        input.getCount(), totalBytes, (now - startNanos) / 1_000_000, false, false, false, null));
+                }
+            }
+            if (!cancelled) {
+                db.saveImportCheckpoint(new ImportCheckpoint(source, fingerprint, checkpoint.getRowsDone(),
+                    checkpoint.getImported(), checkpoint.getRejected(), true));
+            }
+        } finally {
+            readerThread.interrupt();
+            pool.shutdownNow();
+            report.close();
+            reader.close();
+        }
+
+        ImportProgress result = new ImportProgress(skipRows, rowsRead, imported, rejected, duplicates,
+            cancelled ? input.getCount() : totalBytes, totalBytes, (System.nanoTime() - startNanos) / 1_000_000,
+            true, cancelled, false, report.hasRows() || (resuming && Files.exists(reportPath)) ? reportPath : null);
+        if (listener != null) {
+            listener.onProgress(result);
+        }
+        return result;
+    }
+
+    /**
+     * Move the chunk's near-duplicates from its questions to its rejected rows
+     * @return how many were moved
+     */
+    private int rejectDuplicates(Chunk chunk) throws SQLException {
+        List<Question> matches = db.findBatchDuplicates(chunk.questions);
+        List<Question> kept = new ArrayList<>(chunk.questions.size());
+        List<RawRecord> keptSources = new ArrayList<>(chunk.questions.size());
+        int moved = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            Question match = matches.get(i);
+            RawRecord source = chunk.sources.get(i);
+            if (match == null) {
+                kept.add(chunk.questions.get(i));
+                keptSources.add(source);
+            } else {
+                String original = match.getId() > 0 ? "question " + match.getId() : "row " + rowOf(chunk, match);
+                chunk.rejected.add(new Rejected(source.row, source.line, "Near-duplicate of " + original, source.fields));
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            chunk.questions.clear();
+            chunk.questions.addAll(kept);
+            chunk.sources.clear();
+            chunk.sources.addAll(keptSources);
+            chunk.rejected.sort(Comparator.comparingLong(Rejected::row));
+        }
+        return moved;
+    }
+
+    private static long rowOf(Chunk chunk, Question question) {
+        for (int i = 0; i < chunk.questions.size(); i++) {
+            if (chunk.questions.get(i) == question) {
+                return chunk.sources.get(i).row;
+            }
+        }
+        return -1;
+    }
+
+    private static RecordReader openReader(Path file, InputStream input) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        InputStreamReader text = new InputStreamReader(input, StandardCharsets.UTF_8);
+        if (name.endsWith(".csv")) {
+            return new CsvRecordReader(text);
+        }
+        if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return new JsonRecordReader(text);
+        }
+        input.close();
+        throw new IOException("Unsupported import file type (expected .csv, .json or .jsonl): " + file);
+    }
+
+    /**
+     * Reader thread: cut the file into chunks and hand each to the worker pool. The queue holds the
+     * pending futures in file order; it is bounded, so reading pauses while commits catch up.
+     */
+    private void readChunks(RecordReader reader, long skipRows, ExecutorService pool,
+                            BlockingQueue<Future<Chunk>> chunks) {
+        try {
+            long row = 0;
+            List<RawRecord> batch = new ArrayList<>(chunkSize);
+            Map<String, String> record;
+            while (!cancelled && (record = reader.next()) != null) {
+                row++;
+                if (row <= skipRows) {
+                    continue;
+                }
+                batch.add(new RawRecord(row, reader.getLine(), record));
+                if (batch.size() == chunkSize) {
+                    List<RawRecord> full = batch;
+                    chunks.put(pool.submit(() -> mapChunk(full)));
+                    batch = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<RawRecord> last = batch;
+                chunks.put(pool.submit(() -> mapChunk(last)));
+            }
+            chunks.put(CompletableFuture.completedFuture(null));
+        } catch (InterruptedException e) {
+            // Import finished early (cancelled or failed); nobody is waiting for more chunks
+        } catch (IOException | RuntimeException e) {
+            try {
+                chunks.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException ignored) {
+                // Import already stopped
+            }
+        }
+    }
+
+    private static Chunk mapChunk(List<RawRecord> records) {
+        Chunk chunk = new Chunk(records.size());
+        for (RawRecord record : records) {
+            Map<String, String> fields = QuestionRowMapper.normalize(record.fields);
+            try {
+                chunk.questions.add(QuestionRowMapper.map(fields));
+                chunk.sources.add(new RawRecord(record.row, record.line, fields));
+            } catch (IllegalArgumentException e) {
+                chunk.rejected.add(new Rejected(record.row, record.line, e.getMessage(), fields));
+            }
+        }
+        return chunk;
+    }
+
+    private static Chunk take(BlockingQueue<Future<Chunk>> chunks) throws IOException {
+        try {
+            return chunks.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Import failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record RawRecord(long row, long line, Map<String, String> fields) {}
+
+    private record Rejected(long row, long line, String reason, Map<String, String> fields) {}
+
+    private static final class Chunk {
+        final int rows;
+        final List<Question> questions;
+        // Row each question came from, with its normalized fields
+        final List<RawRecord> sources;
+        final List<Rejected> rejected = new ArrayList<>();
+
+        Chunk(int rows) {
+            this.rows = rows;
+            this.questions = new ArrayList<>(rows);
+            this.sources = new ArrayList<>(rows);
+        }
+    }
+
+    /**
+     * Appends rejected rows to the report CSV, creating it on the first one
+     */
+    private static final class RejectedReport {
+        private final Path path;
+        private BufferedWriter out;
+        private boolean hasRows;
+
+        RejectedReport(Path path) {
+            this.path = path;
+        }
+
+        void write(List<Rejected> rows) throws IOException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            if (out == null) {
+                boolean exists = Files.exists(path);
+                out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (!exists) {
+                    out.write("row,line,reason," + String.join(",", QuestionRowMapper.COLUMNS));
+                    out.newLine();
+                }
+            }
+            for (Rejected rejected : rows) {
+                StringBuilder line = new StringBuilder();
+                line.append(rejected.row).append(',').append(rejected.line).append(',').append(csv(rejected.reason));
+                for (String column : QuestionRowMapper.COLUMNS) {
+                    line.append(',').append(csv(rejected.fields.get(column)));
+                }
+                out.write(line.toString());
+                out.newLine();
+            }
+            out.flush();
+            hasRows = true;
+        }
+
+        boolean hasRows() {
+            return hasRows;
+        }
+
+        void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * Tracks how far into the file the reader is, for progress reporting
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count = new AtomicLong();
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+
+        long getCount() {
+            return count.get();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.smartquiz.importer;
+
+import com.smartquiz.models.Question;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns a raw import record into a validated {@link Question}.
+ * Column names are matched loosely (case, spaces, camelCase and a few aliases such as "question" or
+ * "answer"), the correct answer may be given as 0-3 or A-D, and a missing difficulty defaults to medium.
+ */
+final class QuestionRowMapper {
+    /** Canonical column order, also used for the rejected-rows report */
+    static final List<String> COLUMNS = List.of(
+        "category", "question_text", "option_a", "option_b", "option_c", "option_d", "correct_answer", "difficulty");
+
+    /** Set by readers when a CSV row has more fields than the header */
+    static final String EXTRA_FIELDS = "\u0000extra_fields";
+    /** Set by readers when a JSON "options" array does not have exactly four entries */
+    static final String OPTION_COUNT = "\u0000option_count";
+
+    private static final Map<String, String> ALIASES = new HashMap<>();
+    // Raw header name -> canonical column ("" if unknown); files repeat the same few names
+    private static final Map<String, String> RESOLVED = new ConcurrentHashMap<>();
+
+    static {
+        for (String column : COLUMNS) {
+            ALIASES.put(column, column);
+        }
+        ALIASES.put("question", "question_text");
+        ALIASES.put("text", "question_text");
+        ALIASES.put("a", "option_a");
+        ALIASES.put("b", "option_b");
+        ALIASES.put("c", "option_c");
+        ALIASES.put("d", "option_d");
+        ALIASES.put("answer", "correct_answer");
+        ALIASES.put("correct", "correct_answer");
+        ALIASES.put("level", "difficulty");
+    }
+
+    private QuestionRowMapper() {}
+
+    /**
+     * Rename the fields of a raw record to the canonical column names, dropping unknown ones
+     */
+    static Map<String, String> normalize(Map<String, String> raw) {
+        Map<String, String> fields = new HashMap<>();
+        for (Map.Entry<String, String> entry : raw.entrySet()) {
+            String key = entry.getKey();
+            String column = key.startsWith("\u0000")
+                ? key
+                : RESOLVED.computeIfAbsent(key, k -> ALIASES.getOrDefault(canonicalName(k), ""));
+            if (!column.isEmpty()) {
+                fields.put(column, entry.getValue());
+            }
+        }
+        return fields;
+    }
+
+    private static String canonicalName(String name) {
+        String snake = name.trim().replaceAll("([a-z0-9])([A-Z])", "$1_$2");
+        return snake.toLowerCase(Locale.ROOT).replaceAll("[\\s\\-]+", "_");
+    }
+
+    /**
+     * @param fields a record already passed through {@link #normalize}
+     * @throws IllegalArgumentException with a readable reason when the row cannot be imported
+     */
+    static Question map(Map<String, String> fields) {
+        if (fields.containsKey(EXTRA_FIELDS)) {
+            throw new IllegalArgumentException(fields.get(EXTRA_FIELDS) + " more field(s) than the header");
+        }
+        if (fields.containsKey(OPTION_COUNT)) {
+            throw new IllegalArgumentException("options must have 4 entries, got " + fields.get(OPTION_COUNT));
+        }
+
+        Question question = new Question(
+            text(fields, "category"),
+            text(fields, "question_text"),
+            text(fields, "option_a"),
+            text(fields, "option_b"),
+            text(fields, "option_c"),
+            text(fields, "option_d"),
+            correctAnswer(fields.get("correct_answer")),
+            difficulty(fields.get("difficulty")));
+
+        List<String> problems = question.validate();
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", problems));
+        }
+        return question;
+    }
+
+    private static String text(Map<String, String> fields, String column) {
+        String value = fields.get(column);
+        return value == null ? null : value.trim();
+    }
+
+    private static int correctAnswer(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("correct answer is required");
+        }
+        String answer = value.trim();
+        if (answer.length() == 1) {
+            char letter = Character.toUpperCase(answer.charAt(0));
+            if (letter >= 'A' && letter <= 'D') {
+                return letter - 'A';
+            }
+        }
+        try {
+            return Integer.parseInt(answer);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("correct answer must be 0-3 or A-D, got '" + answer + "'");
+        }
+    }
+
+    private static String difficulty(String value) {
+        if (value == null || value.isBlank()) {
+            return "medium";
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,22 @@
+package com.smartquiz.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Streams raw records (field name to text value) out of an import file, one at a time
+ */
+interface RecordReader extends Closeable {
+
+    /**
+     * @return the next record, or null at the end of the input
+     * @throws IOException on I/O errors or input too malformed to continue
+     */
+    Map<String, String> next() throws IOException;
+
+    /**
+     * Line on which the record last returned by {@link #next()} starts (1-based)
+     */
+    long getLine();
+}
@@ -0,0 +1,112 @@
+package com.smartquiz.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide registry of operation metrics.
+ * Code on a hot path looks its {@link OperationMetrics} up once (or by name per call: a lock-free
+ * map read) and records each call with {@link OperationMetrics#record}. The registry is published
+ * over JMX and can print a report periodically ({@code smartquiz.metrics.reportSeconds}, 0 to turn off).
+ */
+public final class Metrics {
+    public static final String OBJECT_NAME = "com.smartquiz:type=Metrics";
+
+    private static final Map<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+    private static final Bean BEAN = new Bean();
+    private static boolean published;
+
+    private Metrics() {}
+
+    /**
+     * The metrics of an operation, created on first use
+     */
+    public static OperationMetrics operation(String name) {
+        OperationMetrics metrics = OPERATIONS.get(name);
+        return metrics != null ? metrics : OPERATIONS.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    /**
+     * Statistics of every operation called so far, most total time first
+     */
+    public static List<OperationStats> snapshot() {
+        List<OperationStats> stats = new ArrayList<>();
+        for (OperationMetrics metrics : OPERATIONS.values()) {
+            OperationStats operation = metrics.snapshot();
+            if (operation.getCount() > 0) {
+                stats.add(operation);
+            }
+        }
+        stats.sort(Comparator.comparingDouble(OperationStats::getTotalMillis).reversed());
+        return stats;
+    }
+
+    public static String report() {
+        StringBuilder report = new StringBuilder(String.format("%-34s %9s %7s %10s %10s %10s %10s %11s %10s%n",
+            "operation (us)", "count", "errors", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        for (OperationStats operation : snapshot()) {
+            report.append(operation).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    public static void reset() {
+        for (OperationMetrics metrics : OPERATIONS.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Register the MBean and start the periodic report; later calls do nothing
+     */
+    public static synchronized void publish() {
+        if (published) {
+            return;
+        }
+        published = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(BEAN, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Metrics not published over JMX: " + e.getMessage());
+        }
+        long period = Long.getLong("smartquiz.metrics.reportSeconds", 300);
+        if (period > 0) {
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "smartquiz-metrics-report");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(() -> {
+                if (!OPERATIONS.isEmpty()) {
+                    System.out.print("[metrics]\n" + report());
+                }
+            }, period, period, TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class Bean implements MetricsMXBean {
+        @Override
+        public List<OperationStats> getOperations() {
+            return snapshot();
+        }
+
+        @Override
+        public String getReport() {
+            return report();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
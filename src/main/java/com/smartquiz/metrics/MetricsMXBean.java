@@ -0,0 +1,20 @@
+package com.smartquiz.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of the operation metrics, registered as {@value Metrics#OBJECT_NAME}
+ */
+public interface MetricsMXBean {
+    /**
+     * Every operation called so far, most total time first
+     */
+    List<OperationStats> getOperations();
+
+    /**
+     * The same as a text table
+     */
+    String getReport();
+
+    void reset();
+}
@@ -0,0 +1,43 @@
+package com.smartquiz.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and error count of one named operation
+ */
+public class OperationMetrics {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record one call that started at {@code startNanos} ({@link System#nanoTime()}) and ended now
+     */
+    public void record(long startNanos, boolean failed) {
+        latency.record(System.nanoTime() - startNanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public OperationStats snapshot() {
+        long[] percentiles = latency.quantiles(0.5, 0.9, 0.99, 0.999);
+        long count = latency.getCount();
+        return new OperationStats(name, count, errors.sum(),
+            count == 0 ? 0 : latency.getTotalNanos() / count,
+            percentiles[0], percentiles[1], percentiles[2], percentiles[3], latency.getMaxNanos());
+    }
+
+    void reset() {
+        latency.reset();
+        errors.reset();
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartquiz.metrics;
+
+/**
+ * Point-in-time statistics of one operation; times in microseconds
+ */
+public class OperationStats {
+    private final String name;
+    private final long count;
+    private final long errors;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    public OperationStats(String name, long count, long errors, long meanNanos, long p50Nanos, long p90Nanos,
+                          long p99Nanos, long p999Nanos, long maxNanos) {
+        this.name = name;
+        this.count = count;
+        this.errors = errors;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getMeanMicros() {
+        return meanNanos / 1000.0;
+    }
+
+    public double getP50Micros() {
+        return p50Nanos / 1000.0;
+    }
+
+    public double getP90Micros() {
+        return p90Nanos / 1000.0;
+    }
+
+    public double getP99Micros() {
+        return p99Nanos / 1000.0;
+    }
+
+    public double getP999Micros() {
+        return p999Nanos / 1000.0;
+    }
+
+    public double getMaxMicros() {
+        return maxNanos / 1000.0;
+    }
+
+    /**
+     * Total time spent in the operation, in milliseconds
+     */
+    public double getTotalMillis() {
+        return count * meanNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-34s %9d %7d %10.1f %10.1f %10.1f %10.1f %11.1f %10.1f",
+            name, count, errors, getMeanMicros(), getP50Micros(), getP90Micros(), getP99Micros(),
+            getP999Micros(), getMaxMicros());
+    }
+}
@@ -0,0 +1,36 @@
+package com.smartquiz.models;
+
+import java.util.List;
+
+/**
+ * DuplicateCluster model class: questions a bulk scan linked through chains of near-duplicates.
+ * Two members need not be near-duplicates of each other.
+ */
+public class DuplicateCluster {
+    private final List<Question> questions;
+    private final double similarity;
+
+    public DuplicateCluster(List<Question> questions, double similarity) {
+        this.questions = List.copyOf(questions);
+        this.similarity = similarity;
+    }
+
+    /** The questions of the cluster, oldest (lowest id) first */
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    /** Lowest shingle similarity (0-1) between the oldest question of the cluster and another member */
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    public int size() {
+        return questions.size();
+    }
+
+    @Override
+    public String toString() {
+        return questions.size() + " questions, " + String.format("%.2f", similarity) + ": " + questions.get(0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.smartquiz.models;
+
+/**
+ * ImportCheckpoint model class: how far a bulk question import of one source file has got.
+ * It is committed in the same transaction as the rows it covers, so resuming never skips or repeats rows.
+ */
+public class ImportCheckpoint {
+    private final String source;
+    private final String fingerprint;
+    private final long rowsDone;
+    private final long imported;
+    private final long rejected;
+    private final boolean completed;
+
+    public ImportCheckpoint(String source, String fingerprint, long rowsDone, long imported, long rejected,
+                            boolean completed) {
+        this.source = source;
+        this.fingerprint = fingerprint;
+        this.rowsDone = rowsDone;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.completed = completed;
+    }
+
+    /** Absolute path of the imported file */
+    public String getSource() {
+        return source;
+    }
+
+    /** Size and modification time of the file when the import started */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /** Records (imported or rejected) covered so far, counted from the start of the file */
+    public long getRowsDone() {
+        return rowsDone;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public ImportCheckpoint advance(long rows, long newlyImported, long newlyRejected) {
+        return new ImportCheckpoint(source, fingerprint, rowsDone + rows, imported + newlyImported,
+            rejected + newlyRejected, false);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportCheckpoint{" +
+                "source='" + source + '\'' +
+                ", rowsDone=" + rowsDone +
+                ", imported=" + imported +
+                ", rejected=" + rejected +
+                ", completed=" + completed +
+                '}';
+    }
+}
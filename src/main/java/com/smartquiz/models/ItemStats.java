@@ -0,0 +1,163 @@
+package com.smartquiz.models;
+
+/**
+ * ItemStats model class: running item statistics of one question, folded in attempt by attempt.
+ * Answer times go into a fixed log-scale histogram (each bucket 20% wider than the one before,
+ * from 0.25 s to about 40 minutes), so the median needs neither the raw times nor a sort and is
+ * accurate to within a bucket, about 10%.
+ */
+public class ItemStats {
+    public static final int TIME_BUCKETS = 48;
+    private static final double FIRST_BUCKET_MILLIS = 250;
+    private static final double BUCKET_GROWTH = 1.2;
+
+    private final int questionId;
+    private String questionText;
+    private int correctAnswer;
+    private int attempts;
+    private int correct;
+    private final int[] optionCounts = new int[4];
+    private int unanswered;
+    private final int[] timeHistogram = new int[TIME_BUCKETS];
+
+    public ItemStats(int questionId) {
+        this.questionId = questionId;
+    }
+
+    /**
+     * Fold one attempt in
+     */
+    public void add(QuestionAttempt attempt) {
+        attempts++;
+        if (attempt.isCorrect()) {
+            correct++;
+        }
+        if (attempt.getChosenOption() >= 0 && attempt.getChosenOption() < optionCounts.length) {
+            optionCounts[attempt.getChosenOption()]++;
+        } else {
+            unanswered++;
+        }
+        timeHistogram[bucketOf(attempt.getTimeMillis())]++;
+    }
+
+    /**
+     * Fold another set of statistics of the same question in
+     */
+    public void merge(ItemStats other) {
+        attempts += other.attempts;
+        correct += other.correct;
+        unanswered += other.unanswered;
+        for (int i = 0; i < optionCounts.length; i++) {
+            optionCounts[i] += other.optionCounts[i];
+        }
+        for (int i = 0; i < TIME_BUCKETS; i++) {
+            timeHistogram[i] += other.timeHistogram[i];
+        }
+    }
+
+    static int bucketOf(long millis) {
+        if (millis < FIRST_BUCKET_MILLIS) {
+            return 0;
+        }
+        int bucket = 1 + (int) (Math.log(millis / FIRST_BUCKET_MILLIS) / Math.log(BUCKET_GROWTH));
+        return Math.min(TIME_BUCKETS - 1, bucket);
+    }
+
+    /**
+     * Geometric middle of a bucket's range, used as the time of every attempt in it
+     */
+    static long bucketMillis(int bucket) {
+        if (bucket == 0) {
+            return (long) (FIRST_BUCKET_MILLIS / 2);
+        }
+        return Math.round(FIRST_BUCKET_MILLIS * Math.pow(BUCKET_GROWTH, bucket - 0.5));
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public String getQuestionText() {
+        return questionText;
+    }
+
+    public void setQuestionText(String questionText) {
+        this.questionText = questionText;
+    }
+
+    public int getCorrectAnswer() {
+        return correctAnswer;
+    }
+
+    public void setCorrectAnswer(int correctAnswer) {
+        this.correctAnswer = correctAnswer;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public int getCorrect() {
+        return correct;
+    }
+
+    public void setCorrect(int correct) {
+        this.correct = correct;
+    }
+
+    public int getUnanswered() {
+        return unanswered;
+    }
+
+    public void setUnanswered(int unanswered) {
+        this.unanswered = unanswered;
+    }
+
+    public int getOptionCount(int option) {
+        return optionCounts[option];
+    }
+
+    public void setOptionCount(int option, int count) {
+        optionCounts[option] = count;
+    }
+
+    /**
+     * The live histogram; callers may fill it when loading stored statistics
+     */
+    public int[] getTimeHistogram() {
+        return timeHistogram;
+    }
+
+    /**
+     * Share of attempts answered correctly (the classical item difficulty), or NaN without attempts
+     */
+    public double getPValue() {
+        return attempts == 0 ? Double.NaN : (double) correct / attempts;
+    }
+
+    /**
+     * Share of attempts that chose {@code option}
+     */
+    public double getOptionShare(int option) {
+        return attempts == 0 ? 0.0 : (double) optionCounts[option] / attempts;
+    }
+
+    /**
+     * Median time on the question, or 0 without attempts
+     */
+    public long getMedianTimeMillis() {
+        int half = (attempts + 1) / 2;
+        int seen = 0;
+        for (int bucket = 0; bucket < TIME_BUCKETS; bucket++) {
+            seen += timeHistogram[bucket];
+            if (seen >= half && seen > 0) {
+                return bucketMillis(bucket);
+            }
+        }
+        return 0;
+    }
+}
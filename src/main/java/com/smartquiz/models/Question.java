@@ -1,9 +1,19 @@
 package com.smartquiz.models;
 
+import com.smartquiz.utils.SqlTimestamps;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Question model class representing a quiz question
+ * Question model class representing a quiz question.
+ * Category and difficulty are shared through {@link StringDictionary} and the creation time is kept
+ * as epoch seconds, so a large in-memory bank only pays for the text that differs per question.
  */
 public class Question {
+    public static final List<String> DIFFICULTIES = List.of("easy", "medium", "hard");
+
     private int id;
     private String category;
     private String questionText;
@@ -13,21 +23,21 @@ public class Question {
     private String optionD;
     private int correctAnswer; // 0=A, 1=B, 2=C, 3=D
     private String difficulty; // "easy", "medium", "hard"
-    private String createdAt;
+    private long createdAt = SqlTimestamps.NONE; // epoch seconds
 
     // Constructors
     public Question() {}
 
     public Question(String category, String questionText, String optionA, String optionB,
                    String optionC, String optionD, int correctAnswer, String difficulty) {
-        this.category = category;
+        this.category = StringDictionary.CATEGORIES.intern(category);
         this.questionText = questionText;
         this.optionA = optionA;
         this.optionB = optionB;
         this.optionC = optionC;
         this.optionD = optionD;
         this.correctAnswer = correctAnswer;
-        this.difficulty = difficulty;
+        this.difficulty = StringDictionary.DIFFICULTIES.intern(difficulty);
     }
 
     // Getters and Setters
@@ -44,7 +54,7 @@ public class Question {
     }
 
     public void setCategory(String category) {
-        this.category = category;
+        this.category = StringDictionary.CATEGORIES.intern(category);
     }
 
     public String getQuestionText() {
@@ -100,29 +110,89 @@ public class Question {
     }
 
     public void setDifficulty(String difficulty) {
-        this.difficulty = difficulty;
+        this.difficulty = StringDictionary.DIFFICULTIES.intern(difficulty);
     }
 
+    /**
+     * Creation time in SQLite's text form, or null if the question is not stored yet
+     */
     public String getCreatedAt() {
-        return createdAt;
+        return SqlTimestamps.format(createdAt);
     }
 
     public void setCreatedAt(String createdAt) {
+        this.createdAt = SqlTimestamps.parse(createdAt);
+    }
+
+    public long getCreatedAtEpochSecond() {
+        return createdAt;
+    }
+
+    public void setCreatedAtEpochSecond(long createdAt) {
         this.createdAt = createdAt;
     }
 
-    public String[] getOptions() {
-        return new String[]{optionA, optionB, optionC, optionD};
+    /**
+     * Option text by index (0=A .. 3=D), without copying the options
+     */
+    public String getOption(int index) {
+        switch (index) {
+            case 0: return optionA;
+            case 1: return optionB;
+            case 2: return optionC;
+            case 3: return optionD;
+            default: throw new IndexOutOfBoundsException("Option index " + index + " out of range 0-3");
+        }
+    }
+
+    /**
+     * Read-only view of the four options; reflects later setOption* calls
+     */
+    public List<String> getOptions() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return getOption(index);
+            }
+
+            @Override
+            public int size() {
+                return 4;
+            }
+        };
     }
 
     public String getCorrectOptionText() {
-        String[] options = getOptions();
-        if (correctAnswer >= 0 && correctAnswer < options.length) {
-            return options[correctAnswer];
+        if (correctAnswer >= 0 && correctAnswer < 4) {
+            return getOption(correctAnswer);
         }
         return "";
     }
 
+    /**
+     * Check the fields the database and quiz UI rely on
+     * @return problems found, empty if the question is valid
+     */
+    public List<String> validate() {
+        List<String> problems = new ArrayList<>();
+        if (isBlank(category)) problems.add("category is required");
+        if (isBlank(questionText)) problems.add("question text is required");
+        for (int i = 0; i < 4; i++) {
+            if (isBlank(getOption(i))) problems.add("option " + (char) ('A' + i) + " is required");
+        }
+        if (correctAnswer < 0 || correctAnswer > 3) {
+            problems.add("correct answer must be 0-3 (A-D), got " + correctAnswer);
+        }
+        if (!DIFFICULTIES.contains(difficulty)) {
+            problems.add("difficulty must be one of " + DIFFICULTIES + ", got '" + difficulty + "'");
+        }
+        return problems;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
     @Override
     public String toString() {
         return "Question{" +
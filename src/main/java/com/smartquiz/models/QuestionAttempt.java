@@ -0,0 +1,52 @@
+package com.smartquiz.models;
+
+/**
+ * QuestionAttempt model class: one answer given in a quiz
+ */
+public class QuestionAttempt {
+    private final int userId;
+    private final int questionId;
+    private final int chosenOption;
+    private final boolean correct;
+    private final long timeMillis;
+    private final long answeredAt;
+
+    /**
+     * @param chosenOption 0-3, or -1 if the question was left unanswered
+     * @param timeMillis time the question was on screen, summed over every visit
+     * @param answeredAt epoch seconds
+     */
+    public QuestionAttempt(int userId, int questionId, int chosenOption, boolean correct, long timeMillis,
+                           long answeredAt) {
+        this.userId = userId;
+        this.questionId = questionId;
+        this.chosenOption = chosenOption;
+        this.correct = correct;
+        this.timeMillis = timeMillis;
+        this.answeredAt = answeredAt;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public int getChosenOption() {
+        return chosenOption;
+    }
+
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getAnsweredAt() {
+        return answeredAt;
+    }
+}
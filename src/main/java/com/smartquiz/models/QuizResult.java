@@ -1,7 +1,10 @@
 package com.smartquiz.models;
 
+import com.smartquiz.utils.SqlTimestamps;
+
 /**
- * QuizResult model class representing a completed quiz result
+ * QuizResult model class representing a completed quiz result.
+ * Repeating strings are shared through {@link StringDictionary}; the completion time is epoch seconds.
  */
 public class QuizResult {
     private int id;
@@ -11,7 +14,8 @@ public class QuizResult {
     private int totalQuestions;
     private int timeSpent; // in seconds
     private String difficulty;
-    private String completedAt;
+    private long completedAt = SqlTimestamps.NONE; // epoch seconds
+    private String username; // denormalized for leaderboards, not stored in quiz_results
 
     // Constructors
     public QuizResult() {}
@@ -19,11 +23,11 @@ public class QuizResult {
     public QuizResult(int userId, String category, int score, int totalQuestions,
                      int timeSpent, String difficulty) {
         this.userId = userId;
-        this.category = category;
+        this.category = StringDictionary.CATEGORIES.intern(category);
         this.score = score;
         this.totalQuestions = totalQuestions;
         this.timeSpent = timeSpent;
-        this.difficulty = difficulty;
+        this.difficulty = StringDictionary.DIFFICULTIES.intern(difficulty);
     }
 
     // Getters and Setters
@@ -48,7 +52,7 @@ public class QuizResult {
     }
 
     public void setCategory(String category) {
-        this.category = category;
+        this.category = StringDictionary.CATEGORIES.intern(category);
     }
 
     public int getScore() {
@@ -80,17 +84,36 @@ public class QuizResult {
     }
 
     public void setDifficulty(String difficulty) {
-        this.difficulty = difficulty;
+        this.difficulty = StringDictionary.DIFFICULTIES.intern(difficulty);
     }
 
+    /**
+     * Completion time in SQLite's text form, or null if the result is not stored yet
+     */
     public String getCompletedAt() {
-        return completedAt;
+        return SqlTimestamps.format(completedAt);
     }
 
     public void setCompletedAt(String completedAt) {
+        this.completedAt = SqlTimestamps.parse(completedAt);
+    }
+
+    public long getCompletedAtEpochSecond() {
+        return completedAt;
+    }
+
+    public void setCompletedAtEpochSecond(long completedAt) {
         this.completedAt = completedAt;
     }
 
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = StringDictionary.USERNAMES.intern(username);
+    }
+
     public double getPercentage() {
         if (totalQuestions == 0) return 0.0;
         return (double) score / totalQuestions * 100.0;
@@ -116,7 +139,7 @@ public class QuizResult {
                 ", totalQuestions=" + totalQuestions +
                 ", percentage=" + String.format("%.1f", getPercentage()) + "%" +
                 ", grade='" + getGrade() + '\'' +
-                ", completedAt='" + completedAt + '\'' +
+                ", completedAt='" + getCompletedAt() + '\'' +
                 '}';
     }
 }
\ No newline at end of file
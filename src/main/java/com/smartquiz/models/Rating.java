@@ -0,0 +1,58 @@
+package com.smartquiz.models;
+
+/**
+ * Rating model class: an Elo-style rating of a user's ability or a question's difficulty,
+ * with the number of answers it is based on
+ */
+public class Rating {
+    public static final double INITIAL = 1500.0;
+
+    public enum Subject { USER, QUESTION }
+
+    private final Subject subject;
+    private final int id;
+    private final double rating;
+    private final int answers;
+
+    public Rating(Subject subject, int id, double rating, int answers) {
+        this.subject = subject;
+        this.id = id;
+        this.rating = rating;
+        this.answers = answers;
+    }
+
+    /**
+     * Starting rating of a question nobody has answered yet, from its authored difficulty
+     */
+    public static double initialQuestionRating(String difficulty) {
+        if (difficulty == null) {
+            return INITIAL;
+        }
+        return switch (difficulty) {
+            case "easy" -> INITIAL - 200;
+            case "hard" -> INITIAL + 200;
+            default -> INITIAL;
+        };
+    }
+
+    public Subject getSubject() {
+        return subject;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public int getAnswers() {
+        return answers;
+    }
+
+    @Override
+    public String toString() {
+        return subject + " " + id + ": " + Math.round(rating) + " (" + answers + " answers)";
+    }
+}
@@ -0,0 +1,49 @@
+package com.smartquiz.models;
+
+/**
+ * ReviewItem model class: when a user should see a question again, with the SM-2 state behind it
+ */
+public class ReviewItem {
+    private final int questionId;
+    private final long dueAt;
+    private final int intervalDays;
+    private final int ease;
+    private final int repetitions;
+
+    /**
+     * @param dueAt epoch seconds
+     * @param ease SM-2 easiness factor in hundredths (250 = 2.5)
+     * @param repetitions correct answers in a row
+     */
+    public ReviewItem(int questionId, long dueAt, int intervalDays, int ease, int repetitions) {
+        this.questionId = questionId;
+        this.dueAt = dueAt;
+        this.intervalDays = intervalDays;
+        this.ease = ease;
+        this.repetitions = repetitions;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public long getDueAt() {
+        return dueAt;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public int getEase() {
+        return ease;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public boolean isDue(long nowEpochSecond) {
+        return dueAt <= nowEpochSecond;
+    }
+}
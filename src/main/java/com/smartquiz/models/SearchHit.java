@@ -0,0 +1,48 @@
+package com.smartquiz.models;
+
+/**
+ * SearchHit model class: a question found by a search, how it matched and how well
+ */
+public class SearchHit {
+
+    public enum Match {
+        /** Every search word occurs in the question text or options */
+        WORDS,
+        /** Near match on three-letter sequences of the text, e.g. despite a typo */
+        SIMILAR,
+        /** Near-duplicate of a given question: nearly the same text and options */
+        DUPLICATE
+    }
+
+    private final Question question;
+    private final Match match;
+    private final double score;
+
+    /**
+     * @param score higher is better; BM25 relevance for word matches, the share of the search's
+     *              three-letter sequences found in the text (0-1) for similar ones, the shingle
+     *              similarity of text and options (0-1) for duplicates
+     */
+    public SearchHit(Question question, Match match, double score) {
+        this.question = question;
+        this.match = match;
+        this.score = score;
+    }
+
+    public Question getQuestion() {
+        return question;
+    }
+
+    public Match getMatch() {
+        return match;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return match + " " + String.format("%.2f", score) + ": " + question;
+    }
+}
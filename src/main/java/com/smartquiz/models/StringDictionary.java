@@ -0,0 +1,32 @@
+package com.smartquiz.models;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances for strings that repeat across many model objects.
+ * A million questions share a handful of categories; without this, every row read from the database
+ * carries its own copy of the same few strings. Values are never evicted, so use it only for
+ * small, naturally bounded vocabularies.
+ */
+public final class StringDictionary {
+    public static final StringDictionary CATEGORIES = new StringDictionary();
+    public static final StringDictionary DIFFICULTIES = new StringDictionary();
+    public static final StringDictionary USERNAMES = new StringDictionary();
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+    /**
+     * The shared instance equal to {@code value} (null stays null)
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = values.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,137 @@
+package com.smartquiz.models;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * UserStats model class: a user's dashboard summary, maintained incrementally as results are saved
+ */
+public class UserStats {
+    private int userId;
+    private int totalQuizzes;
+    private double percentageSum;
+    private int bestResultId;
+    private double bestPercentage;
+    private String bestCategory;
+    private Map<String, CategoryStats> categories = new LinkedHashMap<>();
+
+    // Constructors
+    public UserStats() {}
+
+    public UserStats(int userId) {
+        this.userId = userId;
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getTotalQuizzes() {
+        return totalQuizzes;
+    }
+
+    public void setTotalQuizzes(int totalQuizzes) {
+        this.totalQuizzes = totalQuizzes;
+    }
+
+    public double getPercentageSum() {
+        return percentageSum;
+    }
+
+    public void setPercentageSum(double percentageSum) {
+        this.percentageSum = percentageSum;
+    }
+
+    public int getBestResultId() {
+        return bestResultId;
+    }
+
+    public void setBestResultId(int bestResultId) {
+        this.bestResultId = bestResultId;
+    }
+
+    public double getBestPercentage() {
+        return bestPercentage;
+    }
+
+    public void setBestPercentage(double bestPercentage) {
+        this.bestPercentage = bestPercentage;
+    }
+
+    public String getBestCategory() {
+        return bestCategory;
+    }
+
+    public void setBestCategory(String bestCategory) {
+        this.bestCategory = bestCategory;
+    }
+
+    public Map<String, CategoryStats> getCategories() {
+        return Collections.unmodifiableMap(categories);
+    }
+
+    public void addCategory(CategoryStats stats) {
+        categories.put(stats.getCategory(), stats);
+    }
+
+    public double getAveragePercentage() {
+        if (totalQuizzes == 0) return 0.0;
+        return percentageSum / totalQuizzes;
+    }
+
+    public boolean hasResults() {
+        return totalQuizzes > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "UserStats{" +
+                "userId=" + userId +
+                ", totalQuizzes=" + totalQuizzes +
+                ", average=" + String.format("%.1f", getAveragePercentage()) + "%" +
+                ", best=" + String.format("%.1f", bestPercentage) + "%" +
+                ", bestCategory='" + bestCategory + '\'' +
+                ", categories=" + categories.keySet() +
+                '}';
+    }
+
+    /**
+     * Per-category breakdown of a user's results
+     */
+    public static class CategoryStats {
+        private final String category;
+        private final int quizCount;
+        private final double percentageSum;
+        private final double bestPercentage;
+
+        public CategoryStats(String category, int quizCount, double percentageSum, double bestPercentage) {
+            this.category = category;
+            this.quizCount = quizCount;
+            this.percentageSum = percentageSum;
+            this.bestPercentage = bestPercentage;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public int getQuizCount() {
+            return quizCount;
+        }
+
+        public double getAveragePercentage() {
+            if (quizCount == 0) return 0.0;
+            return percentageSum / quizCount;
+        }
+
+        public double getBestPercentage() {
+            return bestPercentage;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.smartquiz.repository;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.models.Question;
+import com.smartquiz.models.QuizResult;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * SQLite repository whose hot reads are served from memory: random questions and lookups by id come
+ * from the resident question bank, top scores from the leaderboards, and results are committed through
+ * the write-behind queue so concurrent submissions share a commit. All of these are kept current by
+ * {@link DatabaseManager} itself, so writes made through any repository over the same manager are seen.
+ * Questions are returned as copies, so a caller that edits one does not change the bank.
+ */
+public class CachedQuizRepository extends SqliteQuizRepository {
+
+    public CachedQuizRepository(DatabaseManager db) {
+        super(db);
+    }
+
+    @Override
+    public List<Question> getRandomQuestions(int count, String category, String difficulty) throws SQLException {
+        return db.getRandomQuestions(count, category, difficulty);
+    }
+
+    @Override
+    public Question getQuestionById(int questionId) throws SQLException {
+        return db.getQuestionById(questionId);
+    }
+
+    @Override
+    public void saveQuizResult(QuizResult result) throws SQLException {
+        try {
+            db.submitQuizResult(result).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while saving quiz result", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Failed to save quiz result", e.getCause());
+        }
+    }
+
+    @Override
+    public List<QuizResult> getTopScores(String category, int limit) throws SQLException {
+        return db.getTopScores(category, limit);
+    }
+}
@@ -0,0 +1,186 @@
+package com.smartquiz.repository;
+
+import com.smartquiz.database.QuestionBank;
+import com.smartquiz.models.Question;
+import com.smartquiz.models.QuizResult;
+import com.smartquiz.models.User;
+import com.smartquiz.utils.PasswordUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Repository held entirely in memory, for tests and benchmarks that should not touch a database file.
+ * It follows the SQLite repositories' contracts (ids and timestamps are assigned on insert, usernames
+ * and emails are unique, passwords are checked with BCrypt) but nothing survives the instance.
+ * Stored objects are copies, so callers can keep modifying the ones they passed in.
+ */
+public class InMemoryQuizRepository implements QuizRepository {
+    private final Map<Integer, Question> questions = new TreeMap<>();
+    private final QuestionBank bank = new QuestionBank(List.of());
+    private final Map<String, User> usersByName = new HashMap<>();
+    private final Map<Integer, User> usersById = new HashMap<>();
+    private final List<QuizResult> results = new ArrayList<>();
+    private int nextQuestionId = 1;
+    private int nextUserId = 1;
+    private int nextResultId = 1;
+
+    @Override
+    public List<Question> getRandomQuestions(int count, String category, String difficulty) {
+        List<Question> picked = new ArrayList<>();
+        for (Question question : bank.getRandom(count, category, difficulty)) {
+            picked.add(copyOf(question));
+        }
+        return picked;
+    }
+
+    @Override
+    public synchronized Question getQuestionById(int questionId) {
+        Question question = questions.get(questionId);
+        return question != null ? copyOf(question) : null;
+    }
+
+    @Override
+    public synchronized void insertQuestion(Question question) {
+        question.setId(nextQuestionId++);
+        question.setCreatedAtEpochSecond(now());
+        store(question);
+    }
+
+    @Override
+    public synchronized boolean updateQuestion(Question question) {
+        Question previous = questions.get(question.getId());
+        if (previous == null) {
+            return false;
+        }
+        question.setCreatedAtEpochSecond(previous.getCreatedAtEpochSecond());
+        store(question);
+        return true;
+    }
+
+    @Override
+    public synchronized void deleteQuestion(int questionId) {
+        if (questions.remove(questionId) != null) {
+            bank.remove(questionId);
+        }
+    }
+
+    @Override
+    public synchronized List<String> getCategories() {
+        TreeSet<String> categories = new TreeSet<>();
+        for (Question question : questions.values()) {
+            categories.add(question.getCategory());
+        }
+        return new ArrayList<>(categories);
+    }
+
+    @Override
+    public synchronized int getQuestionCount() {
+        return questions.size();
+    }
+
+    @Override
+    public User authenticateUser(String username, String password) {
+        User user;
+        synchronized (this) {
+            user = usersByName.get(username);
+        }
+        // BCrypt outside the lock, as DatabaseManager does outside its connection
+        if (user != null && PasswordUtils.verifyPassword(password, user.getPasswordHash())) {
+            return user;
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized boolean userExists(String username) {
+        return usersByName.containsKey(username);
+    }
+
+    @Override
+    public synchronized void insertUser(String username, String email, String passwordHash, String role) throws SQLException {
+        if (usersByName.containsKey(username)) {
+            throw new SQLException("UNIQUE constraint failed: users.username");
+        }
+        for (User user : usersById.values()) {
+            if (user.getEmail().equals(email)) {
+                throw new SQLException("UNIQUE constraint failed: users.email");
+            }
+        }
+        User user = new User(nextUserId++, username, email, passwordHash, role, null);
+        usersByName.put(username, user);
+        usersById.put(user.getId(), user);
+    }
+
+    @Override
+    public synchronized void saveQuizResult(QuizResult result) {
+        result.setId(nextResultId++);
+        result.setCompletedAtEpochSecond(now());
+        results.add(copyOf(result));
+    }
+
+    @Override
+    public synchronized List<QuizResult> getUserResults(int userId) {
+        List<QuizResult> found = new ArrayList<>();
+        for (int i = results.size() - 1; i >= 0; i--) {
+            if (results.get(i).getUserId() == userId) {
+                found.add(copyOf(results.get(i)));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized List<QuizResult> getTopScores(String category, int limit) {
+        List<QuizResult> found = new ArrayList<>();
+        for (QuizResult result : results) {
+            User user = usersById.get(result.getUserId());
+            if (result.getCategory().equals(category) && user != null) {
+                QuizResult copy = copyOf(result);
+                copy.setUsername(user.getUsername());
+                found.add(copy);
+            }
+        }
+        found.sort(Comparator.comparingDouble(InMemoryQuizRepository::ratio).reversed()
+            .thenComparingInt(QuizResult::getTimeSpent));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    private void store(Question question) {
+        Question copy = copyOf(question);
+        questions.put(copy.getId(), copy);
+        bank.add(copy);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static double ratio(QuizResult result) {
+        return result.getTotalQuestions() == 0 ? -1.0 : (double) result.getScore() / result.getTotalQuestions();
+    }
+
+    private static Question copyOf(Question source) {
+        Question copy = new Question(source.getCategory(), source.getQuestionText(),
+            source.getOptionA(), source.getOptionB(), source.getOptionC(), source.getOptionD(),
+            source.getCorrectAnswer(), source.getDifficulty());
+        copy.setId(source.getId());
+        copy.setCreatedAtEpochSecond(source.getCreatedAtEpochSecond());
+        return copy;
+    }
+
+    private static QuizResult copyOf(QuizResult source) {
+        QuizResult copy = new QuizResult(source.getUserId(), source.getCategory(), source.getScore(),
+            source.getTotalQuestions(), source.getTimeSpent(), source.getDifficulty());
+        copy.setId(source.getId());
+        copy.setCompletedAtEpochSecond(source.getCompletedAtEpochSecond());
+        copy.setUsername(source.getUsername());
+        return copy;
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartquiz.repository;
+
+import com.smartquiz.models.Question;
+import com.smartquiz.models.QuizResult;
+import com.smartquiz.models.User;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Storage for questions, users and quiz results.
+ * Implementations are interchangeable: {@link SqliteQuizRepository} reads the database on every call,
+ * {@link CachedQuizRepository} serves hot reads from memory on top of it, and
+ * {@link InMemoryQuizRepository} keeps everything in memory for tests and benchmarks.
+ * Calls may block (SQLite, BCrypt); UI code runs them off the event dispatch thread.
+ */
+public interface QuizRepository {
+
+    // Questions
+
+    /**
+     * Up to {@code count} distinct random questions; a null or empty category/difficulty matches everything
+     */
+    List<Question> getRandomQuestions(int count, String category, String difficulty) throws SQLException;
+
+    /**
+     * The question with this id, or null
+     */
+    Question getQuestionById(int questionId) throws SQLException;
+
+    /**
+     * Store a new question and set its id and creation time
+     */
+    void insertQuestion(Question question) throws SQLException;
+
+    /**
+     * Replace the stored question with the same id
+     * @return false if there is no such question
+     */
+    boolean updateQuestion(Question question) throws SQLException;
+
+    void deleteQuestion(int questionId) throws SQLException;
+
+    /**
+     * Distinct categories in alphabetical order
+     */
+    List<String> getCategories() throws SQLException;
+
+    int getQuestionCount() throws SQLException;
+
+    // Users
+
+    /**
+     * The user with these credentials, or null if the username is unknown or the password is wrong
+     */
+    User authenticateUser(String username, String password) throws SQLException;
+
+    boolean userExists(String username) throws SQLException;
+
+    /**
+     * @throws SQLException if the username or email is already taken
+     */
+    void insertUser(String username, String email, String passwordHash, String role) throws SQLException;
+
+    // Results
+
+    /**
+     * Store a result and set its id and completion time; it is durable when this returns
+     */
+    void saveQuizResult(QuizResult result) throws SQLException;
+
+    /**
+     * A user's results, newest first
+     */
+    List<QuizResult> getUserResults(int userId) throws SQLException;
+
+    /**
+     * Best results for a category (highest percentage, then fastest), with usernames filled in
+     */
+    List<QuizResult> getTopScores(String category, int limit) throws SQLException;
+}
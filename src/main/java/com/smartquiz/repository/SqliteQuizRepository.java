@@ -0,0 +1,93 @@
+package com.smartquiz.repository;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.database.QuestionSampler;
+import com.smartquiz.models.Question;
+import com.smartquiz.models.QuizResult;
+import com.smartquiz.models.User;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Repository that reads SQLite on every call, through the {@link DatabaseManager} connection pool.
+ * Random questions are picked from the matching ids in memory ({@link QuestionSampler}), never with
+ * {@code ORDER BY RANDOM()}; no question bank or leaderboard is kept.
+ */
+public class SqliteQuizRepository implements QuizRepository {
+    protected final DatabaseManager db;
+
+    public SqliteQuizRepository(DatabaseManager db) {
+        this.db = db;
+    }
+
+    public DatabaseManager getDatabaseManager() {
+        return db;
+    }
+
+    @Override
+    public List<Question> getRandomQuestions(int count, String category, String difficulty) throws SQLException {
+        return db.getQuestionsByIds(QuestionSampler.sample(db.getQuestionIds(category, difficulty), count));
+    }
+
+    @Override
+    public Question getQuestionById(int questionId) throws SQLException {
+        List<Question> found = db.getQuestionsByIds(new int[]{questionId});
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public void insertQuestion(Question question) throws SQLException {
+        db.insertQuestion(question);
+    }
+
+    @Override
+    public boolean updateQuestion(Question question) throws SQLException {
+        return db.updateQuestion(question);
+    }
+
+    @Override
+    public void deleteQuestion(int questionId) throws SQLException {
+        db.deleteQuestion(questionId);
+    }
+
+    @Override
+    public List<String> getCategories() throws SQLException {
+        return db.getCategories();
+    }
+
+    @Override
+    public int getQuestionCount() throws SQLException {
+        return db.getQuestionCount();
+    }
+
+    @Override
+    public User authenticateUser(String username, String password) throws SQLException {
+        return db.authenticateUser(username, password);
+    }
+
+    @Override
+    public boolean userExists(String username) throws SQLException {
+        return db.userExists(username);
+    }
+
+    @Override
+    public void insertUser(String username, String email, String passwordHash, String role) throws SQLException {
+        db.insertUser(username, email, passwordHash, role);
+    }
+
+    @Override
+    public void saveQuizResult(QuizResult result) throws SQLException {
+        db.insertQuizResult(result);
+    }
+
+    @Override
+    public List<QuizResult> getUserResults(int userId) throws SQLException {
+        return db.getUserResults(userId);
+    }
+
+    @Override
+    public List<QuizResult> getTopScores(String category, int limit) throws SQLException {
+        return db.queryTopScores(category, limit);
+    }
+}
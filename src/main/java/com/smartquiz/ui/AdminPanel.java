@@ -1,36 +1,61 @@
 package com.smartquiz.ui;
 
-import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.database.AsyncDatabaseManager;
+import com.smartquiz.database.QuestionChangeEvent;
+import com.smartquiz.database.QuestionChangeListener;
+import com.smartquiz.database.QuestionQuery;
 import com.smartquiz.models.Question;
+import com.smartquiz.models.SearchHit;
 import com.smartquiz.models.User;
+import com.smartquiz.utils.SwingAsync;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.TableColumnModel;
 import java.awt.*;
-import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Admin Panel for managing questions and viewing statistics
  */
 public class AdminPanel extends JFrame {
+    // Near-duplicates listed when a new or edited question resembles stored ones
+    private static final int MAX_DUPLICATES_SHOWN = 5;
     private User currentUser;
-    private DatabaseManager dbManager;
+    private AsyncDatabaseManager dbManager;
     private JTable questionsTable;
-    private DefaultTableModel tableModel;
+    private QuestionTableModel tableModel;
     private JLabel statsLabel;
+    private JTextField searchField;
+    private JComboBox<String> categoryFilter;
+    private JComboBox<String> difficultyFilter;
+    private JLabel matchCountLabel;
+    private Timer searchDelay;
+    // Questions per category, kept current from question change events
+    private Map<String, Integer> categoryCounts;
+    private final QuestionChangeListener statsListener =
+        event -> SwingUtilities.invokeLater(() -> updateStats(event));
 
     public AdminPanel(User user) {
         this.currentUser = user;
-        this.dbManager = DatabaseManager.getInstance();
+        this.dbManager = AsyncDatabaseManager.getInstance();
         
         initializeComponents();
         setupLayout();
         setupEvents();
-        loadQuestions();
-        updateStats();
+        dbManager.getDatabaseManager().addQuestionListener(statsListener);
+        refresh();
+        // Build the near-duplicate index now so the first save does not wait for it
+        dbManager.prepareDuplicateCheck().exceptionally(e -> {
+            System.err.println("Near-duplicate check unavailable: " + e.getMessage());
+            return null;
+        });
         
         setTitle("SmartQuiz - Admin Panel");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -39,18 +64,21 @@ public class AdminPanel extends JFrame {
     }
 
     private void initializeComponents() {
-        // Table setup
-        String[] columnNames = {"ID", "Category", "Question", "Difficulty", "Correct Answer"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Table setup: rows are paged in from the database as they are scrolled into view
+        tableModel = new QuestionTableModel(dbManager);
         questionsTable = new JTable(tableModel);
         questionsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         questionsTable.getColumnModel().getColumn(2).setPreferredWidth(300);
 
+        // Filters
+        searchField = new JTextField(15);
+        categoryFilter = new JComboBox<>(new String[]{"All Categories"});
+        difficultyFilter = new JComboBox<>(new String[]{"All Difficulties", "easy", "medium", "hard"});
+        matchCountLabel = new JLabel();
+        // Query once typing pauses rather than on every keystroke
+        searchDelay = new Timer(300, e -> applyFilter());
+        searchDelay.setRepeats(false);
+
         statsLabel = new JLabel();
         statsLabel.setFont(new Font("Arial", Font.BOLD, 14));
         statsLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -98,6 +126,10 @@ public class AdminPanel extends JFrame {
         JButton editQuestionBtn = new JButton("Edit Selected");
         JButton deleteQuestionBtn = new JButton("Delete Selected");
         JButton refreshBtn = new JButton("Refresh List");
+        JButton importBtn = new JButton("Import Questions...");
+        JButton itemStatsBtn = new JButton("Item Statistics");
+        JButton searchBtn = new JButton("Search Questions...");
+        JButton duplicatesBtn = new JButton("Find Duplicates...");
 
         // Style buttons
         addQuestionBtn.setBackground(new Color(34, 197, 94));
@@ -120,6 +152,26 @@ public class AdminPanel extends JFrame {
         refreshBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
         refreshBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
 
+        importBtn.setBackground(new Color(139, 92, 246));
+        importBtn.setForeground(Color.WHITE);
+        importBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        importBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        itemStatsBtn.setBackground(new Color(20, 184, 166));
+        itemStatsBtn.setForeground(Color.WHITE);
+        itemStatsBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        itemStatsBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        searchBtn.setBackground(new Color(99, 102, 241));
+        searchBtn.setForeground(Color.WHITE);
+        searchBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        searchBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        duplicatesBtn.setBackground(new Color(234, 179, 8));
+        duplicatesBtn.setForeground(Color.WHITE);
+        duplicatesBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        duplicatesBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+
         controlPanel.add(Box.createRigidArea(new Dimension(0, 10)));
         controlPanel.add(addQuestionBtn);
         controlPanel.add(Box.createRigidArea(new Dimension(0, 10)));
@@ -128,12 +180,28 @@ public class AdminPanel extends JFrame {
         controlPanel.add(deleteQuestionBtn);
         controlPanel.add(Box.createRigidArea(new Dimension(0, 10)));
         controlPanel.add(refreshBtn);
+        controlPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        controlPanel.add(importBtn);
+        controlPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        controlPanel.add(itemStatsBtn);
+        controlPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        controlPanel.add(searchBtn);
+        controlPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        controlPanel.add(duplicatesBtn);
         controlPanel.add(Box.createVerticalGlue());
 
         // Right Panel - Questions Table
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setBorder(BorderFactory.createTitledBorder("Questions Database"));
         
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterPanel.add(new JLabel("Search:"));
+        filterPanel.add(searchField);
+        filterPanel.add(categoryFilter);
+        filterPanel.add(difficultyFilter);
+        filterPanel.add(matchCountLabel);
+        tablePanel.add(filterPanel, BorderLayout.NORTH);
+
         JScrollPane scrollPane = new JScrollPane(questionsTable);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
 
@@ -145,13 +213,46 @@ public class AdminPanel extends JFrame {
         addQuestionBtn.addActionListener(e -> showAddQuestionDialog());
         editQuestionBtn.addActionListener(e -> editSelectedQuestion());
         deleteQuestionBtn.addActionListener(e -> deleteSelectedQuestion());
-        refreshBtn.addActionListener(e -> {
-            loadQuestions();
-            updateStats();
-        });
+        refreshBtn.addActionListener(e -> refresh());
+        importBtn.addActionListener(e -> importQuestions());
+        itemStatsBtn.addActionListener(e -> new ItemStatsDialog(this, dbManager).start());
+        searchBtn.addActionListener(e -> new QuestionSearchDialog(this, dbManager, this::editQuestion).start());
+        duplicatesBtn.addActionListener(e -> new DuplicatesDialog(this, dbManager, this::editQuestion).start());
     }
 
     private void setupEvents() {
+        // Click a header to sort by that column (in SQL), again to reverse
+        questionsTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent evt) {
+                int column = questionsTable.columnAtPoint(evt.getPoint());
+                if (column >= 0) {
+                    tableModel.sortByColumn(questionsTable.convertColumnIndexToModel(column));
+                    updateColumnHeaders();
+                }
+            }
+        });
+
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchDelay.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchDelay.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchDelay.restart();
+            }
+        });
+        categoryFilter.addActionListener(e -> applyFilter());
+        difficultyFilter.addActionListener(e -> applyFilter());
+        tableModel.addTableModelListener(e -> matchCountLabel.setText(tableModel.getRowCount() + " questions"));
+
         // Double-click to edit
         questionsTable.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
@@ -164,36 +265,87 @@ public class AdminPanel extends JFrame {
     }
 
     private void loadQuestions() {
-        try {
-            List<Question> questions = dbManager.getAllQuestions();
-            tableModel.setRowCount(0);
-            
-            for (Question question : questions) {
-                Object[] row = {
-                    question.getId(),
-                    question.getCategory(),
-                    question.getQuestionText().length() > 50 ? 
-                        question.getQuestionText().substring(0, 50) + "..." : 
-                        question.getQuestionText(),
-                    question.getDifficulty(),
-                    question.getCorrectOptionText()
-                };
-                tableModel.addRow(row);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading questions: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
+        tableModel.reload();
+    }
+
+    private void applyFilter() {
+        String category = categoryFilter.getSelectedIndex() > 0 ? (String) categoryFilter.getSelectedItem() : null;
+        String difficulty = difficultyFilter.getSelectedIndex() > 0 ? (String) difficultyFilter.getSelectedItem() : null;
+        QuestionQuery query = tableModel.getQuery().withFilter(category, difficulty, searchField.getText());
+        tableModel.setQuery(query);
+    }
+
+    private void updateColumnHeaders() {
+        TableColumnModel columns = questionsTable.getColumnModel();
+        for (int i = 0; i < columns.getColumnCount(); i++) {
+            columns.getColumn(i).setHeaderValue(tableModel.getColumnName(columns.getColumn(i).getModelIndex()));
         }
+        questionsTable.getTableHeader().repaint();
     }
 
     private void updateStats() {
-        try {
-            int totalQuestions = dbManager.getQuestionCount();
-            List<String> categories = dbManager.getCategories();
-            statsLabel.setText("Total Questions: " + totalQuestions + " | Categories: " + categories.size());
-        } catch (SQLException e) {
-            statsLabel.setText("Error loading statistics");
+        SwingAsync.onEdt(dbManager.getCategoryCounts(), counts -> {
+            categoryCounts = counts;
+            showStats(true);
+        }, e -> statsLabel.setText("Error loading statistics"));
+    }
+
+    /**
+     * Fold a question change into the counts instead of querying them again
+     */
+    private void updateStats(QuestionChangeEvent event) {
+        if (categoryCounts == null) {
+            return;
+        }
+        Set<String> categoriesBefore = new HashSet<>(categoryCounts.keySet());
+        List<Question> removed = event.getType() == QuestionChangeEvent.Type.INSERTED ? List.of()
+            : event.getType() == QuestionChangeEvent.Type.UPDATED ? event.getPrevious() : event.getQuestions();
+        List<Question> added = event.getType() == QuestionChangeEvent.Type.DELETED ? List.of() : event.getQuestions();
+        for (Question question : removed) {
+            categoryCounts.computeIfPresent(question.getCategory(), (category, count) -> count > 1 ? count - 1 : null);
+        }
+        for (Question question : added) {
+            categoryCounts.merge(question.getCategory(), 1, Integer::sum);
+        }
+        showStats(!categoriesBefore.equals(categoryCounts.keySet()));
+    }
+
+    private void showStats(boolean categoriesChanged) {
+        int totalQuestions = 0;
+        for (int count : categoryCounts.values()) {
+            totalQuestions += count;
+        }
+        statsLabel.setText("Total Questions: " + totalQuestions + " | Categories: " + categoryCounts.size());
+        if (categoriesChanged) {
+            List<String> categories = new ArrayList<>(categoryCounts.keySet());
+            categories.sort(null);
+            updateCategoryFilter(categories);
+        }
+    }
+
+    /**
+     * Refill the category filter, keeping the current choice if it still exists
+     */
+    private void updateCategoryFilter(List<String> categories) {
+        Object selected = categoryFilter.getSelectedItem();
+        ActionListener[] listeners = categoryFilter.getActionListeners();
+        for (ActionListener listener : listeners) {
+            categoryFilter.removeActionListener(listener);
         }
+        categoryFilter.removeAllItems();
+        categoryFilter.addItem("All Categories");
+        for (String category : categories) {
+            categoryFilter.addItem(category);
+        }
+        categoryFilter.setSelectedItem(categories.contains(selected) ? selected : "All Categories");
+        for (ActionListener listener : listeners) {
+            categoryFilter.addActionListener(listener);
+        }
+    }
+
+    private void refresh() {
+        loadQuestions();
+        updateStats();
     }
 
     private void showAddQuestionDialog() {
@@ -202,18 +354,41 @@ public class AdminPanel extends JFrame {
         
         if (dialog.isConfirmed()) {
             Question newQuestion = dialog.getQuestion();
-            try {
-                dbManager.insertQuestion(newQuestion);
-                loadQuestions();
-                updateStats();
+            unlessDuplicate(newQuestion, () -> SwingAsync.onEdt(dbManager.insertQuestion(newQuestion), saved -> {
                 JOptionPane.showMessageDialog(this, "Question added successfully!");
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Error adding question: " + e.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> JOptionPane.showMessageDialog(this, "Error adding question: " + e.getMessage(),
+                "Database Error", JOptionPane.ERROR_MESSAGE)));
         }
     }
 
+    /**
+     * Run {@code save} unless the question nearly duplicates stored ones and the admin decides not to
+     * save it. A failed check does not block saving.
+     */
+    private void unlessDuplicate(Question question, Runnable save) {
+        SwingAsync.onEdt(dbManager.findNearDuplicates(question, MAX_DUPLICATES_SHOWN), duplicates -> {
+            if (duplicates.isEmpty()) {
+                save.run();
+                return;
+            }
+            StringBuilder message = new StringBuilder("This question looks like a duplicate of:\n\n");
+            for (SearchHit duplicate : duplicates) {
+                Question existing = duplicate.getQuestion();
+                message.append(String.format("#%d (%.0f%% similar): %s%n", existing.getId(),
+                    duplicate.getScore() * 100, existing.getQuestionText()));
+            }
+            message.append("\nSave it anyway?");
+            int result = JOptionPane.showConfirmDialog(this, message.toString(), "Possible Duplicate",
+                JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            if (result == JOptionPane.YES_OPTION) {
+                save.run();
+            }
+        }, e -> {
+            System.err.println("Near-duplicate check failed: " + e.getMessage());
+            save.run();
+        });
+    }
+
     private void editSelectedQuestion() {
         int selectedRow = questionsTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -221,31 +396,37 @@ public class AdminPanel extends JFrame {
             return;
         }
 
-        try {
-            int questionId = (Integer) tableModel.getValueAt(selectedRow, 0);
-            List<Question> questions = dbManager.getAllQuestions();
-            Question selectedQuestion = questions.stream()
-                .filter(q -> q.getId() == questionId)
-                .findFirst()
-                .orElse(null);
-
-            if (selectedQuestion != null) {
-                QuestionDialog dialog = new QuestionDialog(this, "Edit Question", selectedQuestion);
-                dialog.setVisible(true);
-                
-                if (dialog.isConfirmed()) {
-                    // Delete old and insert new (simple update approach)
-                    dbManager.deleteQuestion(questionId);
-                    dbManager.insertQuestion(dialog.getQuestion());
-                    loadQuestions();
-                    updateStats();
-                    JOptionPane.showMessageDialog(this, "Question updated successfully!");
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error editing question: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
+        Question selectedQuestion = tableModel.getQuestion(selectedRow);
+        if (selectedQuestion == null) {
+            JOptionPane.showMessageDialog(this, "The selected question is still loading, please try again.");
+            return;
         }
+        editQuestion(selectedQuestion.getId());
+    }
+
+    /**
+     * Load the current version of a question (not the possibly older row on screen) and edit it
+     */
+    private void editQuestion(int questionId) {
+        SwingAsync.onEdt(dbManager.getQuestionById(questionId), current -> {
+            if (current == null) {
+                JOptionPane.showMessageDialog(this, "This question has been deleted.");
+                return;
+            }
+            QuestionDialog dialog = new QuestionDialog(this, "Edit Question", current);
+            dialog.setVisible(true);
+
+            if (dialog.isConfirmed()) {
+                Question edited = dialog.getQuestion();
+                edited.setId(current.getId());
+                unlessDuplicate(edited, () -> SwingAsync.onEdt(dbManager.updateQuestion(edited), updated -> {
+                    JOptionPane.showMessageDialog(this, updated
+                        ? "Question updated successfully!" : "This question has been deleted.");
+                }, e -> JOptionPane.showMessageDialog(this, "Error editing question: " + e.getMessage(),
+                    "Database Error", JOptionPane.ERROR_MESSAGE)));
+            }
+        }, e -> JOptionPane.showMessageDialog(this, "Error loading question: " + e.getMessage(),
+            "Database Error", JOptionPane.ERROR_MESSAGE));
     }
 
     private void deleteSelectedQuestion() {
@@ -255,23 +436,37 @@ public class AdminPanel extends JFrame {
             return;
         }
 
+        // Resolve the row now: the modal dialog keeps dispatching change events, which can shift the rows
+        Question selectedQuestion = tableModel.getQuestion(selectedRow);
+        if (selectedQuestion == null) {
+            JOptionPane.showMessageDialog(this, "The selected question is still loading, please try again.");
+            return;
+        }
+        int questionId = selectedQuestion.getId();
+
         int result = JOptionPane.showConfirmDialog(this,
-            "Are you sure you want to delete this question?",
+            "Are you sure you want to delete question " + questionId + "?\n\n" + selectedQuestion.getQuestionText(),
             "Confirm Delete",
             JOptionPane.YES_NO_OPTION);
 
         if (result == JOptionPane.YES_OPTION) {
-            try {
-                int questionId = (Integer) tableModel.getValueAt(selectedRow, 0);
-                dbManager.deleteQuestion(questionId);
-                loadQuestions();
-                updateStats();
+            SwingAsync.onEdt(dbManager.deleteQuestion(questionId), done -> {
                 JOptionPane.showMessageDialog(this, "Question deleted successfully!");
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Error deleting question: " + e.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> JOptionPane.showMessageDialog(this, "Error deleting question: " + e.getMessage(),
+                "Database Error", JOptionPane.ERROR_MESSAGE));
+        }
+    }
+
+    private void importQuestions() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Questions");
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+            "Question files (CSV, JSON)", "csv", "json", "jsonl"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        new ImportDialog(this, dbManager.getDatabaseManager(), chooser.getSelectedFile().toPath(), this::refresh)
+            .start();
     }
 
     private void logout() {
@@ -279,6 +474,13 @@ public class AdminPanel extends JFrame {
         new LoginFrame().setVisible(true);
     }
 
+    @Override
+    public void dispose() {
+        tableModel.dispose();
+        dbManager.getDatabaseManager().removeQuestionListener(statsListener);
+        super.dispose();
+    }
+
     // Inner class for Question Dialog
     private static class QuestionDialog extends JDialog {
         private JTextField categoryField;
@@ -0,0 +1,233 @@
+package com.smartquiz.ui;
+
+import com.smartquiz.database.AsyncDatabaseManager;
+import com.smartquiz.models.DuplicateCluster;
+import com.smartquiz.models.Question;
+import com.smartquiz.utils.SwingAsync;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Clusters of near-duplicate questions found by a scan of the whole bank, largest first.
+ * Select a question to keep it and merge into it the members of its cluster that are near-duplicates
+ * of it (their answers and item statistics move over), or to delete just that question.
+ * Double-click a question to open it.
+ */
+public class DuplicatesDialog extends JDialog {
+    private static final int MAX_CLUSTERS = 2000;
+    private static final String[] COLUMNS = {"Cluster", "ID", "Category", "Question", "Difficulty"};
+
+    private final AsyncDatabaseManager dbManager;
+    private final IntConsumer openQuestion;
+    private DefaultTableModel tableModel;
+    private JTable table;
+    private JLabel statusLabel;
+    private JButton scanButton;
+    // Clusters on screen, and the cluster and question of every table row
+    private final List<List<Question>> clusters = new ArrayList<>();
+    private final List<int[]> rows = new ArrayList<>();
+
+    /**
+     * @param openQuestion called with the id of a double-clicked question
+     */
+    public DuplicatesDialog(Frame parent, AsyncDatabaseManager dbManager, IntConsumer openQuestion) {
+        super(parent, "Duplicate Questions", false);
+        this.dbManager = dbManager;
+        this.openQuestion = openQuestion;
+
+        initializeComponents();
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        setSize(900, 500);
+        setLocationRelativeTo(parent);
+    }
+
+    private void initializeComponents() {
+        setLayout(new BorderLayout());
+
+        tableModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 1 ? Integer.class : String.class;
+            }
+        };
+        table = new JTable(tableModel);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getColumnModel().getColumn(3).setPreferredWidth(400);
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent evt) {
+                int row = table.getSelectedRow();
+                if (evt.getClickCount() == 2 && row >= 0) {
+                    openQuestion.accept(questionAt(row).getId());
+                }
+            }
+        });
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        statusLabel = new JLabel("Scanning...");
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        scanButton = new JButton("Scan Again");
+        JButton mergeButton = new JButton("Keep Selected, Merge Others");
+        JButton deleteButton = new JButton("Delete Selected");
+
+        scanButton.setBackground(new Color(59, 130, 246));
+        scanButton.setForeground(Color.WHITE);
+        scanButton.setFocusPainted(false);
+        mergeButton.setBackground(new Color(34, 197, 94));
+        mergeButton.setForeground(Color.WHITE);
+        mergeButton.setFocusPainted(false);
+        deleteButton.setBackground(new Color(239, 68, 68));
+        deleteButton.setForeground(Color.WHITE);
+        deleteButton.setFocusPainted(false);
+
+        scanButton.addActionListener(e -> scan());
+        mergeButton.addActionListener(e -> mergeIntoSelected());
+        deleteButton.addActionListener(e -> deleteSelected());
+        buttonPanel.add(scanButton);
+        buttonPanel.add(mergeButton);
+        buttonPanel.add(deleteButton);
+        bottomPanel.add(statusLabel, BorderLayout.WEST);
+        bottomPanel.add(buttonPanel, BorderLayout.EAST);
+        add(bottomPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Show the dialog and scan the bank in the background
+     */
+    public void start() {
+        setVisible(true);
+        scan();
+    }
+
+    private void scan() {
+        scanButton.setEnabled(false);
+        statusLabel.setText("Scanning the question bank for near-duplicates...");
+        long start = System.nanoTime();
+        SwingAsync.onEdt(dbManager.findDuplicateClusters(), found -> {
+            scanButton.setEnabled(true);
+            clusters.clear();
+            for (DuplicateCluster cluster : found.subList(0, Math.min(MAX_CLUSTERS, found.size()))) {
+                clusters.add(new ArrayList<>(cluster.getQuestions()));
+            }
+            showClusters();
+            long seconds = (System.nanoTime() - start) / 1_000_000_000;
+            statusLabel.setText(found.isEmpty() ? "No near-duplicates found (" + seconds + " s)"
+                : found.size() + " clusters" + (found.size() > MAX_CLUSTERS ? " (largest " + MAX_CLUSTERS + " shown)" : "")
+                    + " found in " + seconds + " s");
+        }, e -> {
+            scanButton.setEnabled(true);
+            statusLabel.setText("Error scanning for duplicates: " + e.getMessage());
+        });
+    }
+
+    private void showClusters() {
+        clusters.removeIf(cluster -> cluster.size() < 2);
+        tableModel.setRowCount(0);
+        rows.clear();
+        for (int c = 0; c < clusters.size(); c++) {
+            List<Question> cluster = clusters.get(c);
+            for (int q = 0; q < cluster.size(); q++) {
+                Question question = cluster.get(q);
+                rows.add(new int[] {c, q});
+                tableModel.addRow(new Object[] {
+                    q == 0 ? "#" + (c + 1) + " (" + cluster.size() + ")" : "", question.getId(),
+                    question.getCategory(), question.getQuestionText(), question.getDifficulty()
+                });
+            }
+        }
+    }
+
+    private Question questionAt(int row) {
+        int[] position = rows.get(table.convertRowIndexToModel(row));
+        return clusters.get(position[0]).get(position[1]);
+    }
+
+    private void mergeIntoSelected() {
+        int row = table.getSelectedRow();
+        if (row == -1) {
+            JOptionPane.showMessageDialog(this, "Please select the question to keep.");
+            return;
+        }
+        List<Question> cluster = clusters.get(rows.get(table.convertRowIndexToModel(row))[0]);
+        Question keep = questionAt(row);
+        List<Integer> others = new ArrayList<>();
+        for (Question question : cluster) {
+            if (question.getId() != keep.getId()) {
+                others.add(question.getId());
+            }
+        }
+        // A cluster is chained: only the members that are near-duplicates of the kept question are merged
+        SwingAsync.onEdt(dbManager.verifyDuplicates(keep.getId(), others),
+            duplicates -> confirmMerge(cluster, keep, duplicates, others.size()),
+            e -> JOptionPane.showMessageDialog(this, "Error checking duplicates: " + e.getMessage(),
+                "Database Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void confirmMerge(List<Question> cluster, Question keep, List<Integer> duplicates, int others) {
+        if (duplicates.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "None of the other questions in this cluster is a near-duplicate of question "
+                + keep.getId() + ". Select another question to keep.");
+            return;
+        }
+        String unrelated = duplicates.size() < others
+            ? " The other " + (others - duplicates.size()) + " questions in the cluster are not near-duplicates of it and are kept."
+            : "";
+        int result = JOptionPane.showConfirmDialog(this,
+            "Keep question " + keep.getId() + " and merge " + duplicates.size()
+                + " duplicates into it? Their answers move to the kept question and they are deleted." + unrelated,
+            "Confirm Merge",
+            JOptionPane.YES_NO_OPTION);
+        if (result != JOptionPane.YES_OPTION) {
+            return;
+        }
+        SwingAsync.onEdt(dbManager.mergeDuplicates(keep.getId(), duplicates), merged -> {
+            if (merged == duplicates.size()) {
+                cluster.removeIf(question -> duplicates.contains(question.getId()));
+                showClusters();
+                statusLabel.setText("Merged " + merged + " questions into question " + keep.getId());
+            } else {
+                // Some changed since the scan and were left alone
+                scan();
+            }
+        }, e -> JOptionPane.showMessageDialog(this, "Error merging questions: " + e.getMessage(),
+            "Database Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void deleteSelected() {
+        int row = table.getSelectedRow();
+        if (row == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a question to delete.");
+            return;
+        }
+        Question question = questionAt(row);
+        int result = JOptionPane.showConfirmDialog(this,
+            "Are you sure you want to delete question " + question.getId() + "?",
+            "Confirm Delete",
+            JOptionPane.YES_NO_OPTION);
+        if (result != JOptionPane.YES_OPTION) {
+            return;
+        }
+        SwingAsync.onEdt(dbManager.deleteQuestion(question.getId()), done -> {
+            for (List<Question> cluster : clusters) {
+                cluster.remove(question);
+            }
+            showClusters();
+            statusLabel.setText("Deleted question " + question.getId());
+        }, e -> JOptionPane.showMessageDialog(this, "Error deleting question: " + e.getMessage(),
+            "Database Error", JOptionPane.ERROR_MESSAGE));
+    }
+}
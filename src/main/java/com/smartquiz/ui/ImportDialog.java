@@ -0,0 +1,137 @@
+package com.smartquiz.ui;
+
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.importer.ImportProgress;
+import com.smartquiz.importer.QuestionImporter;
+import com.smartquiz.utils.SwingAsync;
+
+import javax.swing.*;
+import java.awt.*;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Progress dialog for a bulk question import running in the background
+ */
+public class ImportDialog extends JDialog {
+    private final QuestionImporter importer;
+    private final Path file;
+    private final Runnable onFinished;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
+    private JButton cancelButton;
+
+    public ImportDialog(Frame parent, DatabaseManager dbManager, Path file, Runnable onFinished) {
+        super(parent, "Import Questions", false);
+        this.importer = new QuestionImporter(dbManager);
+        this.file = file;
+        this.onFinished = onFinished;
+
+        initializeComponents();
+        setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        setSize(460, 170);
+        setLocationRelativeTo(parent);
+    }
+
+    private void initializeComponents() {
+        setLayout(new BorderLayout());
+
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        JLabel fileLabel = new JLabel("Importing " + file.getFileName());
+        fileLabel.setFont(new Font("Arial", Font.BOLD, 14));
+
+        progressBar = new JProgressBar(0, 1000);
+        progressBar.setStringPainted(true);
+
+        statusLabel = new JLabel("Starting...");
+
+        panel.add(fileLabel, BorderLayout.NORTH);
+        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(statusLabel, BorderLayout.SOUTH);
+        add(panel, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+        cancelButton = new JButton("Cancel");
+        cancelButton.setBackground(new Color(239, 68, 68));
+        cancelButton.setForeground(Color.WHITE);
+        cancelButton.setFocusPainted(false);
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            statusLabel.setText("Cancelling after the current chunk...");
+            importer.cancel();
+        });
+        buttonPanel.add(cancelButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Show the dialog and run the import on a background thread
+     */
+    public void start() {
+        setVisible(true);
+        CompletableFuture<ImportProgress> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return importer.importFile(file, progress -> SwingUtilities.invokeLater(() -> showProgress(progress)));
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "smartquiz-import");
+            thread.setDaemon(true);
+            thread.start();
+        });
+        SwingAsync.onEdt(future, this::showResult, error -> {
+            dispose();
+            JOptionPane.showMessageDialog(getParent(), "Import failed: " + error.getMessage()
+                    + "\nRun the import again to resume from the last committed chunk.",
+                "Import Error", JOptionPane.ERROR_MESSAGE);
+            onFinished.run();
+        });
+    }
+
+    private void showProgress(ImportProgress progress) {
+        progressBar.setValue((int) (progress.getFraction() * 1000));
+        progressBar.setString(String.format("%.0f%%", progress.getFraction() * 100));
+        statusLabel.setText(String.format("%,d imported, %,d rejected (%,.0f rows/s)",
+            progress.getImported(), progress.getRejected(), progress.getRowsPerSecond()));
+    }
+
+    private void showResult(ImportProgress result) {
+        if (result.isAlreadyImported()) {
+            int choice = JOptionPane.showConfirmDialog(this,
+                file.getFileName() + " has already been imported and has not changed since.\n"
+                    + "Import all of it again? This adds its questions a second time.",
+                "Already Imported", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            if (choice == JOptionPane.YES_OPTION) {
+                // Every row is now a near-duplicate of the question it created before
+                importer.setResume(false);
+                importer.setAllowDuplicates(true);
+                start();
+                return;
+            }
+            dispose();
+            onFinished.run();
+            return;
+        }
+        dispose();
+        StringBuilder message = new StringBuilder();
+        message.append(result.isCancelled() ? "Import cancelled; run it again to resume.\n\n" : "Import complete.\n\n");
+        message.append(String.format("Imported: %,d%nRejected: %,d%n", result.getImported(), result.getRejected()));
+        if (result.getDuplicates() > 0) {
+            message.append(String.format("  of which near-duplicates: %,d%n", result.getDuplicates()));
+        }
+        if (result.getResumedRows() > 0) {
+            message.append(String.format("Skipped (imported by an earlier run): %,d%n", result.getResumedRows()));
+        }
+        message.append(String.format("Time: %.1fs%n", result.getElapsedMillis() / 1000.0));
+        if (result.getRejectedReport() != null) {
+            message.append("\nRejected rows and reasons:\n").append(result.getRejectedReport());
+        }
+        JOptionPane.showMessageDialog(getParent(), message.toString(), "Import Questions",
+            result.getRejected() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+        onFinished.run();
+    }
+}
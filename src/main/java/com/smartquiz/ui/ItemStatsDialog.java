@@ -0,0 +1,107 @@
+package com.smartquiz.ui;
+
+import com.smartquiz.database.AsyncDatabaseManager;
+import com.smartquiz.models.ItemStats;
+import com.smartquiz.utils.SwingAsync;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Item statistics of the most answered questions: p-value (share answered correctly), how often each
+ * option was picked (the correct one marked with *) and the median time taken. Read from the
+ * aggregates in question_stats, never from the raw attempts.
+ */
+public class ItemStatsDialog extends JDialog {
+    private static final int MAX_ROWS = 500;
+    private static final String[] COLUMNS = {
+        "ID", "Question", "Attempts", "p-value", "A", "B", "C", "D", "Unanswered", "Median time"
+    };
+
+    private final AsyncDatabaseManager dbManager;
+    private DefaultTableModel tableModel;
+    private JLabel statusLabel;
+
+    public ItemStatsDialog(Frame parent, AsyncDatabaseManager dbManager) {
+        super(parent, "Item Statistics", false);
+        this.dbManager = dbManager;
+
+        initializeComponents();
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        setSize(900, 500);
+        setLocationRelativeTo(parent);
+    }
+
+    private void initializeComponents() {
+        setLayout(new BorderLayout());
+
+        tableModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return switch (column) {
+                    case 0, 2 -> Integer.class;
+                    case 3 -> Double.class;
+                    default -> String.class;
+                };
+            }
+        };
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        table.getColumnModel().getColumn(1).setPreferredWidth(300);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        statusLabel = new JLabel("Loading...");
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.setBackground(new Color(59, 130, 246));
+        refreshButton.setForeground(Color.WHITE);
+        refreshButton.setFocusPainted(false);
+        refreshButton.addActionListener(e -> load());
+        bottomPanel.add(statusLabel, BorderLayout.WEST);
+        bottomPanel.add(refreshButton, BorderLayout.EAST);
+        add(bottomPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Show the dialog and load the statistics in the background
+     */
+    public void start() {
+        setVisible(true);
+        load();
+    }
+
+    private void load() {
+        statusLabel.setText("Loading...");
+        SwingAsync.onEdt(dbManager.getItemStats(MAX_ROWS), this::showStats,
+            e -> statusLabel.setText("Error loading item statistics: " + e.getMessage()));
+    }
+
+    private void showStats(List<ItemStats> stats) {
+        tableModel.setRowCount(0);
+        for (ItemStats item : stats) {
+            Object[] row = new Object[COLUMNS.length];
+            row[0] = item.getQuestionId();
+            row[1] = item.getQuestionText();
+            row[2] = item.getAttempts();
+            row[3] = Math.round(item.getPValue() * 100) / 100.0;
+            for (int option = 0; option < 4; option++) {
+                row[4 + option] = String.format("%.0f%%%s", item.getOptionShare(option) * 100,
+                    option == item.getCorrectAnswer() ? " *" : "");
+            }
+            row[8] = String.format("%.0f%%", item.getAttempts() == 0 ? 0.0
+                : item.getUnanswered() * 100.0 / item.getAttempts());
+            row[9] = String.format("%.1fs", item.getMedianTimeMillis() / 1000.0);
+            tableModel.addRow(row);
+        }
+        statusLabel.setText(stats.isEmpty() ? "No answers recorded yet"
+            : stats.size() + " most answered questions" + (stats.size() == MAX_ROWS ? " (top " + MAX_ROWS + ")" : ""));
+    }
+}
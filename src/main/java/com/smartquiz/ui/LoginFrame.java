@@ -1,27 +1,39 @@
 package com.smartquiz.ui;
 
-import com.smartquiz.database.DatabaseManager;
-import com.smartquiz.models.User;
+import com.smartquiz.auth.AuthenticationService;
+import com.smartquiz.database.AsyncDatabaseManager;
 import com.smartquiz.utils.PasswordUtils;
+import com.smartquiz.utils.SwingAsync;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
- * Login Frame for user authentication
+ * Login Frame for user authentication.
+ * At startup it can be shown before the database is ready: the buttons stay disabled (the fields can
+ * already be filled in) until the database future completes. Password hashing and checking run on the
+ * {@link AuthenticationService} pool; when it is saturated the user is asked to try again.
  */
 public class LoginFrame extends JFrame {
     private JTextField usernameField;
     private JPasswordField passwordField;
     private JButton loginButton;
     private JButton registerButton;
-    private DatabaseManager dbManager;
+    private AuthenticationService auth;
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
 
     public LoginFrame() {
-        this.dbManager = DatabaseManager.getInstance();
+        this(CompletableFuture.completedFuture(AsyncDatabaseManager.getInstance()));
+    }
+
+    /**
+     * @param database completes once the database is initialized; until then login is disabled
+     */
+    public LoginFrame(CompletableFuture<AsyncDatabaseManager> database) {
         initializeComponents();
         setupLayout();
         setupEvents();
@@ -31,6 +43,27 @@ public class LoginFrame extends JFrame {
         setSize(400, 300);
         setLocationRelativeTo(null);
         setResizable(false);
+
+        if (database.isDone() && !database.isCompletedExceptionally()) {
+            auth = AuthenticationService.getInstance();
+            ready.complete(null);
+        } else {
+            loginButton.setEnabled(false);
+            registerButton.setEnabled(false);
+            SwingAsync.onEdt(database, db -> {
+                auth = AuthenticationService.getInstance();
+                loginButton.setEnabled(true);
+                registerButton.setEnabled(true);
+                ready.complete(null);
+            }, ready::completeExceptionally);
+        }
+    }
+
+    /**
+     * Completes on the EDT once login can be used, or exceptionally if the database failed to start
+     */
+    public CompletableFuture<Void> getReady() {
+        return ready;
     }
 
     private void initializeComponents() {
@@ -119,6 +152,9 @@ public class LoginFrame extends JFrame {
     }
 
     private void performLogin() {
+        if (auth == null) {
+            return; // Enter pressed while still starting up
+        }
         String username = usernameField.getText().trim();
         String password = new String(passwordField.getPassword());
 
@@ -128,8 +164,9 @@ public class LoginFrame extends JFrame {
             return;
         }
 
-        try {
-            User user = dbManager.authenticateUser(username, password);
+        // BCrypt verification is deliberately slow; keep it and the lookup off the EDT
+        setLoginEnabled(false);
+        SwingAsync.onEdt(auth.login(username, password), user -> {
             if (user != null) {
                 // Login successful
                 dispose();
@@ -139,14 +176,28 @@ public class LoginFrame extends JFrame {
                     new UserPanel(user).setVisible(true);
                 }
             } else {
+                setLoginEnabled(true);
                 JOptionPane.showMessageDialog(this, "Invalid username or password.", 
                     "Login Failed", JOptionPane.ERROR_MESSAGE);
                 passwordField.setText("");
             }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> {
+            setLoginEnabled(true);
+            if (ex instanceof RejectedExecutionException) {
+                JOptionPane.showMessageDialog(this, "The server is busy signing other users in. Please try again in a moment.",
+                    "Server Busy", JOptionPane.WARNING_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    private void setLoginEnabled(boolean enabled) {
+        loginButton.setEnabled(enabled);
+        registerButton.setEnabled(enabled);
+        passwordField.setEnabled(enabled);
+        setCursor(enabled ? Cursor.getDefaultCursor() : Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
     }
 
     private void showRegistrationDialog() {
@@ -218,19 +269,21 @@ public class LoginFrame extends JFrame {
                 return;
             }
 
-            try {
-                if (dbManager.userExists(username)) {
+            createButton.setEnabled(false);
+            SwingAsync.onEdt(auth.register(username, email, password, "user"), created -> {
+                if (created) {
+                    JOptionPane.showMessageDialog(registerDialog, "Account created successfully!");
+                    registerDialog.dispose();
+                } else {
+                    createButton.setEnabled(true);
                     JOptionPane.showMessageDialog(registerDialog, "Username already exists.");
-                    return;
                 }
-
-                String hashedPassword = PasswordUtils.hashPassword(password);
-                dbManager.insertUser(username, email, hashedPassword, "user");
-                JOptionPane.showMessageDialog(registerDialog, "Account created successfully!");
-                registerDialog.dispose();
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(registerDialog, "Error creating account: " + ex.getMessage());
-            }
+            }, ex -> {
+                createButton.setEnabled(true);
+                JOptionPane.showMessageDialog(registerDialog, ex instanceof RejectedExecutionException
+                    ? "The server is busy. Please try again in a moment."
+                    : "Error creating account: " + ex.getMessage());
+            });
         });
 
         cancelButton.addActionListener(e -> registerDialog.dispose());
@@ -0,0 +1,153 @@
+package com.smartquiz.ui;
+
+import com.smartquiz.database.AsyncDatabaseManager;
+import com.smartquiz.models.Question;
+import com.smartquiz.models.SearchHit;
+import com.smartquiz.utils.SwingAsync;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Search-as-you-type over the question bank: ranked word matches in the question and its options,
+ * followed by similar questions that still match a misspelt search. Double-click a hit to open it.
+ */
+public class QuestionSearchDialog extends JDialog {
+    private static final int MAX_HITS = 100;
+    private static final String[] COLUMNS = {"ID", "Category", "Question", "Difficulty", "Match"};
+
+    private final AsyncDatabaseManager dbManager;
+    private final IntConsumer openQuestion;
+    private JTextField searchField;
+    private DefaultTableModel tableModel;
+    private JTable table;
+    private JLabel statusLabel;
+    private Timer searchDelay;
+    private final List<Question> shown = new ArrayList<>();
+    // Bumped by every search; results of an older one are dropped
+    private int searchId;
+
+    /**
+     * @param openQuestion called with the id of a double-clicked hit
+     */
+    public QuestionSearchDialog(Frame parent, AsyncDatabaseManager dbManager, IntConsumer openQuestion) {
+        super(parent, "Search Questions", false);
+        this.dbManager = dbManager;
+        this.openQuestion = openQuestion;
+
+        initializeComponents();
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        setSize(900, 500);
+        setLocationRelativeTo(parent);
+    }
+
+    private void initializeComponents() {
+        setLayout(new BorderLayout());
+
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+        searchPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 5, 10));
+        searchField = new JTextField();
+        searchPanel.add(new JLabel("Search:"), BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        add(searchPanel, BorderLayout.NORTH);
+
+        tableModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 0 ? Integer.class : String.class;
+            }
+        };
+        table = new JTable(tableModel);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getColumnModel().getColumn(2).setPreferredWidth(400);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        statusLabel = new JLabel("Type to search question text and options");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        add(statusLabel, BorderLayout.SOUTH);
+
+        // Search once typing pauses rather than on every keystroke
+        searchDelay = new Timer(150, e -> search());
+        searchDelay.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchDelay.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchDelay.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchDelay.restart();
+            }
+        });
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent evt) {
+                int row = table.getSelectedRow();
+                if (evt.getClickCount() == 2 && row >= 0) {
+                    openQuestion.accept(shown.get(table.convertRowIndexToModel(row)).getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Show the dialog with the cursor in the search box
+     */
+    public void start() {
+        setVisible(true);
+        searchField.requestFocusInWindow();
+    }
+
+    private void search() {
+        int current = ++searchId;
+        String text = searchField.getText();
+        if (text.isBlank()) {
+            showHits(List.of(), "Type to search question text and options");
+            return;
+        }
+        long start = System.nanoTime();
+        SwingAsync.onEdt(dbManager.searchQuestions(text, MAX_HITS), hits -> {
+            if (current == searchId) {
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                showHits(hits, (hits.isEmpty() ? "No matches" : hits.size() + " matches") + " (" + millis + " ms)");
+            }
+        }, e -> {
+            if (current == searchId) {
+                statusLabel.setText("Error searching: " + e.getMessage());
+            }
+        });
+    }
+
+    private void showHits(List<SearchHit> hits, String status) {
+        tableModel.setRowCount(0);
+        shown.clear();
+        for (SearchHit hit : hits) {
+            Question question = hit.getQuestion();
+            shown.add(question);
+            tableModel.addRow(new Object[] {
+                question.getId(), question.getCategory(), question.getQuestionText(), question.getDifficulty(),
+                hit.getMatch() == SearchHit.Match.WORDS ? "words" : String.format("similar (%.0f%%)", hit.getScore() * 100)
+            });
+        }
+        statusLabel.setText(status);
+    }
+}
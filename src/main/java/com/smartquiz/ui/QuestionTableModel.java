@@ -0,0 +1,351 @@
+package com.smartquiz.ui;
+
+import com.smartquiz.database.AsyncDatabaseManager;
+import com.smartquiz.database.QuestionChangeEvent;
+import com.smartquiz.database.QuestionChangeListener;
+import com.smartquiz.database.QuestionQuery;
+import com.smartquiz.models.Question;
+import com.smartquiz.utils.SwingAsync;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Table model over the questions table that only holds the pages being looked at.
+ * <p>
+ * The row count comes from a COUNT query; rows are fetched in fixed-size pages when the table first
+ * asks for them and kept in a small LRU. Pages are read with keyset pagination ({@link QuestionQuery}):
+ * the key of the last row of every page read so far is remembered, so scrolling reads each page with
+ * an index seek, and a jump only steps over the rows between the nearest known page and the target.
+ * Filtering and sorting are done by SQL. While a page is loading its cells are blank.
+ * <p>
+ * Question changes published by the database ({@link QuestionChangeEvent}) are applied in place: an
+ * edit that keeps the row's position replaces it, while inserts and deletes adjust the row count and
+ * drop the cached pages from the affected one on, so only the rows on screen are read again.
+ * Large batches (imports) recount instead. Call {@link #dispose()} when the table goes away.
+ * <p>
+ * Confined to the EDT, like every Swing model; database work runs on {@link AsyncDatabaseManager}.
+ */
+public class QuestionTableModel extends AbstractTableModel {
+    public static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 30;
+    // Pages requested while another one loads; older requests (scrolled past) are dropped
+    private static final int MAX_QUEUED_PAGES = 4;
+
+    private static final String[] COLUMNS = {"ID", "Category", "Question", "Difficulty", "Correct Answer"};
+    private static final QuestionQuery.Sort[] COLUMN_SORTS = {
+        QuestionQuery.Sort.ID, QuestionQuery.Sort.CATEGORY, null, QuestionQuery.Sort.DIFFICULTY, null
+    };
+
+    private final AsyncDatabaseManager dbManager;
+    private QuestionQuery query = QuestionQuery.all();
+    private int rowCount;
+    // Bumped by every reload; a row count from an older reload is discarded
+    private int generation;
+
+    private final Map<Integer, List<Question>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Question>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Last key of each page read since the reload; kept when the page itself is evicted
+    private final TreeMap<Integer, QuestionQuery.Key> pageEnds = new TreeMap<>();
+    private final Deque<Integer> queued = new ArrayDeque<>();
+    private final Set<Integer> failed = new HashSet<>();
+    private int loadingPage = -1;
+    // Identifies the page load in flight; a load that no longer matches is abandoned
+    private int loadId;
+
+    private final QuestionChangeListener changeListener =
+        event -> SwingUtilities.invokeLater(() -> applyChange(event));
+
+    public QuestionTableModel(AsyncDatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        dbManager.getDatabaseManager().addQuestionListener(changeListener);
+    }
+
+    /**
+     * Stop following question changes
+     */
+    public void dispose() {
+        dbManager.getDatabaseManager().removeQuestionListener(changeListener);
+    }
+
+    public QuestionQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Show the rows matching another filter or order
+     */
+    public void setQuery(QuestionQuery query) {
+        this.query = query;
+        reload();
+    }
+
+    /**
+     * Column {@code column} sorts by, or null if it is not sortable
+     */
+    public QuestionQuery.Sort getColumnSort(int column) {
+        return COLUMN_SORTS[column];
+    }
+
+    /**
+     * Sort by a column, or flip the direction if the table is already sorted by it
+     */
+    public void sortByColumn(int column) {
+        QuestionQuery.Sort sort = COLUMN_SORTS[column];
+        if (sort == null) {
+            return;
+        }
+        boolean descending = sort == query.getSort() && !query.isDescending();
+        setQuery(query.withSort(sort, descending));
+    }
+
+    /**
+     * Drop every cached page and count again, e.g. after a bulk import
+     */
+    public void reload() {
+        int current = ++generation;
+        pages.clear();
+        pageEnds.clear();
+        queued.clear();
+        failed.clear();
+        abandonLoad();
+        SwingAsync.onEdt(dbManager.countQuestions(query), count -> {
+            if (current == generation) {
+                rowCount = count;
+                fireTableDataChanged();
+            }
+        }, e -> System.err.println("Error counting questions: " + e.getMessage()));
+    }
+
+    /**
+     * The question at a row, or null if its page is not loaded (yet)
+     */
+    public Question getQuestion(int row) {
+        List<Question> page = pages.get(row / PAGE_SIZE);
+        if (page == null) {
+            request(row / PAGE_SIZE);
+            return null;
+        }
+        int index = row % PAGE_SIZE;
+        return index < page.size() ? page.get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        if (COLUMN_SORTS[column] != null && COLUMN_SORTS[column] == query.getSort()) {
+            return COLUMNS[column] + (query.isDescending() ? " ▼" : " ▲");
+        }
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Question question = getQuestion(row);
+        if (question == null) {
+            return null;
+        }
+        // Long question text is cut to the column width by the renderer
+        return switch (column) {
+            case 0 -> question.getId();
+            case 1 -> question.getCategory();
+            case 2 -> question.getQuestionText();
+            case 3 -> question.getDifficulty();
+            default -> question.getCorrectOptionText();
+        };
+    }
+
+    private void request(int page) {
+        if (page == loadingPage || queued.contains(page) || failed.contains(page)) {
+            return;
+        }
+        queued.addFirst(page);
+        while (queued.size() > MAX_QUEUED_PAGES) {
+            queued.removeLast();
+        }
+        loadNext();
+    }
+
+    /**
+     * Load the most recently requested page, one at a time
+     */
+    private void loadNext() {
+        if (loadingPage >= 0 || queued.isEmpty()) {
+            return;
+        }
+        int page = queued.removeFirst();
+        int current = ++loadId;
+        loadingPage = page;
+
+        // Continue after the closest page before this one whose end is known
+        Map.Entry<Integer, QuestionQuery.Key> before = pageEnds.lowerEntry(page);
+        QuestionQuery.Key after = before != null ? before.getValue() : null;
+        int skip = (before != null ? page - before.getKey() - 1 : page) * PAGE_SIZE;
+
+        SwingAsync.onEdt(dbManager.getQuestionPage(query, after, skip, PAGE_SIZE), loaded -> {
+            if (current != loadId) {
+                return;
+            }
+            loadingPage = -1;
+            pages.put(page, loaded.getQuestions());
+            if (loaded.getLastKey() != null && loaded.getQuestions().size() == PAGE_SIZE) {
+                pageEnds.put(page, loaded.getLastKey());
+            }
+            int first = page * PAGE_SIZE;
+            int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+            loadNext();
+        }, e -> {
+            if (current != loadId) {
+                return;
+            }
+            loadingPage = -1;
+            failed.add(page);
+            System.err.println("Error loading question page " + page + ": " + e.getMessage());
+            loadNext();
+        });
+    }
+
+    private void abandonLoad() {
+        loadId++;
+        loadingPage = -1;
+    }
+
+    private void applyChange(QuestionChangeEvent event) {
+        if (event.getQuestions().size() > PAGE_SIZE) {
+            reload();
+            return;
+        }
+        List<Question> questions = event.getQuestions();
+        for (int i = 0; i < questions.size(); i++) {
+            switch (event.getType()) {
+                case INSERTED -> rowInserted(questions.get(i));
+                case DELETED -> rowDeleted(questions.get(i));
+                case UPDATED -> rowUpdated(event.getPrevious().get(i), questions.get(i));
+            }
+        }
+    }
+
+    private void rowInserted(Question question) {
+        if (!query.matches(question)) {
+            return;
+        }
+        int row = locate(query.keyOf(question));
+        rowCount++;
+        invalidateFrom(row / PAGE_SIZE);
+        fireTableRowsInserted(row, row);
+    }
+
+    private void rowDeleted(Question question) {
+        int row = findLoadedRow(question.getId());
+        if (row < 0) {
+            if (!query.matches(question) || rowCount == 0) {
+                return;
+            }
+            row = Math.min(locate(query.keyOf(question)), rowCount - 1);
+        }
+        rowCount--;
+        invalidateFrom(row / PAGE_SIZE);
+        fireTableRowsDeleted(row, row);
+    }
+
+    private void rowUpdated(Question before, Question after) {
+        boolean matchedBefore = query.matches(before);
+        boolean matchesNow = query.matches(after);
+        int row = findLoadedRow(after.getId());
+        if (row >= 0 && matchedBefore && matchesNow
+                && query.compare(query.keyOf(before), query.keyOf(after)) == 0) {
+            pages.get(row / PAGE_SIZE).set(row % PAGE_SIZE, after);
+            fireTableRowsUpdated(row, row);
+            return;
+        }
+        // The row moves (or enters/leaves the filter)
+        if (matchedBefore) {
+            rowDeleted(before);
+        }
+        if (matchesNow) {
+            rowInserted(after);
+        }
+    }
+
+    /**
+     * The row a question with this key has (or would have). Exact when its page is cached, otherwise
+     * the first row of the page it falls in.
+     */
+    private int locate(QuestionQuery.Key key) {
+        int page = 0;
+        for (Map.Entry<Integer, QuestionQuery.Key> end : pageEnds.entrySet()) {
+            if (query.compare(end.getValue(), key) >= 0) {
+                break;
+            }
+            page = end.getKey() + 1;
+        }
+        int index = 0;
+        List<Question> rows = pages.get(page);
+        if (rows != null) {
+            while (index < rows.size() && query.compare(query.keyOf(rows.get(index)), key) < 0) {
+                index++;
+            }
+        }
+        return Math.min(page * PAGE_SIZE + index, rowCount);
+    }
+
+    private int findLoadedRow(int questionId) {
+        for (Map.Entry<Integer, List<Question>> page : pages.entrySet()) {
+            List<Question> rows = page.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getId() == questionId) {
+                    return page.getKey() * PAGE_SIZE + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Forget pages from {@code page} on; their rows have shifted
+     */
+    private void invalidateFrom(int page) {
+        pages.keySet().removeIf(cached -> cached >= page);
+        pageEnds.tailMap(page, true).clear();
+        queued.removeIf(queuedPage -> queuedPage >= page);
+        failed.removeIf(failedPage -> failedPage >= page);
+        if (loadingPage >= page) {
+            abandonLoad();
+            loadNext();
+        }
+    }
+}
@@ -1,24 +1,49 @@
 package com.smartquiz.ui;
 
-import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.database.AdaptiveSession;
+import com.smartquiz.database.AsyncDatabaseManager;
 import com.smartquiz.models.Question;
+import com.smartquiz.models.QuestionAttempt;
 import com.smartquiz.models.QuizResult;
+import com.smartquiz.models.Rating;
 import com.smartquiz.models.User;
+import com.smartquiz.utils.SwingAsync;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Quiz Frame for taking quizzes
+ * Quiz Frame for taking quizzes.
+ * A fixed quiz gets all of its questions up front and can be paged back and forth; an adaptive quiz
+ * ({@link AdaptiveSession}) gets one question at a time, scores each answer as it is given and asks
+ * for the next question at the user's updated ability, so it cannot go back.
  */
 public class QuizFrame extends JFrame {
+    /**
+     * Difficulty of a review session: questions due for review, which is practice, not a scored quiz
+     */
+    public static final String REVIEW = "review";
+
     private User currentUser;
-    private DatabaseManager dbManager;
+    private AsyncDatabaseManager dbManager;
     private List<Question> questions;
+    // Chosen option per question, -1 while unanswered
+    private int[] answers;
+    // Time each question has been on screen, summed over visits
+    private long[] timeSpentMillis;
+    private int shownIndex = -1;
+    private long shownAtNanos;
+    private AdaptiveSession adaptiveSession;
+    private Rating ability;
     private int currentQuestionIndex;
     private int score;
     private long startTime;
@@ -37,9 +62,33 @@ public class QuizFrame extends JFrame {
     private Timer timer;
     private int timeElapsed;
 
-    public QuizFrame(User user, String category, String difficulty, int numQuestions) throws SQLException {
+    /**
+     * @param questions the quiz, already fetched off the EDT (see UserPanel.startQuiz); must not be empty
+     */
+    public QuizFrame(User user, String category, String difficulty, List<Question> questions) {
+        this(user, category, difficulty, questions, questions.size(), null);
+    }
+
+    /**
+     * An adaptive quiz
+     * @param first the session's first question, already picked off the EDT (see UserPanel.startAdaptiveQuiz)
+     */
+    public QuizFrame(User user, AdaptiveSession session, Question first) {
+        this(user, session.getCategory(), null, List.of(first), session.getLength(), session);
+    }
+
+    private QuizFrame(User user, String category, String difficulty, List<Question> questions, int length,
+                      AdaptiveSession session) {
+        if (questions.isEmpty()) {
+            throw new IllegalArgumentException("A quiz needs at least one question");
+        }
         this.currentUser = user;
-        this.dbManager = DatabaseManager.getInstance();
+        this.dbManager = AsyncDatabaseManager.getInstance();
+        this.questions = new ArrayList<>(questions);
+        this.answers = new int[length];
+        Arrays.fill(answers, -1);
+        this.timeSpentMillis = new long[length];
+        this.adaptiveSession = session;
         this.category = category;
         this.difficulty = difficulty;
         this.currentQuestionIndex = 0;
@@ -47,14 +96,6 @@ public class QuizFrame extends JFrame {
         this.startTime = System.currentTimeMillis();
         this.timeElapsed = 0;
 
-        loadQuestions(numQuestions);
-        
-        if (questions.isEmpty()) {
-            JOptionPane.showMessageDialog(null, "No questions available for the selected criteria.");
-            dispose();
-            return;
-        }
-
         initializeComponents();
         setupLayout();
         setupEvents();
@@ -67,10 +108,6 @@ public class QuizFrame extends JFrame {
         setLocationRelativeTo(null);
     }
 
-    private void loadQuestions(int numQuestions) throws SQLException {
-        questions = dbManager.getRandomQuestions(numQuestions, category, difficulty);
-    }
-
     private void initializeComponents() {
         questionLabel = new JLabel();
         questionLabel.setFont(new Font("Arial", Font.BOLD, 16));
@@ -166,7 +203,9 @@ public class QuizFrame extends JFrame {
 
     private void setupEvents() {
         nextButton.addActionListener(e -> {
-            if (currentQuestionIndex < questions.size() - 1) {
+            if (adaptiveSession != null) {
+                answerAdaptive();
+            } else if (currentQuestionIndex < questions.size() - 1) {
                 currentQuestionIndex++;
                 displayCurrentQuestion();
             } else {
@@ -181,33 +220,62 @@ public class QuizFrame extends JFrame {
             }
         });
 
-        // Auto-advance on selection (optional)
-        for (JRadioButton button : optionButtons) {
-            button.addActionListener(e -> {
-                if (currentQuestionIndex == questions.size() - 1) {
-                    nextButton.setText("Finish Quiz");
+        for (int i = 0; i < optionButtons.length; i++) {
+            int option = i;
+            optionButtons[i].addActionListener(e -> answers[currentQuestionIndex] = option);
+        }
+    }
+
+    /**
+     * Score the current answer, then move on to a question at the updated ability (or finish)
+     */
+    private void answerAdaptive() {
+        Question question = questions.get(currentQuestionIndex);
+        boolean correct = answers[currentQuestionIndex] == question.getCorrectAnswer();
+        nextButton.setEnabled(false);
+        SwingAsync.onEdt(dbManager.recordAdaptiveAnswer(adaptiveSession, question.getId(), correct)
+            .thenCompose(rating -> {
+                ability = rating;
+                return dbManager.nextAdaptiveQuestion(adaptiveSession);
+            }), next -> {
+                nextButton.setEnabled(true);
+                if (next == null) {
+                    // Finished, or no unasked question left in the category
+                    finishQuiz();
+                    return;
                 }
+                questions.add(next);
+                currentQuestionIndex++;
+                displayCurrentQuestion();
+            }, e -> {
+                nextButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error loading the next question: " + e.getMessage(),
+                    "Database Error", JOptionPane.ERROR_MESSAGE);
             });
-        }
     }
 
     private void displayCurrentQuestion() {
+        stopQuestionClock();
+        shownIndex = currentQuestionIndex;
+        shownAtNanos = System.nanoTime();
         Question question = questions.get(currentQuestionIndex);
         
         questionLabel.setText("<html><div style='width: 700px;'>" + 
             (currentQuestionIndex + 1) + ". " + question.getQuestionText() + "</div></html>");
         
-        String[] options = question.getOptions();
+        optionGroup.clearSelection();
         for (int i = 0; i < 4; i++) {
-            optionButtons[i].setText((char)('A' + i) + ". " + options[i]);
-            optionButtons[i].setSelected(false);
+            optionButtons[i].setText((char)('A' + i) + ". " + question.getOption(i));
+        }
+        if (answers[currentQuestionIndex] >= 0) {
+            optionButtons[answers[currentQuestionIndex]].setSelected(true);
         }
 
-        progressLabel.setText((currentQuestionIndex + 1) + " / " + questions.size());
+        progressLabel.setText((currentQuestionIndex + 1) + " / " + answers.length);
         
-        previousButton.setEnabled(currentQuestionIndex > 0);
+        previousButton.setEnabled(adaptiveSession == null && currentQuestionIndex > 0);
         
-        if (currentQuestionIndex == questions.size() - 1) {
+        if (currentQuestionIndex == answers.length - 1) {
             nextButton.setText("Finish Quiz");
         } else {
             nextButton.setText("Next");
@@ -233,32 +301,43 @@ public class QuizFrame extends JFrame {
         }
 
         // Calculate score
+        stopQuestionClock();
         calculateScore();
-
-        // Save result
-        try {
-            String resultCategory = (category != null && !category.isEmpty()) ? category : "Mixed";
-            String resultDifficulty = (difficulty != null && !difficulty.isEmpty()) ? difficulty : "mixed";
-            
-            QuizResult result = new QuizResult(
-                currentUser.getId(),
-                resultCategory,
-                score,
-                questions.size(),
-                timeElapsed,
-                resultDifficulty
-            );
-            
-            dbManager.insertQuizResult(result);
-            
+        saveAttempts();
+        CompletableFuture<Void> reviewsScheduled = scheduleReviews();
+
+        // Save result in the background; the frame stays up (inert) until it is stored. A review session
+        // is the user's own missed questions, so it stays out of quiz_results and thus the leaderboards and stats
+        String resultCategory = (category != null && !category.isEmpty()) ? category : "Mixed";
+        String resultDifficulty = adaptiveSession != null ? "adaptive"
+            : (difficulty != null && !difficulty.isEmpty()) ? difficulty : "mixed";
+        
+        QuizResult result = new QuizResult(
+            currentUser.getId(),
+            resultCategory,
+            score,
+            questions.size(),
+            timeElapsed,
+            resultDifficulty
+        );
+        
+        nextButton.setEnabled(false);
+        previousButton.setEnabled(false);
+        // The parent refreshes its due count on completion, so wait for the schedule too
+        CompletableFuture<?> resultSaved = REVIEW.equals(difficulty)
+            ? CompletableFuture.completedFuture(null) : dbManager.submitQuizResult(result);
+        SwingAsync.onEdt(resultSaved.thenCombine(reviewsScheduled, (saved, done) -> saved), saved -> {
             // Show results
             showResults();
-            
-        } catch (SQLException e) {
+            completeQuiz();
+        }, e -> {
             JOptionPane.showMessageDialog(this, "Error saving quiz result: " + e.getMessage(),
                 "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+            completeQuiz();
+        });
+    }
 
+    private void completeQuiz() {
         dispose();
         
         // Notify parent to refresh
@@ -269,25 +348,53 @@ public class QuizFrame extends JFrame {
 
     private void calculateScore() {
         score = 0;
-        // This is a simplified scoring - in a real implementation, 
-        // you'd track user answers throughout the quiz
-        
-        // For demo purposes, we'll simulate based on difficulty
-        double successRate;
-        switch (difficulty != null ? difficulty : "medium") {
-            case "easy":
-                successRate = 0.8;
-                break;
-            case "hard":
-                successRate = 0.6;
-                break;
-            default:
-                successRate = 0.7;
+        for (int i = 0; i < questions.size(); i++) {
+            if (answers[i] == questions.get(i).getCorrectAnswer()) {
+                score++;
+            }
         }
-        
-        score = (int) (questions.size() * successRate + Math.random() * questions.size() * 0.2);
-        score = Math.min(score, questions.size()); // Cap at total questions
-        score = Math.max(score, 0); // Ensure non-negative
+    }
+
+    /**
+     * Credit the time since the shown question appeared to it
+     */
+    private void stopQuestionClock() {
+        if (shownIndex >= 0) {
+            timeSpentMillis[shownIndex] += (System.nanoTime() - shownAtNanos) / 1_000_000;
+            shownIndex = -1;
+        }
+    }
+
+    /**
+     * Record every answer given, for the item statistics; the result does not wait for them
+     */
+    private void saveAttempts() {
+        long now = Instant.now().getEpochSecond();
+        List<QuestionAttempt> attempts = new ArrayList<>(questions.size());
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+            attempts.add(new QuestionAttempt(currentUser.getId(), question.getId(), answers[i],
+                answers[i] == question.getCorrectAnswer(), timeSpentMillis[i], now));
+        }
+        dbManager.submitAttempts(attempts).exceptionally(e -> {
+            System.err.println("Error saving answers: " + SwingAsync.unwrap(e).getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Feed every question shown into the user's review schedule; unanswered ones count as missed
+     */
+    private CompletableFuture<Void> scheduleReviews() {
+        Map<Integer, Boolean> reviewed = new LinkedHashMap<>();
+        for (int i = 0; i < questions.size(); i++) {
+            reviewed.put(questions.get(i).getId(), answers[i] == questions.get(i).getCorrectAnswer());
+        }
+        // A failure here is logged only; it must not cost the user their result
+        return dbManager.recordReviews(currentUser.getId(), reviewed).exceptionally(e -> {
+            System.err.println("Error scheduling reviews: " + SwingAsync.unwrap(e).getMessage());
+            return null;
+        });
     }
 
     private void showResults() {
@@ -312,7 +419,9 @@ public class QuizFrame extends JFrame {
             score, questions.size(), percentage, grade,
             minutes, seconds,
             category != null ? category : "Mixed",
-            difficulty != null ? difficulty : "Mixed"
+            adaptiveSession != null
+                ? "Adaptive" + (ability != null ? " (your rating: " + Math.round(ability.getRating()) + ")" : "")
+                : difficulty != null ? difficulty : "Mixed"
         );
         
         JOptionPane.showMessageDialog(this, message, "Quiz Results", JOptionPane.INFORMATION_MESSAGE);
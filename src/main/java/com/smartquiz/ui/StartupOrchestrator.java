@@ -0,0 +1,129 @@
+package com.smartquiz.ui;
+
+import com.smartquiz.database.AsyncDatabaseManager;
+import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.utils.StartupTrace;
+import com.smartquiz.utils.SwingAsync;
+
+import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Brings the application up with its startup phases overlapped.
+ * The database (SQLite native library, migrations, question bank) is opened on a background thread
+ * while the EDT sets the look and feel and shows the login window, whose buttons are enabled once the
+ * database is ready. After the window is up, the classes of the next screens are loaded in the
+ * background so the first click after login does not pay for them.
+ * <p>
+ * Phases are reported through {@link StartupTrace}; "first frame" and "login ready" are the two
+ * numbers to watch. With {@code -Dsmartquiz.startup.exitWhenReady=true} the application exits once
+ * startup is complete, which is how the class-data-sharing archive is trained (see the appcds profile).
+ */
+public final class StartupOrchestrator {
+    // Loaded (not initialized) off the EDT while the user types their credentials
+    private static final String[] WARM_CLASSES = {
+        "com.smartquiz.ui.AdminPanel",
+        "com.smartquiz.ui.UserPanel",
+        "com.smartquiz.ui.QuizFrame",
+        "com.smartquiz.ui.QuestionTableModel",
+        "javax.swing.JTable",
+        "javax.swing.table.DefaultTableModel",
+        "javax.swing.table.JTableHeader",
+        "javax.swing.JComboBox",
+        "javax.swing.JScrollPane",
+        "javax.swing.JTabbedPane",
+        "javax.swing.JRadioButton",
+        "javax.swing.JProgressBar",
+        "javax.swing.JTextArea",
+        "javax.swing.Timer",
+        "org.mindrot.jbcrypt.BCrypt"
+    };
+
+    private final boolean exitWhenReady = Boolean.getBoolean("smartquiz.startup.exitWhenReady");
+    private final CompletableFuture<Void> warmedUp = new CompletableFuture<>();
+
+    public void start() {
+        StartupTrace.mark("main");
+        CompletableFuture<AsyncDatabaseManager> database = new CompletableFuture<>();
+        Thread opener = new Thread(() -> openDatabase(database), "smartquiz-startup-db");
+        opener.setDaemon(true);
+        opener.start();
+        SwingUtilities.invokeLater(() -> {
+            try {
+                showLogin(database);
+            } catch (RuntimeException e) {
+                System.err.println("Failed to launch application: " + e.getMessage());
+                e.printStackTrace();
+                System.exit(1);
+            }
+        });
+    }
+
+    private static void openDatabase(CompletableFuture<AsyncDatabaseManager> database) {
+        try {
+            DatabaseManager db = DatabaseManager.getInstance();
+            StartupTrace.mark("database connected");
+            db.initializeDatabase();
+            StartupTrace.mark("database initialized");
+            database.complete(AsyncDatabaseManager.getInstance());
+        } catch (SQLException | RuntimeException e) {
+            database.completeExceptionally(e);
+        }
+    }
+
+    private void showLogin(CompletableFuture<AsyncDatabaseManager> database) {
+        try {
+            // Set Look and Feel to system default for better appearance
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            System.err.println("Could not set system look and feel: " + e.getMessage());
+        }
+        StartupTrace.mark("look and feel set");
+
+        LoginFrame loginFrame = new LoginFrame(database);
+        loginFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                StartupTrace.mark("first frame");
+                warmUp();
+            }
+        });
+        loginFrame.setVisible(true);
+
+        SwingAsync.onEdt(loginFrame.getReady(), ignored -> {
+            StartupTrace.mark("login ready");
+            System.out.println("Startup trace: " + StartupTrace.summary());
+            if (exitWhenReady) {
+                warmedUp.thenRun(() -> System.exit(0));
+            }
+        }, e -> {
+            System.err.println("Failed to initialize database: " + e.getMessage());
+            JOptionPane.showMessageDialog(loginFrame,
+                "Failed to initialize database. Application will exit.",
+                "Database Error",
+                JOptionPane.ERROR_MESSAGE);
+            System.exit(1);
+        });
+    }
+
+    private void warmUp() {
+        Thread warmer = new Thread(() -> {
+            ClassLoader loader = StartupOrchestrator.class.getClassLoader();
+            for (String name : WARM_CLASSES) {
+                try {
+                    Class.forName(name, false, loader);
+                } catch (ClassNotFoundException | LinkageError e) {
+                    System.err.println("Startup warm-up skipped " + name + ": " + e);
+                }
+            }
+            StartupTrace.mark("classes warmed up");
+            warmedUp.complete(null);
+        }, "smartquiz-startup-warmup");
+        warmer.setDaemon(true);
+        warmer.setPriority(Thread.MIN_PRIORITY);
+        warmer.start();
+    }
+}
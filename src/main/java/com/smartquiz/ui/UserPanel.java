@@ -1,33 +1,37 @@
 package com.smartquiz.ui;
 
-import com.smartquiz.database.DatabaseManager;
+import com.smartquiz.database.AsyncDatabaseManager;
 import com.smartquiz.models.QuizResult;
 import com.smartquiz.models.User;
+import com.smartquiz.models.UserStats;
+import com.smartquiz.utils.SwingAsync;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * User Panel for taking quizzes and viewing results
  */
 public class UserPanel extends JFrame {
     private User currentUser;
-    private DatabaseManager dbManager;
+    private AsyncDatabaseManager dbManager;
     private JTable resultsTable;
     private DefaultTableModel tableModel;
     private JLabel statsLabel;
+    private JButton reviewButton;
 
     public UserPanel(User user) {
         this.currentUser = user;
-        this.dbManager = DatabaseManager.getInstance();
+        this.dbManager = AsyncDatabaseManager.getInstance();
         
         initializeComponents();
         setupLayout();
         loadUserResults();
         updateStats();
+        updateReviewCount();
         
         setTitle("SmartQuiz - User Dashboard");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -99,6 +103,11 @@ public class UserPanel extends JFrame {
         JComboBox<String> difficultyCombo = new JComboBox<>(new String[]{"All Levels", "easy", "medium", "hard"});
         difficultyCombo.setMaximumSize(new Dimension(Integer.MAX_VALUE, 25));
 
+        // Adaptive quizzes pick each question at the user's current rating instead of a fixed level
+        JCheckBox adaptiveCheck = new JCheckBox("Adaptive difficulty");
+        adaptiveCheck.setToolTipText("Each answer adjusts your rating; the next question matches it");
+        adaptiveCheck.addActionListener(e -> difficultyCombo.setEnabled(!adaptiveCheck.isSelected()));
+
         JLabel questionsLabel = new JLabel("Number of Questions:");
         JSpinner questionsSpinner = new JSpinner(new SpinnerNumberModel(5, 1, 20, 1));
         questionsSpinner.setMaximumSize(new Dimension(Integer.MAX_VALUE, 25));
@@ -110,6 +119,14 @@ public class UserPanel extends JFrame {
         startQuizButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         startQuizButton.setFocusPainted(false);
 
+        // Questions answered before, due again under the user's spaced-repetition schedule
+        reviewButton = new JButton("Review Due");
+        reviewButton.setBackground(new Color(245, 158, 11));
+        reviewButton.setForeground(Color.WHITE);
+        reviewButton.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        reviewButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        reviewButton.setFocusPainted(false);
+
         JButton refreshButton = new JButton("Refresh Results");
         refreshButton.setBackground(new Color(59, 130, 246));
         refreshButton.setForeground(Color.WHITE);
@@ -118,14 +135,11 @@ public class UserPanel extends JFrame {
         refreshButton.setFocusPainted(false);
 
         // Load categories
-        try {
-            List<String> categories = dbManager.getCategories();
+        SwingAsync.onEdt(dbManager.getCategories(), categories -> {
             for (String category : categories) {
                 categoryCombo.addItem(category);
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading categories: " + e.getMessage());
-        }
+        }, e -> JOptionPane.showMessageDialog(this, "Error loading categories: " + e.getMessage()));
 
         // Add components
         quizPanel.add(Box.createRigidArea(new Dimension(0, 10)));
@@ -136,6 +150,8 @@ public class UserPanel extends JFrame {
         quizPanel.add(difficultyLabel);
         quizPanel.add(Box.createRigidArea(new Dimension(0, 5)));
         quizPanel.add(difficultyCombo);
+        quizPanel.add(Box.createRigidArea(new Dimension(0, 5)));
+        quizPanel.add(adaptiveCheck);
         quizPanel.add(Box.createRigidArea(new Dimension(0, 15)));
         quizPanel.add(questionsLabel);
         quizPanel.add(Box.createRigidArea(new Dimension(0, 5)));
@@ -143,6 +159,8 @@ public class UserPanel extends JFrame {
         quizPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         quizPanel.add(startQuizButton);
         quizPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        quizPanel.add(reviewButton);
+        quizPanel.add(Box.createRigidArea(new Dimension(0, 10)));
         quizPanel.add(refreshButton);
         quizPanel.add(Box.createVerticalGlue());
 
@@ -168,9 +186,15 @@ public class UserPanel extends JFrame {
             
             int numQuestions = (Integer) questionsSpinner.getValue();
             
-            startQuiz(category, difficulty, numQuestions);
+            if (adaptiveCheck.isSelected()) {
+                startAdaptiveQuiz(startQuizButton, category, numQuestions);
+            } else {
+                startQuiz(startQuizButton, category, difficulty, numQuestions);
+            }
         });
 
+        reviewButton.addActionListener(e -> startReview((Integer) questionsSpinner.getValue()));
+
         refreshButton.addActionListener(e -> {
             loadUserResults();
             updateStats();
@@ -178,8 +202,7 @@ public class UserPanel extends JFrame {
     }
 
     private void loadUserResults() {
-        try {
-            List<QuizResult> results = dbManager.getUserResults(currentUser.getId());
+        SwingAsync.onEdt(dbManager.getUserResults(currentUser.getId()), results -> {
             tableModel.setRowCount(0);
             
             for (QuizResult result : results) {
@@ -194,53 +217,93 @@ public class UserPanel extends JFrame {
                 };
                 tableModel.addRow(row);
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading results: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this, "Error loading results: " + e.getMessage(),
+            "Database Error", JOptionPane.ERROR_MESSAGE));
     }
 
     private void updateStats() {
-        try {
-            List<QuizResult> results = dbManager.getUserResults(currentUser.getId());
-            if (results.isEmpty()) {
-                statsLabel.setText("No quizzes taken yet. Start your first quiz!");
-                return;
-            }
+        SwingAsync.onEdt(dbManager.getUserStats(currentUser.getId()), this::showStats,
+            e -> statsLabel.setText("Error loading statistics"));
+    }
 
-            int totalQuizzes = results.size();
-            double avgScore = results.stream()
-                .mapToDouble(QuizResult::getPercentage)
-                .average()
-                .orElse(0.0);
-            
-            QuizResult bestResult = results.stream()
-                .max((r1, r2) -> Double.compare(r1.getPercentage(), r2.getPercentage()))
-                .orElse(null);
-
-            statsLabel.setText(String.format(
-                "Total Quizzes: %d | Average Score: %.1f%% | Best Score: %.1f%% (%s)",
-                totalQuizzes, avgScore, 
-                bestResult != null ? bestResult.getPercentage() : 0.0,
-                bestResult != null ? bestResult.getCategory() : "N/A"
-            ));
-        } catch (SQLException e) {
-            statsLabel.setText("Error loading statistics");
+    private void updateReviewCount() {
+        SwingAsync.onEdt(dbManager.countDueReviews(currentUser.getId()),
+            due -> reviewButton.setText(due > 0 ? "Review Due (" + due + ")" : "Review Due"),
+            e -> System.err.println("Error counting due reviews: " + e.getMessage()));
+    }
+
+    private void showStats(UserStats stats) {
+        if (!stats.hasResults()) {
+            statsLabel.setText("No quizzes taken yet. Start your first quiz!");
+            return;
         }
+
+        statsLabel.setText(String.format(
+            "Total Quizzes: %d | Average Score: %.1f%% | Best Score: %.1f%% (%s)",
+            stats.getTotalQuizzes(), stats.getAveragePercentage(),
+            stats.getBestPercentage(),
+            stats.getBestCategory() != null ? stats.getBestCategory() : "N/A"
+        ));
     }
 
-    private void startQuiz(String category, String difficulty, int numQuestions) {
-        try {
-            QuizFrame quizFrame = new QuizFrame(currentUser, category, difficulty, numQuestions);
-            quizFrame.setQuizCompleteCallback(() -> {
-                loadUserResults();
-                updateStats();
-            });
-            quizFrame.setVisible(true);
-        } catch (Exception e) {
+    private void startQuiz(JButton startButton, String category, String difficulty, int numQuestions) {
+        startButton.setEnabled(false);
+        SwingAsync.onEdt(dbManager.getRandomQuestions(numQuestions, category, difficulty), questions -> {
+            startButton.setEnabled(true);
+            if (questions.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No questions available for the selected criteria.");
+                return;
+            }
+            showQuiz(new QuizFrame(currentUser, category, difficulty, questions));
+        }, e -> {
+            startButton.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Error starting quiz: " + e.getMessage(),
                 "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
+    }
+
+    private void startAdaptiveQuiz(JButton startButton, String category, int numQuestions) {
+        startButton.setEnabled(false);
+        Consumer<Throwable> onError = e -> {
+            startButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Error starting quiz: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
+        };
+        // Loads the question ratings on first use, then picks the first question at the user's rating
+        SwingAsync.onEdt(dbManager.startAdaptiveSession(currentUser.getId(), category, numQuestions), session ->
+            SwingAsync.onEdt(dbManager.nextAdaptiveQuestion(session), first -> {
+                startButton.setEnabled(true);
+                if (first == null) {
+                    JOptionPane.showMessageDialog(this, "No questions available for the selected criteria.");
+                    return;
+                }
+                showQuiz(new QuizFrame(currentUser, session, first));
+            }, onError), onError);
+    }
+
+    private void startReview(int numQuestions) {
+        reviewButton.setEnabled(false);
+        SwingAsync.onEdt(dbManager.getDueReviewQuestions(currentUser.getId(), numQuestions), questions -> {
+            reviewButton.setEnabled(true);
+            if (questions.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Nothing is due for review right now.");
+                return;
+            }
+            showQuiz(new QuizFrame(currentUser, null, QuizFrame.REVIEW, questions));
+        }, e -> {
+            reviewButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Error starting review: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private void showQuiz(QuizFrame quizFrame) {
+        quizFrame.setQuizCompleteCallback(() -> {
+            loadUserResults();
+            updateStats();
+            updateReviewCount();
+        });
+        quizFrame.setVisible(true);
     }
 
     private void logout() {
@@ -1,11 +1,15 @@
 package com.smartquiz.utils;
 
+import com.smartquiz.metrics.Metrics;
+import com.smartquiz.metrics.OperationMetrics;
 import org.mindrot.jbcrypt.BCrypt;
 
 /**
  * Utility class for password hashing and verification using BCrypt
  */
 public class PasswordUtils {
+    private static final OperationMetrics HASH_METRICS = Metrics.operation("PasswordUtils.hashPassword");
+    private static final OperationMetrics VERIFY_METRICS = Metrics.operation("PasswordUtils.verifyPassword");
 
     /**
      * Hash a password using BCrypt
@@ -13,7 +17,15 @@ public class PasswordUtils {
      * @return Hashed password
      */
     public static String hashPassword(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt(12));
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            String hash = BCrypt.hashpw(password, BCrypt.gensalt(12));
+            failed = false;
+            return hash;
+        } finally {
+            HASH_METRICS.record(start, failed);
+        }
     }
 
     /**
@@ -23,9 +35,13 @@ public class PasswordUtils {
      * @return true if password matches, false otherwise
      */
     public static boolean verifyPassword(String password, String hashedPassword) {
+        long start = System.nanoTime();
         try {
-            return BCrypt.checkpw(password, hashedPassword);
+            boolean matches = BCrypt.checkpw(password, hashedPassword);
+            VERIFY_METRICS.record(start, false);
+            return matches;
         } catch (Exception e) {
+            VERIFY_METRICS.record(start, true);
             System.err.println("Error verifying password: " + e.getMessage());
             return false;
         }
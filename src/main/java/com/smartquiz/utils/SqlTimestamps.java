@@ -0,0 +1,81 @@
+package com.smartquiz.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conversion between SQLite's CURRENT_TIMESTAMP text ("yyyy-MM-dd HH:mm:ss", UTC) and epoch seconds,
+ * so models can hold a long instead of a 19-character string per row
+ */
+public final class SqlTimestamps {
+    /** Models use this for "no timestamp yet" (not stored) */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private SqlTimestamps() {}
+
+    /**
+     * Epoch seconds for a SQLite timestamp, or {@link #NONE} for null
+     */
+    public static long parse(String timestamp) {
+        if (timestamp == null) {
+            return NONE;
+        }
+        // Fast path for the exact CURRENT_TIMESTAMP layout; this runs once per row loaded
+        if (timestamp.length() == 19 && timestamp.charAt(4) == '-' && timestamp.charAt(7) == '-'
+                && timestamp.charAt(10) == ' ' && timestamp.charAt(13) == ':' && timestamp.charAt(16) == ':') {
+            int year = digits(timestamp, 0, 4);
+            int month = digits(timestamp, 5, 2);
+            int day = digits(timestamp, 8, 2);
+            int hour = digits(timestamp, 11, 2);
+            int minute = digits(timestamp, 14, 2);
+            int second = digits(timestamp, 17, 2);
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= 31
+                    && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60) {
+                return daysFromCivil(year, month, day) * 86_400L + hour * 3600L + minute * 60L + second;
+            }
+        }
+        try {
+            return LocalDateTime.parse(timestamp.replace('T', ' '), FORMAT).toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Not a SQLite timestamp: " + timestamp, e);
+        }
+    }
+
+    /**
+     * The SQLite text form of epoch seconds, or null for {@link #NONE}
+     */
+    public static String format(long epochSeconds) {
+        if (epochSeconds == NONE) {
+            return null;
+        }
+        return FORMAT.format(LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC));
+    }
+
+    private static int digits(String text, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Days since 1970-01-01 in the proleptic Gregorian calendar (H. Hinnant's days_from_civil)
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+}
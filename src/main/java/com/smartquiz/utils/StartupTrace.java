@@ -0,0 +1,37 @@
+package com.smartquiz.utils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timestamps of startup phases, measured from JVM start.
+ * Each mark is printed as it happens; {@link #summary()} lists them all in one line.
+ */
+public final class StartupTrace {
+    private static final long START_MILLIS = ProcessHandle.current().info().startInstant()
+        .map(Instant::toEpochMilli)
+        .orElseGet(System::currentTimeMillis);
+    private static final List<String> marks = new ArrayList<>();
+
+    private StartupTrace() {}
+
+    /**
+     * Record that a phase finished now
+     * @return milliseconds since JVM start
+     */
+    public static long mark(String phase) {
+        long elapsed = System.currentTimeMillis() - START_MILLIS;
+        synchronized (marks) {
+            marks.add(phase + " " + elapsed + " ms");
+        }
+        System.out.println("[startup] " + elapsed + " ms: " + phase + " (" + Thread.currentThread().getName() + ")");
+        return elapsed;
+    }
+
+    public static String summary() {
+        synchronized (marks) {
+            return String.join(", ", marks);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.smartquiz.utils;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Helpers for handing background results back to the Swing event dispatch thread
+ */
+public final class SwingAsync {
+
+    /**
+     * Executor that runs tasks on the EDT
+     */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private SwingAsync() {}
+
+    /**
+     * When the future completes, call exactly one of the handlers on the EDT.
+     * The error handler receives the underlying cause, not the CompletionException wrapper.
+     */
+    public static <T> CompletableFuture<Void> onEdt(CompletableFuture<T> future,
+                                                    Consumer<? super T> onSuccess,
+                                                    Consumer<? super Throwable> onError) {
+        return future.handleAsync((value, error) -> {
+            if (error != null) {
+                onError.accept(unwrap(error));
+            } else {
+                onSuccess.accept(value);
+            }
+            return null;
+        }, EDT);
+    }
+
+    /**
+     * Strip CompletionException/ExecutionException wrappers
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}